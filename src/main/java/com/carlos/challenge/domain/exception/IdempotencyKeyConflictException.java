@@ -0,0 +1,7 @@
+package com.carlos.challenge.domain.exception;
+
+public class IdempotencyKeyConflictException extends RuntimeException {
+    public IdempotencyKeyConflictException(String message) {
+        super(message);
+    }
+}
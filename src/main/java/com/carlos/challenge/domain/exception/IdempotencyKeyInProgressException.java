@@ -0,0 +1,7 @@
+package com.carlos.challenge.domain.exception;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+    public IdempotencyKeyInProgressException(String message) {
+        super(message);
+    }
+}
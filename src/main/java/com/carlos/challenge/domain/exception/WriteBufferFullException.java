@@ -0,0 +1,7 @@
+package com.carlos.challenge.domain.exception;
+
+public class WriteBufferFullException extends RuntimeException {
+    public WriteBufferFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.carlos.challenge.domain.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One group of an {@link AccreditationAggregateQuery}. {@code pointOfSaleId} is null unless grouped
+ * by POS; {@code period} is the bucket start, null when not grouped by time.
+ */
+public record AccreditationAggregate(
+        String pointOfSaleId,
+        Instant period,
+        long count,
+        BigDecimal sum,
+        BigDecimal min,
+        BigDecimal max,
+        BigDecimal avg
+) {}
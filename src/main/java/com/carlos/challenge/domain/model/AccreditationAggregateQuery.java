@@ -0,0 +1,15 @@
+package com.carlos.challenge.domain.model;
+
+import java.time.Instant;
+
+/**
+ * Ad-hoc aggregation over {@code [from, to]}. {@code pointOfSaleId} narrows to one POS (optional);
+ * {@code byPointOfSale} and {@code bucket} pick the grouping keys. With neither, one overall row is returned.
+ */
+public record AccreditationAggregateQuery(
+        String pointOfSaleId,
+        Instant from,
+        Instant to,
+        boolean byPointOfSale,
+        TimeBucket bucket
+) {}
@@ -0,0 +1,7 @@
+package com.carlos.challenge.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** Sum and count of accreditation amounts for one POS on one UTC day. */
+public record AccreditationDailyTotal(String pointOfSaleId, LocalDate day, BigDecimal total, long count) {}
@@ -0,0 +1,20 @@
+package com.carlos.challenge.domain.model;
+
+/** Fields of {@link Accreditation} that can be selected individually, e.g. for projections and exports. */
+public enum AccreditationField {
+    ID("id"),
+    AMOUNT("amount"),
+    POINT_OF_SALE_ID("pointOfSaleId"),
+    POINT_OF_SALE_NAME("pointOfSaleName"),
+    RECEPTION_DATE("receptionDate");
+
+    private final String property;
+
+    AccreditationField(String property) {
+        this.property = property;
+    }
+
+    public String property() {
+        return property;
+    }
+}
@@ -0,0 +1,15 @@
+package com.carlos.challenge.domain.model;
+
+import java.time.Instant;
+
+/** Position of an accreditation in (receptionDate, id) order; the seek key for keyset paging. */
+public record AccreditationKey(Instant receptionDate, String id) {
+
+    public static AccreditationKey of(Accreditation acc) {
+        return new AccreditationKey(acc.receptionDate(), acc.id());
+    }
+
+    public static AccreditationKey of(AccreditationSummary summary) {
+        return new AccreditationKey(summary.receptionDate(), summary.id());
+    }
+}
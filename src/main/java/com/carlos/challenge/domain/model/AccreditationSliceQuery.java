@@ -0,0 +1,16 @@
+package com.carlos.challenge.domain.model;
+
+import java.time.Instant;
+
+/**
+ * Keyset page request: up to {@code size} accreditations strictly after {@code after} (or from the
+ * start when null) in (receptionDate, id) order. Every filter is optional.
+ */
+public record AccreditationSliceQuery(
+        String pointOfSaleId,
+        Instant from,
+        Instant to,
+        AccreditationKey after,
+        int size,
+        boolean descending
+) {}
@@ -0,0 +1,6 @@
+package com.carlos.challenge.domain.model;
+
+import java.time.Instant;
+
+/** Identity and placement of an accreditation, without its amount. */
+public record AccreditationSummary(String id, String pointOfSaleId, Instant receptionDate) {}
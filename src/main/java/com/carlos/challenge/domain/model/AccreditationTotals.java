@@ -0,0 +1,6 @@
+package com.carlos.challenge.domain.model;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record AccreditationTotals(BigDecimal total, long count, List<AccreditationDailyTotal> daily) {}
@@ -0,0 +1,20 @@
+package com.carlos.challenge.domain.model;
+
+/**
+ * Outcome of one item in a bulk write. {@code index} is the item's position in the submitted
+ * list; {@code id} is set when it was stored, {@code error} when it was not.
+ */
+public record AccreditationWriteResult(int index, String id, String error) {
+
+    public static AccreditationWriteResult stored(int index, String id) {
+        return new AccreditationWriteResult(index, id, null);
+    }
+
+    public static AccreditationWriteResult rejected(int index, String error) {
+        return new AccreditationWriteResult(index, null, error);
+    }
+
+    public boolean isStored() {
+        return error == null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.carlos.challenge.domain.model;
+
+/**
+ * Outcome of claiming an idempotency key. {@code ACQUIRED}: this caller now owns the key and must
+ * store {@code accreditation}, then mark it stored. {@code RECLAIMED}: same, but the key was taken
+ * over from an owner that never marked it stored, so {@code accreditation} may already be stored.
+ * {@code STORED}: the first request finished and {@code accreditation} is the one it stored.
+ * {@code PENDING}: the first request has not finished yet, so {@code accreditation} may never be stored.
+ */
+public record IdempotencyClaim(Accreditation accreditation, State state) {
+
+    public enum State { ACQUIRED, RECLAIMED, PENDING, STORED }
+
+    public boolean acquired() {
+        return state == State.ACQUIRED || state == State.RECLAIMED;
+    }
+}
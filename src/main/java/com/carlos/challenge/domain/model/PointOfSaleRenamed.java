@@ -0,0 +1,3 @@
+package com.carlos.challenge.domain.model;
+
+public record PointOfSaleRenamed(String pointOfSaleId, String previousName, String newName) {}
@@ -0,0 +1,6 @@
+package com.carlos.challenge.domain.model;
+
+/** Time granularity for grouping accreditations; buckets are aligned to UTC. */
+public enum TimeBucket {
+    NONE, HOUR, DAY, MONTH
+}
@@ -0,0 +1,17 @@
+package com.carlos.challenge.domain.model.graph;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Every minimum-cost path between two points as a predecessor DAG, without enumerating them.
+ * {@code nodes} holds only nodes that lie on some minimum path, origin first and destination last,
+ * the rest by distance from the origin; {@code predecessors} maps each node to the nodes right
+ * before it on those paths (empty for the origin).
+ */
+public record ShortestPathDag(
+        int totalCost,
+        List<String> nodes,
+        Map<String, Set<String>> predecessors
+) {}
@@ -1,18 +1,54 @@
 package com.carlos.challenge.domain.port.in;
 
 import com.carlos.challenge.domain.model.Accreditation;
+import com.carlos.challenge.domain.model.AccreditationAggregate;
+import com.carlos.challenge.domain.model.AccreditationAggregateQuery;
+import com.carlos.challenge.domain.model.AccreditationField;
+import com.carlos.challenge.domain.model.AccreditationSliceQuery;
+import com.carlos.challenge.domain.model.AccreditationSummary;
+import com.carlos.challenge.domain.model.AccreditationTotals;
+import com.carlos.challenge.domain.model.AccreditationWriteResult;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface AccreditationUseCasePort {
 
     Accreditation create(BigDecimal amount, String pointOfSaleId);
 
+    /**
+     * Like {@link #create(BigDecimal, String)}, but a repeated {@code idempotencyKey} returns the
+     * accreditation created by the first request instead of a new one (no key: plain create).
+     * @throws com.carlos.challenge.domain.exception.IdempotencyKeyConflictException when the key was
+     *         used for a different amount or point of sale
+     */
+    Accreditation create(BigDecimal amount, String pointOfSaleId, String idempotencyKey);
+
+    /**
+     * Accepts the accreditation for deferred persistence when write-behind is enabled; the
+     * returned record already carries its id. Falls back to {@link #create} otherwise.
+     */
+    Accreditation submit(BigDecimal amount, String pointOfSaleId);
+
+    /** {@link #submit(BigDecimal, String)} with the idempotency rules of {@link #create(BigDecimal, String, String)}. */
+    Accreditation submit(BigDecimal amount, String pointOfSaleId, String idempotencyKey);
+
+    boolean isWriteBehindEnabled();
+
+    /** Creates a batch; only {@code amount} and {@code pointOfSaleId} of each draft are used. */
+    List<AccreditationWriteResult> createAll(List<Accreditation> drafts);
+
     Accreditation findById(String id);
 
+    long refreshPointOfSaleName(String pointOfSaleId, String pointOfSaleName);
+
     void delete(String id);
 
     Page<Accreditation> findAll(Pageable pageable);
@@ -22,4 +58,19 @@ public interface AccreditationUseCasePort {
     Page<Accreditation> findByDateBetween(Instant from, Instant to, Pageable pageable);
 
     Page<Accreditation> findByPointOfSaleAndDateBetween(String pointOfSaleId, Instant from, Instant to, Pageable pageable);
+
+    Slice<AccreditationSummary> findSummaries(AccreditationSliceQuery query);
+
+    Slice<Accreditation> findSlice(AccreditationSliceQuery query);
+
+    /** Totals from the daily rollup; {@code pointOfSaleId} may be null for all POS. */
+    AccreditationTotals totals(String pointOfSaleId, LocalDate from, LocalDate to);
+
+    void rebuildTotals();
+
+    /** Must be closed by the caller. */
+    Stream<AccreditationAggregate> aggregate(AccreditationAggregateQuery query);
+
+    /** Must be closed by the caller. */
+    Stream<Accreditation> export(String pointOfSaleId, Instant from, Instant to, Set<AccreditationField> fields);
 }
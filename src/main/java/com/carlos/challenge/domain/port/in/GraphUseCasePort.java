@@ -3,6 +3,7 @@ package com.carlos.challenge.domain.port.in;
 
 import com.carlos.challenge.domain.model.graph.MinPaths;
 import com.carlos.challenge.domain.model.graph.Neighbor;
+import com.carlos.challenge.domain.model.graph.ShortestPathDag;
 
 import java.util.List;
 
@@ -11,4 +12,7 @@ public interface GraphUseCasePort {
     void removeEdge(String fromId, String toId);
     List<Neighbor> neighborsOf(String fromId);
     MinPaths shortestPaths(String fromId, String toId);
+    ShortestPathDag shortestPathDag(String fromId, String toId);
+    /** Monotonic counter of the edge set, bumped after every upsert/removal. */
+    long version();
 }
@@ -3,9 +3,12 @@ package com.carlos.challenge.domain.port.in;
 import com.carlos.challenge.domain.model.PointOfSale;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface PointOfSaleUseCasePort {
     List<PointOfSale> findAll();
+    /** Must be closed by the caller. */
+    Stream<PointOfSale> streamAll();
     PointOfSale create(String name);
     PointOfSale create(String name, Integer code);
     PointOfSale update(String id, String name);
@@ -14,4 +17,6 @@ public interface PointOfSaleUseCasePort {
     Optional<PointOfSale> findByName(String name);
     Optional<PointOfSale> findByCode(Integer code);
     String resolveId(String idOrCode);
+    /** See {@link com.carlos.challenge.domain.port.out.PointOfSaleRepositoryPort#version()}. */
+    long version();
 }
@@ -0,0 +1,24 @@
+package com.carlos.challenge.domain.port.in;
+
+import com.carlos.challenge.domain.model.Accreditation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public interface ReactiveAccreditationUseCasePort {
+
+    Mono<Accreditation> create(BigDecimal amount, String pointOfSaleId);
+
+    /** Errors with {@link IllegalArgumentException} when the id does not exist. */
+    Mono<Accreditation> findById(String id);
+
+    Mono<Void> delete(String id);
+
+    /**
+     * Accreditations of one POS, of a date range, or both; {@code from}/{@code to} must be given together.
+     * Nothing is buffered: items are pulled from the store as the subscriber requests them.
+     */
+    Flux<Accreditation> find(String pointOfSaleId, Instant from, Instant to);
+}
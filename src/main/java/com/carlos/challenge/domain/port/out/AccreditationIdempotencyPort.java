@@ -0,0 +1,24 @@
+package com.carlos.challenge.domain.port.out;
+
+import com.carlos.challenge.domain.model.Accreditation;
+import com.carlos.challenge.domain.model.IdempotencyClaim;
+
+/**
+ * Shared record of idempotency keys already used for creates. Claiming is atomic across nodes:
+ * of several concurrent claims for one key exactly one is acquired. A claim stays pending until
+ * its owner marks it stored; a pending claim whose owner has gone quiet is handed to the next caller.
+ */
+public interface AccreditationIdempotencyPort {
+
+    /**
+     * Claims {@code key} for {@code draft}, assigning its id if it has none.
+     * When the key is taken, returns the accreditation recorded with it and whether it is stored yet.
+     */
+    IdempotencyClaim claim(String key, Accreditation draft);
+
+    /** Records that the accreditation claimed under {@code key} has been stored. */
+    void markStored(String key);
+
+    /** Frees a key whose accreditation could not be stored, so a retry can go through. */
+    void release(String key);
+}
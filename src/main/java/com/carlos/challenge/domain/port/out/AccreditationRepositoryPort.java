@@ -1,18 +1,36 @@
 package com.carlos.challenge.domain.port.out;
 
 import com.carlos.challenge.domain.model.Accreditation;
+import com.carlos.challenge.domain.model.AccreditationAggregate;
+import com.carlos.challenge.domain.model.AccreditationAggregateQuery;
+import com.carlos.challenge.domain.model.AccreditationDailyTotal;
+import com.carlos.challenge.domain.model.AccreditationField;
+import com.carlos.challenge.domain.model.AccreditationSliceQuery;
+import com.carlos.challenge.domain.model.AccreditationSummary;
+import com.carlos.challenge.domain.model.AccreditationWriteResult;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface AccreditationRepositoryPort {
 
     Accreditation save(Accreditation accreditation);
 
+    /** Unordered batch insert; one result per input item, in input order. */
+    List<AccreditationWriteResult> saveAll(List<Accreditation> accreditations);
+
     Optional<Accreditation> findById(String id);
 
+    /** Sets the denormalized name on every accreditation of the POS; returns how many changed. */
+    long updatePointOfSaleName(String pointOfSaleId, String pointOfSaleName);
+
     void deleteById(String id);
 
     Page<Accreditation> findAll(Pageable pageable);
@@ -22,4 +40,30 @@ public interface AccreditationRepositoryPort {
     Page<Accreditation> findByDateBetween(Instant from, Instant to, Pageable pageable);
 
     Page<Accreditation> findByPointOfSaleAndDateBetween(String pointOfSaleId, Instant from, Instant to, Pageable pageable);
+
+    /**
+     * Keyset page of summaries, read from the index only. {@code pointOfSaleId}, {@code from} and
+     * {@code to} are required here: they are the index prefix that keeps the read covered.
+     */
+    Slice<AccreditationSummary> findSummaries(AccreditationSliceQuery query);
+
+    /** Keyset page in (receptionDate, id) order; no count query, no skip. */
+    Slice<Accreditation> findSlice(AccreditationSliceQuery query);
+
+    /** Rollup rows for {@code [from, to]} (UTC days, inclusive); all POS when {@code pointOfSaleId} is null. */
+    List<AccreditationDailyTotal> findDailyTotals(String pointOfSaleId, LocalDate from, LocalDate to);
+
+    void rebuildDailyTotals();
+
+    /**
+     * Computes the aggregate in the store and streams the groups back, ordered by POS then period.
+     * The caller must close the stream.
+     */
+    Stream<AccreditationAggregate> aggregate(AccreditationAggregateQuery query);
+
+    /**
+     * Every accreditation in {@code [from, to]} (optionally of one POS) in (receptionDate, id) order,
+     * read through a single cursor. Only {@code fields} are loaded; the rest are null. Must be closed.
+     */
+    Stream<Accreditation> stream(String pointOfSaleId, Instant from, Instant to, Set<AccreditationField> fields);
 }
@@ -0,0 +1,16 @@
+package com.carlos.challenge.domain.port.out;
+
+import com.carlos.challenge.domain.model.Accreditation;
+
+/**
+ * Deferred accreditation writes: the record is accepted now and persisted by a background
+ * flusher. Implementations assign the id up front so callers can hand it back immediately.
+ */
+public interface AccreditationWriteBufferPort {
+
+    /**
+     * @return the accepted record with its id assigned
+     * @throws com.carlos.challenge.domain.exception.WriteBufferFullException when the buffer is at capacity
+     */
+    Accreditation enqueue(Accreditation accreditation);
+}
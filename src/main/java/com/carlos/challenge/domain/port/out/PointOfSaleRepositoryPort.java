@@ -3,13 +3,24 @@ package com.carlos.challenge.domain.port.out;
 import com.carlos.challenge.domain.model.PointOfSale;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface PointOfSaleRepositoryPort {
     List<PointOfSale> findAll();
+    /**
+     * Every point of sale, read incrementally without a store-wide lock, so the listing is weakly
+     * consistent with concurrent writes. Must be closed.
+     */
+    Stream<PointOfSale> stream();
     PointOfSale save(PointOfSale point);
     void deleteById(String id);
     Optional<PointOfSale> findById(String id);
     Optional<PointOfSale> findByName(String name);
     Optional<PointOfSale> findByCode(Integer code);
     String resolveId(String idOrCode);
+    /**
+     * Monotonic counter of the store's content, bumped after every write that changed something.
+     * Reading it before the data means an unchanged value guarantees nothing was written since.
+     */
+    long version();
 }
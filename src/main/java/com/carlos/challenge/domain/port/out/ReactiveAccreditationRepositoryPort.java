@@ -0,0 +1,27 @@
+package com.carlos.challenge.domain.port.out;
+
+import com.carlos.challenge.domain.model.Accreditation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Non-blocking counterpart of {@link AccreditationRepositoryPort} for the reactive endpoints.
+ * Every {@link Flux} is in (receptionDate, id) order and is read from a cursor on demand.
+ */
+public interface ReactiveAccreditationRepositoryPort {
+
+    Mono<Accreditation> save(Accreditation accreditation);
+
+    Mono<Accreditation> findById(String id);
+
+    /** Completes with {@code true} when a document was removed. */
+    Mono<Boolean> deleteById(String id);
+
+    Flux<Accreditation> findByPointOfSale(String pointOfSaleId);
+
+    Flux<Accreditation> findByDateBetween(Instant from, Instant to);
+
+    Flux<Accreditation> findByPointOfSaleAndDateBetween(String pointOfSaleId, Instant from, Instant to);
+}
@@ -0,0 +1,27 @@
+package com.carlos.challenge.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "accreditations.retention")
+public class AccreditationRetentionProperties {
+    private boolean enabled = false;
+    /** Whole UTC months kept in Mongo besides the current one; older months are archived and removed. */
+    private int keepMonths = 12;
+    /** Directory receiving one gzipped NDJSON file per archived month. */
+    private Path archiveDir = Path.of("data", "archive");
+    private String cron = "0 30 3 * * *";
+
+    /** Oldest UTC month still kept in Mongo; everything before it is (or is about to be) archived. */
+    public YearMonth firstKeptMonth() {
+        return YearMonth.now(ZoneOffset.UTC).minusMonths(keepMonths);
+    }
+}
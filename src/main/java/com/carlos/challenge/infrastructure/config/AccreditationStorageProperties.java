@@ -0,0 +1,23 @@
+package com.carlos.challenge.infrastructure.config;
+
+import com.mongodb.client.model.TimeSeriesGranularity;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "accreditations.storage")
+public class AccreditationStorageProperties {
+    /**
+     * Create the accreditations collection as a time-series collection (time field receptionDate,
+     * meta field pointOfSaleId). Only applies when the collection does not exist yet; needs MongoDB 7.0+.
+     */
+    private boolean timeSeries = false;
+    /** Bucket granularity; should roughly match the gap between consecutive accreditations of one POS. */
+    private TimeSeriesGranularity granularity = TimeSeriesGranularity.SECONDS;
+    /** Run MongoIndexMigration at startup; turn off on all nodes but the one meant to migrate. */
+    private boolean migrateIndexes = true;
+}
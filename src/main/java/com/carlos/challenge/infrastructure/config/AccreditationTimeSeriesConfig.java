@@ -0,0 +1,61 @@
+package com.carlos.challenge.infrastructure.config;
+
+import com.carlos.challenge.infrastructure.out.persistence.mongo.entity.AccreditationDocument;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.CreateCollectionOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.TimeSeriesOptions;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+
+/**
+ * Replaces the auto-configured {@link MongoTemplate} so the accreditations collection can be created
+ * as a time-series collection before the index migration touches it (creating an index on a
+ * missing collection would create a plain one). An existing collection is left as it is.
+ * <p>
+ * A time-series collection stores buckets, not documents: {@code _id} is not unique (the adapter's
+ * {@code saveAll} checks stored ids itself, so write-behind replays and bulk requests still get
+ * duplicate-key rejections), and no query is covered by an index, since every match is unpacked from
+ * its bucket. The {@code {pointOfSaleId, receptionDate, _id}} index still bounds the buckets read by
+ * the summaries and slice queries, but {@code totalDocsExamined} is no longer 0 for them.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "accreditations.storage", name = "time-series", havingValue = "true")
+public class AccreditationTimeSeriesConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(AccreditationTimeSeriesConfig.class);
+
+    private static final String CREATED = "Created time-series collection {} (granularity {})";
+    private static final String NOT_TIME_SERIES = "Collection {} already exists as a regular collection; "
+            + "time-series storage only applies to new collections, migrate the data to use it";
+
+    static final String TIME_FIELD = "receptionDate";
+    static final String META_FIELD = "pointOfSaleId";
+
+    @Bean
+    public MongoTemplate mongoTemplate(MongoDatabaseFactory factory, MappingMongoConverter converter,
+                                       AccreditationStorageProperties props) {
+        String collection = converter.getMappingContext()
+                .getRequiredPersistentEntity(AccreditationDocument.class).getCollection();
+        ensureTimeSeries(factory.getMongoDatabase(), collection, props);
+        return new MongoTemplate(factory, converter);
+    }
+
+    static void ensureTimeSeries(MongoDatabase db, String collection, AccreditationStorageProperties props) {
+        Document existing = db.listCollections().filter(Filters.eq("name", collection)).first();
+        if (existing == null) {
+            db.createCollection(collection, new CreateCollectionOptions().timeSeriesOptions(
+                    new TimeSeriesOptions(TIME_FIELD).metaField(META_FIELD).granularity(props.getGranularity())));
+            log.info(CREATED, collection, props.getGranularity());
+        } else if (!"timeseries".equals(existing.getString("type"))) {
+            log.warn(NOT_TIME_SERIES, collection);
+        }
+    }
+}
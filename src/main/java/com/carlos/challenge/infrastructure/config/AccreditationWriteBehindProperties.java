@@ -0,0 +1,23 @@
+package com.carlos.challenge.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "accreditations.write-behind")
+public class AccreditationWriteBehindProperties {
+    private boolean enabled = false;
+    /** Max records waiting to be flushed; beyond this, creates are rejected with 429. */
+    private int capacity = 10_000;
+    private int batchSize = 500;
+    /** How long the flusher waits for a batch to fill before writing what it has. */
+    private Duration flushInterval = Duration.ofMillis(200);
+    /** NDJSON file holding batches that could not be written; replayed once Mongo is back. */
+    private Path spillFile = Path.of("data", "accreditations-spill.ndjson");
+}
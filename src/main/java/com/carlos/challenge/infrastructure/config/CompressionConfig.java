@@ -0,0 +1,21 @@
+package com.carlos.challenge.infrastructure.config;
+
+import com.carlos.challenge.infrastructure.in.web.support.GzipResponseFilter;
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "compression", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CompressionConfig {
+
+    @Bean
+    public FilterRegistrationBean<GzipResponseFilter> gzipResponseFilter(CompressionProperties props) {
+        FilterRegistrationBean<GzipResponseFilter> registration = new FilterRegistrationBean<>(new GzipResponseFilter(props));
+        registration.addUrlPatterns("/api/*");
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        return registration;
+    }
+}
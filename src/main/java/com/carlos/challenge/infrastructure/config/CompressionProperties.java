@@ -0,0 +1,32 @@
+package com.carlos.challenge.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "compression")
+public class CompressionProperties {
+    private boolean enabled = true;
+    /** Deflater level, 1 (fastest) to 9 (smallest). */
+    private int level = 6;
+    /** Gzipped bodies of responses with a strong ETag, kept per URL + ETag (direct-mapped slots). */
+    private int cacheSlots = 256;
+    private int cacheMaxEntryBytes = 1024 * 1024;
+    /** Only matching paths are compressed; the first matching entry wins. */
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Endpoint {
+        /** Ant-style pattern, e.g. {@code /api/graph/costs/**}. */
+        private String path;
+        /** Bodies smaller than this are sent as is: below ~1 KiB gzip costs more CPU than it saves bytes. */
+        private int minSize = 1024;
+    }
+}
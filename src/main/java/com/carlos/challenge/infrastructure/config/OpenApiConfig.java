@@ -13,6 +13,8 @@ public class OpenApiConfig {
     public static final String VERSION = "1.0";
     public static final String BASIC_AUTH = "basicAuth";
     public static final String BASIC = "basic";
+    public static final String BEARER_AUTH = "bearerAuth";
+    public static final String BEARER = "bearer";
 
     @Bean
     public OpenAPI customOpenAPI() {
@@ -21,6 +23,8 @@ public class OpenApiConfig {
                 .addSecurityItem(new SecurityRequirement().addList(BASIC_AUTH))
                 .components(new io.swagger.v3.oas.models.Components()
                         .addSecuritySchemes(BASIC_AUTH,
-                                new SecurityScheme().type(SecurityScheme.Type.HTTP).scheme(BASIC)));
+                                new SecurityScheme().type(SecurityScheme.Type.HTTP).scheme(BASIC))
+                        .addSecuritySchemes(BEARER_AUTH,
+                                new SecurityScheme().type(SecurityScheme.Type.HTTP).scheme(BEARER).bearerFormat("JWT")));
     }
 }
@@ -4,7 +4,6 @@ import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.codec.JsonJacksonCodec;
 import org.redisson.config.Config;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.*;
 
 @Configuration
@@ -12,11 +11,33 @@ import org.springframework.context.annotation.*;
 public class RedisConfig {
 
     @Bean
-    public RedissonClient redissonClient(
-            @Value("${redis.url:redis://127.0.0.1:6379}") String url) {
+    public RedissonClient redissonClient(RedisTopologyProperties props) {
+        return Redisson.create(toRedissonConfig(props));
+    }
+
+    public static Config toRedissonConfig(RedisTopologyProperties props) {
         Config cfg = new Config();
         cfg.setCodec(new JsonJacksonCodec());
-        cfg.useSingleServer().setAddress(url);
-        return Redisson.create(cfg);
+        String[] nodes = props.seedNodes().toArray(String[]::new);
+        int pool = props.getConnectionPoolSize();
+        switch (props.getMode()) {
+            case CLUSTER -> {
+                var servers = cfg.useClusterServers()
+                        .addNodeAddress(nodes)
+                        .setReadMode(props.getReadMode());
+                if (pool > 0) servers.setMasterConnectionPoolSize(pool).setSlaveConnectionPoolSize(pool);
+            }
+            case REPLICATED -> {
+                var servers = cfg.useReplicatedServers()
+                        .addNodeAddress(nodes)
+                        .setReadMode(props.getReadMode());
+                if (pool > 0) servers.setMasterConnectionPoolSize(pool).setSlaveConnectionPoolSize(pool);
+            }
+            default -> {
+                var server = cfg.useSingleServer().setAddress(props.getUrl());
+                if (pool > 0) server.setConnectionPoolSize(pool);
+            }
+        }
+        return cfg;
     }
 }
@@ -0,0 +1,34 @@
+package com.carlos.challenge.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.redisson.config.ReadMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "redis")
+public class RedisTopologyProperties {
+
+    public enum Mode { SINGLE, CLUSTER, REPLICATED }
+
+    private String url = "redis://127.0.0.1:6379";
+    private Mode mode = Mode.SINGLE;
+    /** Seed nodes for CLUSTER / REPLICATED; falls back to {@code url} when empty. */
+    private List<String> nodes = new ArrayList<>();
+    /** Where reads go in CLUSTER / REPLICATED mode (MASTER, SLAVE, MASTER_SLAVE). */
+    private ReadMode readMode = ReadMode.MASTER;
+    private String keyPrefix = "pos";
+    /** Hashes the POS records and indexes are split over in CLUSTER mode, each on its own slot. */
+    private int shards = 16;
+    /** Connections per node (per master, and per replica for replica reads); 0 keeps the Redisson default. */
+    private int connectionPoolSize = 0;
+
+    public List<String> seedNodes() {
+        return nodes == null || nodes.isEmpty() ? List.of(url) : nodes;
+    }
+}
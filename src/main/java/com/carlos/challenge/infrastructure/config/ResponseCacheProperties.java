@@ -0,0 +1,18 @@
+package com.carlos.challenge.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "response-cache")
+public class ResponseCacheProperties {
+    private boolean enabled = true;
+    /** Direct-mapped slots (rounded up to a power of two); a colliding key replaces the previous entry. */
+    private int slots = 4096;
+    /** Encoded bodies larger than this are written but not kept. */
+    private int maxEntryBytes = 64 * 1024;
+}
@@ -1,24 +1,47 @@
 package com.carlos.challenge.infrastructure.config;
 
+import com.carlos.challenge.infrastructure.in.web.security.BearerTokenAuthenticationFilter;
+import com.carlos.challenge.infrastructure.in.web.security.CachingAuthenticationProvider;
+import com.carlos.challenge.infrastructure.in.web.security.SignedTokenService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Configuration
 @EnableMethodSecurity
+@EnableConfigurationProperties(SignedTokenProperties.class)
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    private static final Duration AUTH_CACHE_TTL = Duration.ofMinutes(1);
+
     private final SecurityUsersProperties securityUsers;
+    private final SignedTokenProperties tokenProperties;
+    private final Set<String> loadedUsernames = new HashSet<>();
+    // not synchronized: a reload hashes passwords, and a monitor would pin the carrier of a virtual thread
+    private final ReentrantLock usersLock = new ReentrantLock();
+    private volatile int loadedUsersVersion;
 
     @Bean
     PasswordEncoder passwordEncoder() {
@@ -26,21 +49,74 @@ public class SecurityConfig {
     }
 
     @Bean
-    UserDetailsService userDetailsService(PasswordEncoder encoder) {
+    InMemoryUserDetailsManager userDetailsService(PasswordEncoder encoder) {
         InMemoryUserDetailsManager manager = new InMemoryUserDetailsManager();
-        if (securityUsers.getUsers() != null) {
-            for (SecurityUsersProperties.User u : securityUsers.getUsers()) {
-                String raw = u.getPassword() != null ? u.getPassword() : "";
-                String pwd = raw.startsWith("{") ? raw : encoder.encode(raw);
-                String[] roles = u.getRoles() != null ? u.getRoles().split("\\s*,\\s*") : new String[0];
-                manager.createUser(User.withUsername(u.getUsername()).password(pwd).roles(roles).build());
+        loadUsers(manager, encoder);
+        return manager;
+    }
+
+    // bcrypt verification is the most expensive part of a request; verified credentials are cached briefly
+    private CachingAuthenticationProvider authenticationProvider(InMemoryUserDetailsManager users, PasswordEncoder encoder) {
+        DaoAuthenticationProvider dao = new DaoAuthenticationProvider(encoder);
+        dao.setUserDetailsService(users);
+        return new CachingAuthenticationProvider(dao, () -> syncUsers(users, encoder), AUTH_CACHE_TTL);
+    }
+
+    @Bean
+    SignedTokenService signedTokenService(ObjectMapper objectMapper) {
+        return new SignedTokenService(tokenProperties, objectMapper,
+                () -> usersVersion(securityUsers.getUsers()), Clock.systemUTC());
+    }
+
+    // called on every authentication: only reloads (and so invalidates the cache) when the bound users changed
+    private int syncUsers(InMemoryUserDetailsManager manager, PasswordEncoder encoder) {
+        int version = usersVersion(securityUsers.getUsers());
+        if (version != loadedUsersVersion) {
+            usersLock.lock();
+            try {
+                if (version != loadedUsersVersion) loadUsers(manager, encoder);
+            } finally {
+                usersLock.unlock();
             }
         }
-        return manager;
+        return version;
+    }
+
+    private void loadUsers(InMemoryUserDetailsManager manager, PasswordEncoder encoder) {
+        usersLock.lock();
+        try {
+            Set<String> current = new HashSet<>();
+            if (securityUsers.getUsers() != null) {
+                for (SecurityUsersProperties.User u : securityUsers.getUsers()) {
+                    String raw = u.getPassword() != null ? u.getPassword() : "";
+                    String pwd = raw.startsWith("{") ? raw : encoder.encode(raw);
+                    String[] roles = u.getRoles() != null ? u.getRoles().split("\\s*,\\s*") : new String[0];
+                    UserDetails user = User.withUsername(u.getUsername()).password(pwd).roles(roles).build();
+                    if (manager.userExists(u.getUsername())) manager.updateUser(user); else manager.createUser(user);
+                    current.add(u.getUsername());
+                }
+            }
+            loadedUsernames.stream().filter(n -> !current.contains(n)).forEach(manager::deleteUser);
+            loadedUsernames.clear();
+            loadedUsernames.addAll(current);
+            loadedUsersVersion = usersVersion(securityUsers.getUsers());
+        } finally {
+            usersLock.unlock();
+        }
+    }
+
+    static int usersVersion(List<SecurityUsersProperties.User> users) {
+        if (users == null) return 0;
+        int h = 1;
+        for (SecurityUsersProperties.User u : users) {
+            h = 31 * h + Objects.hash(u.getUsername(), u.getPassword(), u.getRoles());
+        }
+        return h;
     }
 
     @Bean
-    SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    SecurityFilterChain securityFilterChain(HttpSecurity http, SignedTokenService tokens,
+                                            InMemoryUserDetailsManager users, PasswordEncoder encoder) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -49,6 +125,10 @@ public class SecurityConfig {
                         .requestMatchers("/actuator/health", "/actuator/info").permitAll()
                         .anyRequest().authenticated()
                 )
+                // no parent manager: the global one would verify a rejected password a second time
+                .authenticationManager(new ProviderManager(authenticationProvider(users, encoder)))
+                // bearer tokens from /api/auth/token are checked first; without one, Basic applies as before
+                .addFilterBefore(new BearerTokenAuthenticationFilter(tokens), BasicAuthenticationFilter.class)
                 .httpBasic(basic -> {});
         return http.build();
     }
@@ -0,0 +1,16 @@
+package com.carlos.challenge.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import java.time.Duration;
+
+// enabled from SecurityConfig so every context with the security setup (including web slice tests) binds it
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.token")
+public class SignedTokenProperties {
+    /** Base64 HMAC-SHA256 key, at least 32 bytes; must be the same on every node. Random per process when empty. */
+    private String secret;
+    private Duration ttl = Duration.ofMinutes(15);
+}
@@ -0,0 +1,23 @@
+package com.carlos.challenge.infrastructure.config;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Pool sizing for the {@code virtual-threads} profile. Request handling moves to virtual threads
+ * through {@code spring.threads.virtual.enabled}; the blocking Mongo and Redisson calls then simply
+ * park the request's virtual thread, so the connection pools become the concurrency limit.
+ */
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadsConfig {
+
+    @Bean
+    MongoClientSettingsBuilderCustomizer virtualThreadsMongoPool(VirtualThreadsProperties props) {
+        return settings -> settings.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(props.getMongoMaxPoolSize())
+                .maxConnecting(props.getMongoMaxConnecting()));
+    }
+}
@@ -0,0 +1,17 @@
+package com.carlos.challenge.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "virtual-threads")
+public class VirtualThreadsProperties {
+    /** Mongo connections per host; with one virtual thread per request this pool, not Tomcat, bounds concurrent queries. */
+    private int mongoMaxPoolSize = 200;
+    /** Connections the driver may be opening at the same time when a burst drains the pool. */
+    private int mongoMaxConnecting = 8;
+}
@@ -0,0 +1,68 @@
+package com.carlos.challenge.infrastructure.in.event;
+
+import com.carlos.challenge.domain.model.PointOfSaleRenamed;
+import com.carlos.challenge.domain.port.in.AccreditationUseCasePort;
+import com.carlos.challenge.domain.port.in.PointOfSaleUseCasePort;
+import com.carlos.challenge.infrastructure.in.web.service.PointOfSaleNameCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Re-denormalizes {@code pointOfSaleName} on stored accreditations after a rename. Runs off the
+ * request thread; the rename itself does not wait for (or fail because of) the bulk update.
+ * Creates that read the old name from a {@link PointOfSaleNameCache} (on this node or another one)
+ * can still store it after the first pass, so a second pass runs once every such cache has expired.
+ */
+@Component
+public class PointOfSaleRenamedListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PointOfSaleRenamedListener.class);
+
+    private static final String ACCREDITATIONS_RENAMED = "POS {} renamed '{}' -> '{}': {} accreditations updated";
+    private static final String RENAME_PROPAGATION_FAILED = "Could not propagate rename of POS {} to accreditations";
+    private static final Duration SECOND_PASS_DELAY = PointOfSaleNameCache.TTL.plusSeconds(5);
+
+    private final AccreditationUseCasePort accreditations;
+    private final PointOfSaleUseCasePort points;
+    private final TaskScheduler scheduler;
+
+    public PointOfSaleRenamedListener(AccreditationUseCasePort accreditations,
+                                      PointOfSaleUseCasePort points,
+                                      TaskScheduler scheduler) {
+        this.accreditations = accreditations;
+        this.points = points;
+        this.scheduler = scheduler;
+    }
+
+    @Async
+    @EventListener
+    public void onRenamed(PointOfSaleRenamed event) {
+        propagate(event);
+        scheduler.schedule(() -> secondPass(event), Instant.now().plus(SECOND_PASS_DELAY));
+    }
+
+    // skipped when the POS was renamed again (or deleted) meanwhile: that rename has its own passes
+    void secondPass(PointOfSaleRenamed event) {
+        try {
+            if (!event.newName().equals(points.findById(event.pointOfSaleId()).name())) return;
+        } catch (IllegalArgumentException ex) {
+            return;
+        }
+        propagate(event);
+    }
+
+    private void propagate(PointOfSaleRenamed event) {
+        try {
+            long updated = accreditations.refreshPointOfSaleName(event.pointOfSaleId(), event.newName());
+            log.info(ACCREDITATIONS_RENAMED, event.pointOfSaleId(), event.previousName(), event.newName(), updated);
+        } catch (RuntimeException ex) {
+            log.warn(RENAME_PROPAGATION_FAILED, event.pointOfSaleId(), ex);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.carlos.challenge.infrastructure.in.web.advice;
 
 
+import com.carlos.challenge.domain.exception.IdempotencyKeyConflictException;
+import com.carlos.challenge.domain.exception.IdempotencyKeyInProgressException;
+import com.carlos.challenge.domain.exception.WriteBufferFullException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
@@ -17,6 +20,26 @@ public class ApiExceptionHandler {
                 .body(ApiError.of("NOT_FOUND", ex.getMessage(), req.getRequestURI()));
     }
 
+    @ExceptionHandler(WriteBufferFullException.class)
+    public ResponseEntity<ApiError> handleBufferFull(WriteBufferFullException ex, HttpServletRequest req) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiError.of("TOO_MANY_REQUESTS", ex.getMessage(), req.getRequestURI()));
+    }
+
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    public ResponseEntity<ApiError> handleIdempotencyConflict(IdempotencyKeyConflictException ex, HttpServletRequest req) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(ApiError.of("UNPROCESSABLE_ENTITY", ex.getMessage(), req.getRequestURI()));
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<ApiError> handleIdempotencyInProgress(IdempotencyKeyInProgressException ex, HttpServletRequest req) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiError.of("CONFLICT", ex.getMessage(), req.getRequestURI()));
+    }
+
     public static record ApiError(String code, String message, String path, Instant timestamp) {
         public static ApiError of(String code, String message, String path) {
             return new ApiError(code, message, path, Instant.now());
@@ -1,10 +1,33 @@
 package com.carlos.challenge.infrastructure.in.web.controller;
 
 import com.carlos.challenge.domain.model.Accreditation;
+import com.carlos.challenge.domain.model.AccreditationAggregate;
+import com.carlos.challenge.domain.model.AccreditationAggregateQuery;
+import com.carlos.challenge.domain.model.AccreditationField;
+import com.carlos.challenge.domain.model.AccreditationKey;
+import com.carlos.challenge.domain.model.AccreditationSliceQuery;
+import com.carlos.challenge.domain.model.AccreditationSummary;
+import com.carlos.challenge.domain.model.AccreditationTotals;
+import com.carlos.challenge.domain.model.AccreditationWriteResult;
+import com.carlos.challenge.domain.model.TimeBucket;
 import com.carlos.challenge.domain.port.in.AccreditationUseCasePort;
+import com.carlos.challenge.domain.port.in.PointOfSaleUseCasePort;
 import com.carlos.challenge.infrastructure.in.web.dto.req.CreateAccreditationRequest;
 import com.carlos.challenge.infrastructure.in.web.dto.resp.AccreditationResponse;
+import com.carlos.challenge.infrastructure.in.web.dto.resp.AccreditationStatsResponse;
+import com.carlos.challenge.infrastructure.in.web.dto.resp.AccreditationSummaryResponse;
+import com.carlos.challenge.infrastructure.in.web.dto.resp.BulkAccreditationResponse;
+import com.carlos.challenge.infrastructure.in.web.dto.resp.BulkItemResponse;
+import com.carlos.challenge.infrastructure.in.web.dto.resp.CursorSliceResponse;
+import com.carlos.challenge.infrastructure.in.web.support.AccreditationExport;
+import com.carlos.challenge.infrastructure.in.web.support.CursorCodec;
 import com.carlos.challenge.infrastructure.in.web.mapper.AccreditationWebMapper;
+import com.carlos.challenge.infrastructure.in.web.support.JsonStreaming;
+import com.carlos.challenge.infrastructure.support.IdOrCode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,32 +36,72 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.Validator;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.server.ServletServerHttpRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Tag(name = "accreditations")
 @RestController
-@RequestMapping(value = "/api/accreditations", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequestMapping(value = "/api/accreditations", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
 public class AccreditationController {
 
+    public static final String APPLICATION_NDJSON_VALUE = JsonStreaming.APPLICATION_NDJSON_VALUE;
+    static final int BULK_BATCH_SIZE = 1_000;
+    static final int MAX_SLICE_SIZE = 500;
+    private static final String PREFER = "Prefer";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+    private static final String RESPOND_ASYNC = "respond-async";
+    private static final String MALFORMED_BULK_BODY = "Malformed bulk body";
+    private static final String MALFORMED_BULK_ITEM = "Malformed item: ";
+
     private final AccreditationUseCasePort useCase;
+    private final PointOfSaleUseCasePort posUseCase;
     private final AccreditationWebMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader bulkReader;
+    private final Validator validator;
 
-    public AccreditationController(AccreditationUseCasePort useCase, AccreditationWebMapper mapper) {
+    public AccreditationController(AccreditationUseCasePort useCase,
+                                   PointOfSaleUseCasePort posUseCase,
+                                   AccreditationWebMapper mapper,
+                                   ObjectMapper objectMapper,
+                                   Validator validator) {
         this.useCase = useCase;
+        this.posUseCase = posUseCase;
         this.mapper = mapper;
+        this.objectMapper = objectMapper;
+        this.bulkReader = objectMapper.readerFor(CreateAccreditationRequest.class);
+        this.validator = validator;
     }
 
     @Operation(
@@ -47,23 +110,90 @@ public class AccreditationController {
     )
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Accreditation created"),
+            @ApiResponse(responseCode = "202", description = "Accepted for deferred write (Prefer: respond-async, write-behind enabled)"),
             @ApiResponse(responseCode = "400", description = "Validation error", content = @Content(
                     mediaType = MediaType.APPLICATION_JSON_VALUE,
                     examples = @ExampleObject(value = "{\"code\":\"BAD_REQUEST\",\"errors\":{\"amount\":\"must not be null\"}}")
             )),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
-            @ApiResponse(responseCode = "403", description = "Forbidden")
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "409", description = "A request with the same idempotency key is still in progress"),
+            @ApiResponse(responseCode = "422", description = "Idempotency key reused with a different payload"),
+            @ApiResponse(responseCode = "429", description = "Write-behind buffer full")
     })
-    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<AccreditationResponse> create(
-            @Valid @RequestBody CreateAccreditationRequest request
+            @Valid @RequestBody CreateAccreditationRequest request,
+            @Parameter(description = "respond-async to only wait for the acknowledgment")
+            @RequestHeader(value = PREFER, required = false) String prefer
     ) {
-        Accreditation saved = useCase.create(request.amount(), request.pointOfSaleId());
+        if (prefer != null && prefer.contains(RESPOND_ASYNC) && useCase.isWriteBehindEnabled()) {
+            Accreditation queued = useCase.submit(request.amount(), request.pointOfSaleId(), request.idempotencyKey());
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/accreditations/" + queued.id()))
+                    .header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+                    .body(mapper.toResponse(queued));
+        }
+        Accreditation saved = useCase.create(request.amount(), request.pointOfSaleId(), request.idempotencyKey());
         return ResponseEntity.created(URI.create("/api/accreditations/" + saved.id()))
                 .body(mapper.toResponse(saved));
     }
 
+    @Operation(
+            summary = "Create accreditations in bulk (JSON array or NDJSON)",
+            description = "Items are read as a stream and inserted in unordered batches of " + BULK_BATCH_SIZE
+                    + ". The response has one entry per item; a failed item does not stop the others. A malformed"
+                    + " item ends the stream: the items before it are processed and it is reported as the last entry.",
+            security = @SecurityRequirement(name = "basicAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Per-item results"),
+            @ApiResponse(responseCode = "400", description = "Body is not a JSON array or NDJSON stream"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkAccreditationResponse> createBulk(HttpServletRequest request) throws IOException {
+        List<BulkItemResponse> items = new ArrayList<>();
+        List<Accreditation> batch = new ArrayList<>(BULK_BATCH_SIZE);
+        List<Integer> batchIndexes = new ArrayList<>(BULK_BATCH_SIZE);
+        int received = 0;
+        int stored = 0;
+
+        try (InputStream in = request.getInputStream();
+             MappingIterator<CreateAccreditationRequest> it = bulkReader.readValues(in)) {
+            while (it.hasNextValue()) {
+                CreateAccreditationRequest item = it.nextValue();
+                int index = received++;
+                Set<ConstraintViolation<CreateAccreditationRequest>> violations = validator.validate(item);
+                if (!violations.isEmpty()) {
+                    ConstraintViolation<?> v = violations.iterator().next();
+                    items.add(new BulkItemResponse(index, null, v.getPropertyPath() + " " + v.getMessage()));
+                    continue;
+                }
+                batch.add(new Accreditation(null, item.amount(), item.pointOfSaleId(), null, null));
+                batchIndexes.add(index);
+                if (batch.size() == BULK_BATCH_SIZE) {
+                    stored += flushBulk(batch, batchIndexes, items);
+                }
+            }
+        } catch (JsonProcessingException ex) {
+            // nothing readable at all is still a bad request; past that, earlier batches may already be
+            // stored, so stop here and report what was done plus the item that could not be read
+            if (received == 0) {
+                throw new HttpMessageNotReadableException(MALFORMED_BULK_BODY,
+                        ex, new ServletServerHttpRequest(request));
+            }
+            items.add(new BulkItemResponse(received++, null, MALFORMED_BULK_ITEM + ex.getOriginalMessage()));
+        }
+        stored += flushBulk(batch, batchIndexes, items);
+
+        items.sort((a, b) -> Integer.compare(a.index(), b.index()));
+        return ResponseEntity.ok(new BulkAccreditationResponse(received, stored, received - stored, items));
+    }
+
     @Operation(
             summary = "Get accreditation by id",
             security = @SecurityRequirement(name = "basicAuth")
@@ -114,10 +244,10 @@ public class AccreditationController {
     @GetMapping("/by-pos/{pointOfSaleId}")
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
     public ResponseEntity<Page<AccreditationResponse>> byPos(
-            @Parameter(description = "Point of Sale ID (UUID)", required = true) @PathVariable String pointOfSaleId,
+            @Parameter(description = "Point of Sale ID (UUID) or code", required = true) @PathVariable String pointOfSaleId,
             @PageableDefault @Parameter(hidden = true) Pageable pageable
     ) {
-        Page<AccreditationResponse> page = useCase.findByPointOfSale(pointOfSaleId, pageable)
+        Page<AccreditationResponse> page = useCase.findByPointOfSale(resolvePointOfSaleId(pointOfSaleId), pageable)
                 .map(mapper::toResponse);
         return ResponseEntity.ok(page);
     }
@@ -162,7 +292,7 @@ public class AccreditationController {
     @GetMapping("/by-pos-and-date")
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
     public ResponseEntity<Page<AccreditationResponse>> byPosAndDate(
-            @Parameter(description = "Point of Sale ID (UUID)", required = true)
+            @Parameter(description = "Point of Sale ID (UUID) or code", required = true)
             @RequestParam String pointOfSaleId,
             @Parameter(description = "From (inclusive). ISO-8601 UTC", required = true)
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
@@ -170,11 +300,211 @@ public class AccreditationController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
             @PageableDefault @Parameter(hidden = true) Pageable pageable
     ) {
-        Page<AccreditationResponse> page = useCase.findByPointOfSaleAndDateBetween(pointOfSaleId, from, to, pageable)
+        Page<AccreditationResponse> page = useCase.findByPointOfSaleAndDateBetween(resolvePointOfSaleId(pointOfSaleId), from, to, pageable)
                 .map(mapper::toResponse);
         return ResponseEntity.ok(page);
     }
 
+    @Operation(
+            summary = "List accreditation ids and dates by Point of Sale and date range",
+            description = "Lightweight variant of by-pos-and-date without amounts or names, answered from an index "
+                    + "without reading the documents. Keyset paged on (receptionDate, id) like /cursor: pass "
+                    + "nextCursor back as 'after' for the next slice; no total count.",
+            security = @SecurityRequirement(name = "basicAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Slice of accreditation summaries"),
+            @ApiResponse(responseCode = "400", description = "Validation error"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @GetMapping("/summaries")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<CursorSliceResponse<AccreditationSummaryResponse>> summaries(
+            @Parameter(description = "Point of Sale ID (UUID) or code", required = true)
+            @RequestParam String pointOfSaleId,
+            @Parameter(description = "From (inclusive). ISO-8601 UTC", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "To (inclusive). ISO-8601 UTC", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "Cursor returned by the previous slice")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Slice size (1-" + MAX_SLICE_SIZE + ")")
+            @RequestParam(defaultValue = "20") @Min(1) @Max(MAX_SLICE_SIZE) int size,
+            @Parameter(description = "Newest first")
+            @RequestParam(defaultValue = "false") boolean descending
+    ) {
+        AccreditationKey afterKey = after == null ? null : CursorCodec.decode(after);
+        Slice<AccreditationSummary> slice = useCase.findSummaries(new AccreditationSliceQuery(
+                resolvePointOfSaleId(pointOfSaleId), from, to, afterKey, size, descending));
+
+        List<AccreditationSummary> content = slice.getContent();
+        String next = slice.hasNext() ? CursorCodec.encode(AccreditationKey.of(content.get(content.size() - 1))) : null;
+        return ResponseEntity.ok(new CursorSliceResponse<>(
+                content.stream().map(mapper::toSummaryResponse).toList(), content.size(), slice.hasNext(), next));
+    }
+
+    @Operation(
+            summary = "Accreditation totals per UTC day (pre-aggregated)",
+            description = "Served from the daily rollup collection, not from the accreditations themselves. "
+                    + "Omit pointOfSaleId for all points of sale.",
+            security = @SecurityRequirement(name = "basicAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Totals and per-day breakdown"),
+            @ApiResponse(responseCode = "400", description = "Validation error"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @GetMapping("/stats")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<AccreditationStatsResponse> stats(
+            @Parameter(description = "Point of Sale ID (UUID) or code")
+            @RequestParam(required = false) String pointOfSaleId,
+            @Parameter(description = "From day (inclusive, UTC), e.g. 2025-09-01", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "To day (inclusive, UTC), e.g. 2025-09-30", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        String posId = pointOfSaleId == null ? null : resolvePointOfSaleId(pointOfSaleId);
+        AccreditationTotals totals = useCase.totals(posId, from, to);
+        return ResponseEntity.ok(new AccreditationStatsResponse(posId, from, to, totals.total(), totals.count(),
+                totals.daily().stream().map(mapper::toDailyResponse).toList()));
+    }
+
+    @Operation(
+            summary = "Ad-hoc totals (count, sum, min, max, avg) grouped by POS and/or time bucket",
+            description = "Computed by a Mongo aggregation pipeline and streamed as it is produced: a JSON array, "
+                    + "or NDJSON with Accept: application/x-ndjson. Time buckets are UTC.",
+            security = @SecurityRequirement(name = "basicAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Aggregated groups, ordered by POS then period"),
+            @ApiResponse(responseCode = "400", description = "Validation error"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @GetMapping(value = "/aggregates", produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<StreamingResponseBody> aggregates(
+            @Parameter(description = "Point of Sale ID (UUID) or code; all POS when omitted")
+            @RequestParam(required = false) String pointOfSaleId,
+            @Parameter(description = "From (inclusive). ISO-8601 UTC", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "To (inclusive). ISO-8601 UTC", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "Group by Point of Sale")
+            @RequestParam(defaultValue = "false") boolean byPointOfSale,
+            @Parameter(description = "Time bucket: NONE, HOUR, DAY or MONTH")
+            @RequestParam(defaultValue = "NONE") TimeBucket interval,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        String posId = pointOfSaleId == null ? null : resolvePointOfSaleId(pointOfSaleId);
+        // opened here so query errors surface as a normal error response, before streaming starts
+        Stream<AccreditationAggregate> rows = useCase.aggregate(
+                new AccreditationAggregateQuery(posId, from, to, byPointOfSale, interval));
+        boolean ndjson = JsonStreaming.wantsNdjson(accept);
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.parseMediaType(APPLICATION_NDJSON_VALUE) : MediaType.APPLICATION_JSON)
+                .body(JsonStreaming.body(objectMapper, rows.map(mapper::toAggregateResponse), ndjson));
+    }
+
+    @Operation(
+            summary = "Export accreditations of a date range as NDJSON or CSV",
+            description = "Streams every matching accreditation in (receptionDate, id) order from a single database "
+                    + "cursor, optionally gzipped. Use 'fields' to export a subset of columns.",
+            security = @SecurityRequirement(name = "basicAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Export file"),
+            @ApiResponse(responseCode = "400", description = "Validation error"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @GetMapping(value = "/export", produces = {APPLICATION_NDJSON_VALUE, "text/csv", AccreditationExport.APPLICATION_GZIP_VALUE})
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<StreamingResponseBody> export(
+            @Parameter(description = "Point of Sale ID (UUID) or code; all POS when omitted")
+            @RequestParam(required = false) String pointOfSaleId,
+            @Parameter(description = "From (inclusive). ISO-8601 UTC", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "To (inclusive). ISO-8601 UTC", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "NDJSON or CSV")
+            @RequestParam(defaultValue = "NDJSON") AccreditationExport.Format format,
+            @Parameter(description = "Columns to export, e.g. ID,AMOUNT,RECEPTION_DATE; all when omitted")
+            @RequestParam(required = false) List<AccreditationField> fields,
+            @Parameter(description = "Gzip the file")
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        String posId = pointOfSaleId == null ? null : resolvePointOfSaleId(pointOfSaleId);
+        EnumSet<AccreditationField> selected = fields == null || fields.isEmpty()
+                ? EnumSet.allOf(AccreditationField.class) : EnumSet.copyOf(fields);
+        Stream<Accreditation> rows = useCase.export(posId, from, to, selected);
+
+        String filename = "accreditations-" + from.toEpochMilli() + "-" + to.toEpochMilli() + "." + format.extension()
+                + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? AccreditationExport.APPLICATION_GZIP_VALUE : format.mediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(AccreditationExport.body(objectMapper, rows, List.copyOf(selected), format, gzip));
+    }
+
+    @Operation(
+            summary = "Recompute the daily totals rollup from the accreditations",
+            security = @SecurityRequirement(name = "basicAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Rollup rebuilt"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PostMapping("/stats/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> rebuildStats() {
+        useCase.rebuildTotals();
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(
+            summary = "List accreditations with keyset (cursor) paging",
+            description = "Seeks on (receptionDate, id) instead of skipping, and runs no count query, so every "
+                    + "page costs the same however deep it is. Pass nextCursor back as 'after' for the next page.",
+            security = @SecurityRequirement(name = "basicAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Slice of accreditations"),
+            @ApiResponse(responseCode = "400", description = "Validation error"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @GetMapping("/cursor")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<CursorSliceResponse<AccreditationResponse>> slice(
+            @Parameter(description = "Point of Sale ID (UUID) or code")
+            @RequestParam(required = false) String pointOfSaleId,
+            @Parameter(description = "From (inclusive). ISO-8601 UTC")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "To (inclusive). ISO-8601 UTC")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "Cursor returned by the previous slice")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Slice size (1-" + MAX_SLICE_SIZE + ")")
+            @RequestParam(defaultValue = "20") @Min(1) @Max(MAX_SLICE_SIZE) int size,
+            @Parameter(description = "Newest first")
+            @RequestParam(defaultValue = "false") boolean descending
+    ) {
+        String posId = pointOfSaleId == null ? null : resolvePointOfSaleId(pointOfSaleId);
+        AccreditationKey afterKey = after == null ? null : CursorCodec.decode(after);
+        Slice<Accreditation> slice = useCase.findSlice(
+                new AccreditationSliceQuery(posId, from, to, afterKey, size, descending));
+
+        List<Accreditation> content = slice.getContent();
+        String next = slice.hasNext() ? CursorCodec.encode(AccreditationKey.of(content.get(content.size() - 1))) : null;
+        return ResponseEntity.ok(new CursorSliceResponse<>(
+                content.stream().map(mapper::toResponse).toList(), content.size(), slice.hasNext(), next));
+    }
+
     @Operation(
             summary = "List accreditations (paged)",
             security = @SecurityRequirement(name = "basicAuth")
@@ -192,4 +522,21 @@ public class AccreditationController {
         Page<AccreditationResponse> page = useCase.findAll(pageable).map(mapper::toResponse);
         return ResponseEntity.ok(page);
     }
+
+    private int flushBulk(List<Accreditation> batch, List<Integer> batchIndexes, List<BulkItemResponse> items) {
+        if (batch.isEmpty()) return 0;
+        int stored = 0;
+        for (AccreditationWriteResult r : useCase.createAll(batch)) {
+            AccreditationWriteResult positioned = new AccreditationWriteResult(batchIndexes.get(r.index()), r.id(), r.error());
+            items.add(mapper.toItemResponse(positioned));
+            if (r.isStored()) stored++;
+        }
+        batch.clear();
+        batchIndexes.clear();
+        return stored;
+    }
+
+    private String resolvePointOfSaleId(String idOrCode) {
+        return IdOrCode.isUuid(idOrCode) ? idOrCode : posUseCase.resolveId(idOrCode);
+    }
 }
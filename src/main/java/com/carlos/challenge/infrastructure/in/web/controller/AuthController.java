@@ -0,0 +1,53 @@
+package com.carlos.challenge.infrastructure.in.web.controller;
+
+import com.carlos.challenge.infrastructure.in.web.dto.resp.TokenResponse;
+import com.carlos.challenge.infrastructure.in.web.security.SignedTokenAuthentication;
+import com.carlos.challenge.infrastructure.in.web.security.SignedTokenService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Auth", description = "Token exchange")
+@RestController
+@RequestMapping(value = "/api/auth", produces = MediaType.APPLICATION_JSON_VALUE)
+public class AuthController {
+
+    public static final String BEARER = "Bearer";
+    public static final String TOKEN_REFRESH_DENIED = "Tokens can only be obtained with username and password";
+
+    private final SignedTokenService tokens;
+
+    public AuthController(SignedTokenService tokens) {
+        this.tokens = tokens;
+    }
+
+    @Operation(
+            summary = "Exchange Basic credentials for a short-lived bearer token",
+            description = "Send the token as 'Authorization: Bearer <token>' instead of Basic credentials; "
+                    + "it is verified without a password check until it expires.",
+            security = @SecurityRequirement(name = "basicAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Token issued"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Called with a bearer token")
+    })
+    @PostMapping("/token")
+    public ResponseEntity<TokenResponse> token(Authentication authentication) {
+        // a token must not be able to extend itself indefinitely
+        if (authentication instanceof SignedTokenAuthentication) throw new AccessDeniedException(TOKEN_REFRESH_DENIED);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(new TokenResponse(tokens.issue(authentication), BEARER, tokens.ttl().toSeconds()));
+    }
+}
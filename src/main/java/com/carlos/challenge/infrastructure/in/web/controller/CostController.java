@@ -3,13 +3,21 @@ package com.carlos.challenge.infrastructure.in.web.controller;
 import com.carlos.challenge.domain.model.PointOfSale;
 import com.carlos.challenge.domain.model.graph.MinPaths;
 import com.carlos.challenge.domain.model.graph.Neighbor;
+import com.carlos.challenge.domain.model.graph.ShortestPathDag;
 import com.carlos.challenge.domain.port.in.GraphUseCasePort;
 import com.carlos.challenge.domain.port.in.PointOfSaleUseCasePort;
 import com.carlos.challenge.infrastructure.in.web.dto.req.EdgeDeleteRequest;
 import com.carlos.challenge.infrastructure.in.web.dto.req.EdgeRequest;
+import com.carlos.challenge.infrastructure.in.web.dto.resp.CompactMinPathsResponse;
 import com.carlos.challenge.infrastructure.in.web.dto.resp.MinPathsResponse;
 import com.carlos.challenge.infrastructure.in.web.dto.resp.NeighborResponse;
 import com.carlos.challenge.infrastructure.in.web.dto.resp.PathDetail;
+import com.carlos.challenge.infrastructure.in.web.dto.resp.PathNode;
+import com.carlos.challenge.infrastructure.in.web.service.EncodedResponseCache;
+import com.carlos.challenge.infrastructure.in.web.support.JsonStreaming;
+import com.carlos.challenge.infrastructure.in.web.support.VersionETags;
+import com.carlos.challenge.infrastructure.support.IdOrCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -19,28 +27,39 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
 
 @Tag(name = "Costs", description = "Operations related to graph costs and paths")
 @RestController
-@RequestMapping(value = "/api/graph/costs", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequestMapping(value = "/api/graph/costs", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
 @Validated
 public class CostController {
 
     private final GraphUseCasePort graph;
     private final PointOfSaleUseCasePort posUseCase;
+    private final ObjectMapper objectMapper;
+    private final EncodedResponseCache responseCache;
 
-    public CostController(GraphUseCasePort graph, PointOfSaleUseCasePort posUseCase) {
+    public CostController(GraphUseCasePort graph, PointOfSaleUseCasePort posUseCase,
+                          ObjectMapper objectMapper, EncodedResponseCache responseCache) {
         this.graph = graph;
         this.posUseCase = posUseCase;
+        this.objectMapper = objectMapper;
+        this.responseCache = responseCache;
     }
 
     @Operation(
@@ -85,44 +104,49 @@ public class CostController {
     }
 
     @Operation(
-            summary = "List neighbors (UUID only)",
-            description = "Path variable must be a UUID. Names and codes are enriched from Points of Sale.",
+            summary = "List neighbors",
+            description = "Path variable is a Point of Sale UUID or numeric code. Names are enriched from Points of Sale: "
+                    + "a JSON array, or NDJSON with Accept: application/x-ndjson. "
+                    + "Carries a strong ETag; a matching If-None-Match is answered with 304 without touching the graph.",
             security = @SecurityRequirement(name = "basicAuth")
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Neighbors listed"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the given ETag"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "403", description = "Forbidden")
     })
-    @GetMapping("/neighbors/{fromId}")
+    @GetMapping(value = "/neighbors/{fromId}", produces = {MediaType.APPLICATION_JSON_VALUE, JsonStreaming.APPLICATION_NDJSON_VALUE})
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
-    public ResponseEntity<List<NeighborResponse>> neighbors(
-            @Parameter(description = "Point of Sale ID (UUID)", required = true)
-            @PathVariable UUID fromId
+    public ResponseEntity<StreamingResponseBody> neighbors(
+            @Parameter(description = "Point of Sale ID (UUID) or code", required = true)
+            @PathVariable String fromId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest webRequest
     ) {
-        List<Neighbor> neighbors = graph.neighborsOf(fromId.toString());
-
-        List<NeighborResponse> resp = neighbors.stream().map(n -> {
-            String name = null;
-            Integer code = null;
-            try {
-                PointOfSale pos = posUseCase.findById(n.id());
-                if (pos != null) {
-                    name = pos.name();
-                    code = pos.code();
-                }
-            } catch (IllegalArgumentException ignore) {
-                // dejamos name/code en null si el POS no existe
-            }
-            return new NeighborResponse(n.id(), name, n.cost());
-        }).toList();
+        boolean ndjson = JsonStreaming.wantsNdjson(accept);
+        // edges come from the graph, names/codes and code -> id from the POS store
+        String etag = VersionETags.of("nb", ndjson, graph.version(), posUseCase.version());
+        if (webRequest.checkNotModified(etag)) return null;
 
-        return ResponseEntity.ok(resp);
+        String key = "nb:" + fromId + (ndjson ? ":ndjson" : ":json");
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .eTag(etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .contentType(ndjson ? MediaType.parseMediaType(JsonStreaming.APPLICATION_NDJSON_VALUE) : MediaType.APPLICATION_JSON);
+        byte[] cached = responseCache.get(key, etag);
+        if (cached != null) {
+            return ok.contentLength(cached.length).body(out -> out.write(cached));
+        }
+        // names are looked up while the body is written; the cache keeps a copy only if it fits
+        List<Neighbor> neighbors = graph.neighborsOf(resolvePointOfSaleId(fromId));
+        return ok.body(responseCache.writeThrough(key, etag,
+                JsonStreaming.body(objectMapper, neighbors.stream().map(this::enrich), ndjson)));
     }
 
     @Operation(
-            summary = "Get all minimum cost paths (UUID only)",
-            description = "Query params must be UUIDs.",
+            summary = "Get all minimum cost paths",
+            description = "Query params are Point of Sale UUIDs or numeric codes.",
             security = @SecurityRequirement(name = "basicAuth")
     )
     @ApiResponses({
@@ -133,28 +157,99 @@ public class CostController {
     @GetMapping("/min-paths")
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
     public ResponseEntity<MinPathsResponse> minPaths(
-            @Parameter(description = "From POS ID (UUID)", required = true) @RequestParam UUID from,
-            @Parameter(description = "To POS ID (UUID)", required = true) @RequestParam UUID to
+            @Parameter(description = "From POS ID (UUID) or code", required = true) @RequestParam String from,
+            @Parameter(description = "To POS ID (UUID) or code", required = true) @RequestParam String to
     ) {
-        MinPaths mp = graph.shortestPaths(from.toString(), to.toString());
+        MinPaths mp = graph.shortestPaths(resolvePointOfSaleId(from), resolvePointOfSaleId(to));
 
+        // tied paths share most of their nodes: look each one up once
+        Map<String, PathNode> seen = new HashMap<>();
         List<PathDetail> details = new ArrayList<>(mp.paths().size());
         for (List<String> route : mp.paths()) {
             List<String> names = new ArrayList<>(route.size());
             List<Integer> codes = new ArrayList<>(route.size());
             for (String id : route) {
-                try {
-                    PointOfSale pos = posUseCase.findById(id);
-                    names.add(pos != null ? pos.name() : null);
-                    codes.add(pos != null ? pos.code() : null);
-                } catch (IllegalArgumentException ex) {
-                    names.add(null);
-                    codes.add(null);
-                }
+                PathNode node = seen.computeIfAbsent(id, this::pathNode);
+                names.add(node.name());
+                codes.add(node.code());
             }
             details.add(new PathDetail(route, names, codes));
         }
 
         return ResponseEntity.ok(new MinPathsResponse(mp.totalCost(), details));
     }
+
+    @Operation(
+            summary = "Get all minimum cost paths, compact",
+            description = "Same query as /min-paths. Each node is listed once in 'nodes' and paths are arrays of "
+                    + "node indexes. With dag=true the paths are not enumerated: 'predecessors[i]' lists the nodes "
+                    + "right before node i on a minimum path, from which every path can be rebuilt.",
+            security = @SecurityRequirement(name = "basicAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Minimum paths computed"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @GetMapping("/min-paths/compact")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<CompactMinPathsResponse> minPathsCompact(
+            @Parameter(description = "From POS ID (UUID) or code", required = true) @RequestParam String from,
+            @Parameter(description = "To POS ID (UUID) or code", required = true) @RequestParam String to,
+            @Parameter(description = "Return the predecessor DAG instead of the enumerated paths")
+            @RequestParam(defaultValue = "false") boolean dag
+    ) {
+        String fromId = resolvePointOfSaleId(from);
+        String toId = resolvePointOfSaleId(to);
+        Map<String, Integer> index = new LinkedHashMap<>();
+
+        if (dag) {
+            ShortestPathDag d = graph.shortestPathDag(fromId, toId);
+            d.nodes().forEach(id -> index.put(id, index.size()));
+            List<int[]> predecessors = new ArrayList<>(d.nodes().size());
+            for (String id : d.nodes()) {
+                predecessors.add(indexes(d.predecessors().getOrDefault(id, Set.of()), index));
+            }
+            return ResponseEntity.ok(new CompactMinPathsResponse(d.totalCost(), pathNodes(index), null, predecessors));
+        }
+
+        MinPaths mp = graph.shortestPaths(fromId, toId);
+        List<int[]> paths = new ArrayList<>(mp.paths().size());
+        for (List<String> route : mp.paths()) {
+            int[] path = new int[route.size()];
+            for (int i = 0; i < path.length; i++) {
+                path[i] = index.computeIfAbsent(route.get(i), k -> index.size());
+            }
+            paths.add(path);
+        }
+        return ResponseEntity.ok(new CompactMinPathsResponse(mp.totalCost(), pathNodes(index), paths, null));
+    }
+
+    private static int[] indexes(Set<String> ids, Map<String, Integer> index) {
+        return ids.stream().mapToInt(index::get).sorted().toArray();
+    }
+
+    private List<PathNode> pathNodes(Map<String, Integer> index) {
+        List<PathNode> nodes = new ArrayList<>(index.size());
+        for (String id : index.keySet()) nodes.add(pathNode(id));
+        return nodes;
+    }
+
+    private PathNode pathNode(String id) {
+        try {
+            PointOfSale pos = posUseCase.findById(id);
+            if (pos != null) return new PathNode(id, pos.name(), pos.code());
+        } catch (IllegalArgumentException ignore) {
+            // dejamos name/code en null si el POS no existe
+        }
+        return new PathNode(id, null, null);
+    }
+
+    private NeighborResponse enrich(Neighbor n) {
+        return new NeighborResponse(n.id(), pathNode(n.id()).name(), n.cost());
+    }
+
+    private String resolvePointOfSaleId(String idOrCode) {
+        return IdOrCode.isUuid(idOrCode) ? idOrCode : posUseCase.resolveId(idOrCode);
+    }
 }
@@ -6,20 +6,29 @@ import com.carlos.challenge.infrastructure.in.web.dto.req.CreatePointRequest;
 import com.carlos.challenge.infrastructure.in.web.dto.req.UpdatePointRequest;
 import com.carlos.challenge.infrastructure.in.web.dto.resp.PointOfSaleResponse;
 import com.carlos.challenge.infrastructure.in.web.mapper.PointOfSaleWebMapper;
+import com.carlos.challenge.infrastructure.in.web.service.EncodedResponseCache;
+import com.carlos.challenge.infrastructure.in.web.support.JsonStreaming;
+import com.carlos.challenge.infrastructure.in.web.support.VersionETags;
+import com.carlos.challenge.infrastructure.support.IdOrCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.net.URI;
-import java.util.List;
 
 @Tag(name = "Points of Sale", description = "Operations related to points of sale")
 @RestController
@@ -27,31 +36,50 @@ import java.util.List;
 @Validated
 public class PointOfSaleController {
 
+    public static final String NOT_A_CODE = "Not a point of sale code: ";
+
     private final PointOfSaleUseCasePort useCase;
     private final PointOfSaleWebMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final EncodedResponseCache responseCache;
 
-    public PointOfSaleController(PointOfSaleUseCasePort useCase, PointOfSaleWebMapper mapper) {
+    public PointOfSaleController(PointOfSaleUseCasePort useCase, PointOfSaleWebMapper mapper,
+                                 ObjectMapper objectMapper, EncodedResponseCache responseCache) {
         this.useCase = useCase;
         this.mapper = mapper;
+        this.objectMapper = objectMapper;
+        this.responseCache = responseCache;
     }
 
     @Operation(
             summary = "List all points of sale",
-            description = "Returns a list of all points of sale.",
+            description = "Returns all points of sale, streamed as they are read: a JSON array, "
+                    + "or NDJSON with Accept: application/x-ndjson. Each point of sale appears once; writes "
+                    + "made while the list streams may or may not be included. Carries a strong ETag; a "
+                    + "matching If-None-Match is answered with 304 without reading the store.",
             security = @SecurityRequirement(name = "basicAuth")
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Successful operation"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the given ETag"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "403", description = "Forbidden")
     })
-    @GetMapping
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, JsonStreaming.APPLICATION_NDJSON_VALUE})
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
-    public ResponseEntity<List<PointOfSaleResponse>> list() {
-        List<PointOfSaleResponse> body = useCase.findAll().stream()
-                .map(mapper::toResponse)
-                .toList();
-        return ResponseEntity.ok(body);
+    public ResponseEntity<StreamingResponseBody> list(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest webRequest
+    ) {
+        boolean ndjson = JsonStreaming.wantsNdjson(accept);
+        // version read before the data: a racing write can leave the tag older than the body, never newer
+        String etag = VersionETags.of("pos", ndjson, useCase.version());
+        if (webRequest.checkNotModified(etag)) return null;
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .contentType(ndjson ? MediaType.parseMediaType(JsonStreaming.APPLICATION_NDJSON_VALUE) : MediaType.APPLICATION_JSON)
+                .body(JsonStreaming.body(objectMapper, useCase.streamAll().map(mapper::toResponse), ndjson));
     }
 
     @Operation(
@@ -134,37 +162,51 @@ public class PointOfSaleController {
             security = @SecurityRequirement(name = "basicAuth")
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Successful operation"),
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = @Content(schema = @Schema(implementation = PointOfSaleResponse.class))),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "403", description = "Forbidden"),
             @ApiResponse(responseCode = "404", description = "Point of sale not found")
     })
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
-    public ResponseEntity<PointOfSaleResponse> getById(
+    public ResponseEntity<byte[]> getById(
             @Parameter(description = "Point of sale Public ID (UUID)", required = true)
             @PathVariable String id) {
-        return ResponseEntity.ok(mapper.toResponse(useCase.findById(id)));
+        return encoded(id);
     }
 
     @Operation(
             summary = "Get a point of sale by code",
-            description = "Returns a point of sale by its numeric code (if present).",
+            description = "Returns a point of sale by its numeric code (if present). Anything that is not "
+                    + "a numeric code, a UUID included, is answered with 404.",
             security = @SecurityRequirement(name = "basicAuth")
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Successful operation"),
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = @Content(schema = @Schema(implementation = PointOfSaleResponse.class))),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "403", description = "Forbidden"),
             @ApiResponse(responseCode = "404", description = "Point of sale not found")
     })
     @GetMapping("/by-code/{code}")
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
-    public ResponseEntity<PointOfSaleResponse> getByCode(
+    public ResponseEntity<byte[]> getByCode(
             @Parameter(description = "Point of sale numeric code", required = true)
-            @PathVariable Integer code) {
-        return useCase.findByCode(code)
-                .map(p -> ResponseEntity.ok(mapper.toResponse(p)))
-                .orElse(ResponseEntity.notFound().build());
+            @PathVariable String code) {
+        // resolveId also takes UUIDs; this route is for codes only
+        if (IdOrCode.parseCode(code) == IdOrCode.NOT_A_CODE) throw new IllegalArgumentException(NOT_A_CODE + code);
+        return encoded(useCase.resolveId(code));
+    }
+
+    private ResponseEntity<byte[]> encoded(String id) {
+        String key = "pos:" + id;
+        String tag = VersionETags.of("pos", false, useCase.version());
+        byte[] body = responseCache.get(key, tag);
+        if (body == null) {
+            PointOfSale pos = useCase.findById(id);
+            body = responseCache.put(key, tag, out -> objectMapper.writeValue(out, mapper.toResponse(pos)));
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 }
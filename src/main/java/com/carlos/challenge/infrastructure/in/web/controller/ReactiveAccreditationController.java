@@ -0,0 +1,128 @@
+package com.carlos.challenge.infrastructure.in.web.controller;
+
+import com.carlos.challenge.domain.port.in.PointOfSaleUseCasePort;
+import com.carlos.challenge.domain.port.in.ReactiveAccreditationUseCasePort;
+import com.carlos.challenge.infrastructure.in.web.dto.req.CreateAccreditationRequest;
+import com.carlos.challenge.infrastructure.in.web.dto.resp.AccreditationResponse;
+import com.carlos.challenge.infrastructure.in.web.mapper.AccreditationWebMapper;
+import com.carlos.challenge.infrastructure.in.web.support.JsonStreaming;
+import com.carlos.challenge.infrastructure.support.IdOrCode;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+import java.time.Instant;
+
+/**
+ * {@link AccreditationController} endpoints on the reactive Mongo driver, enabled by the
+ * {@code reactive} profile so both can be benchmarked side by side. The servlet stack stays:
+ * Spring MVC subscribes to the returned {@code Mono}/{@code Flux} and releases the request
+ * thread until they emit. NDJSON listings are written one item per demand signal, so the cursor
+ * is only read as fast as the client drains the response.
+ */
+@Tag(name = "accreditations (reactive)")
+@RestController
+@Profile("reactive")
+@RequestMapping(value = "/api/reactive/accreditations", produces = MediaType.APPLICATION_JSON_VALUE)
+public class ReactiveAccreditationController {
+
+    private final ReactiveAccreditationUseCasePort useCase;
+    private final PointOfSaleUseCasePort posUseCase;
+    private final AccreditationWebMapper mapper;
+
+    public ReactiveAccreditationController(ReactiveAccreditationUseCasePort useCase,
+                                           PointOfSaleUseCasePort posUseCase,
+                                           AccreditationWebMapper mapper) {
+        this.useCase = useCase;
+        this.posUseCase = posUseCase;
+        this.mapper = mapper;
+    }
+
+    @Operation(summary = "Create an accreditation", security = @SecurityRequirement(name = "basicAuth"))
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Accreditation created"),
+            @ApiResponse(responseCode = "400", description = "Validation error"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<AccreditationResponse>> create(@Valid @RequestBody CreateAccreditationRequest request) {
+        return useCase.create(request.amount(), request.pointOfSaleId())
+                .map(saved -> ResponseEntity.created(URI.create("/api/reactive/accreditations/" + saved.id()))
+                        .body(mapper.toResponse(saved)));
+    }
+
+    @Operation(summary = "Get accreditation by id", security = @SecurityRequirement(name = "basicAuth"))
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Accreditation found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "404", description = "Not found")
+    })
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public Mono<AccreditationResponse> getById(
+            @Parameter(description = "Accreditation ID", required = true) @PathVariable String id
+    ) {
+        return useCase.findById(id).map(mapper::toResponse);
+    }
+
+    @Operation(summary = "Delete accreditation by id", security = @SecurityRequirement(name = "basicAuth"))
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Accreditation deleted"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<Void>> delete(
+            @Parameter(description = "Accreditation ID", required = true) @PathVariable String id
+    ) {
+        return useCase.delete(id).thenReturn(ResponseEntity.noContent().build());
+    }
+
+    @Operation(
+            summary = "Stream accreditations as NDJSON",
+            description = "By Point of Sale, by date range, or both; ordered by reception date then id.",
+            security = @SecurityRequirement(name = "basicAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "One accreditation per line"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @GetMapping(produces = JsonStreaming.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public Flux<AccreditationResponse> stream(
+            @Parameter(description = "Point of Sale ID (UUID) or code")
+            @RequestParam(required = false) String pointOfSaleId,
+            @Parameter(description = "From (exclusive). ISO-8601 UTC")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "To (exclusive). ISO-8601 UTC")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to
+    ) {
+        if (pointOfSaleId == null || IdOrCode.isUuid(pointOfSaleId)) {
+            return useCase.find(pointOfSaleId, from, to).map(mapper::toResponse);
+        }
+        // code -> id may hit Redis
+        return Mono.fromCallable(() -> posUseCase.resolveId(pointOfSaleId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(posId -> useCase.find(posId, from, to))
+                .map(mapper::toResponse);
+    }
+}
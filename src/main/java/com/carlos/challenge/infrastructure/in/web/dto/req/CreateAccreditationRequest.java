@@ -2,9 +2,11 @@ package com.carlos.challenge.infrastructure.in.web.dto.req;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import java.math.BigDecimal;
 
 public record CreateAccreditationRequest(
         @NotNull BigDecimal amount,
-        @NotBlank String pointOfSaleId
+        @NotBlank String pointOfSaleId,
+        @Size(min = 1, max = 128) String idempotencyKey
 ) {}
@@ -0,0 +1,14 @@
+package com.carlos.challenge.infrastructure.in.web.dto.resp;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record AccreditationAggregateResponse(
+        String pointOfSaleId,
+        Instant period,
+        long count,
+        BigDecimal sum,
+        BigDecimal min,
+        BigDecimal max,
+        BigDecimal avg
+) {}
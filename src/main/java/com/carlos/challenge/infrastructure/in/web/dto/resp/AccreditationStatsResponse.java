@@ -0,0 +1,14 @@
+package com.carlos.challenge.infrastructure.in.web.dto.resp;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public record AccreditationStatsResponse(
+        String pointOfSaleId,
+        LocalDate from,
+        LocalDate to,
+        BigDecimal total,
+        long count,
+        List<DailyTotalResponse> daily
+) {}
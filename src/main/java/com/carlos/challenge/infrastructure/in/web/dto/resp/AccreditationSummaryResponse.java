@@ -0,0 +1,9 @@
+package com.carlos.challenge.infrastructure.in.web.dto.resp;
+
+import java.time.Instant;
+
+public record AccreditationSummaryResponse(
+        String id,
+        String pointOfSaleId,
+        Instant receptionDate
+) {}
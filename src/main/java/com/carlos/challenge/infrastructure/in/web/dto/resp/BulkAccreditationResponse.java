@@ -0,0 +1,10 @@
+package com.carlos.challenge.infrastructure.in.web.dto.resp;
+
+import java.util.List;
+
+public record BulkAccreditationResponse(
+        int received,
+        int stored,
+        int rejected,
+        List<BulkItemResponse> items
+) {}
@@ -0,0 +1,7 @@
+package com.carlos.challenge.infrastructure.in.web.dto.resp;
+
+public record BulkItemResponse(
+        int index,
+        String id,
+        String error
+) {}
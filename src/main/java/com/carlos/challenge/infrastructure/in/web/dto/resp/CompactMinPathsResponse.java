@@ -0,0 +1,18 @@
+package com.carlos.challenge.infrastructure.in.web.dto.resp;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+/**
+ * Minimum paths with every node described once in {@code nodes}; paths refer to nodes by index.
+ * Either {@code paths} (each one an index array from origin to destination) or, in DAG form,
+ * {@code predecessors}: for node {@code i}, the indices of the nodes right before it on a minimum
+ * path. Node 0 is always the origin; in DAG form the destination is the last node.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CompactMinPathsResponse(
+        int totalCost,
+        List<PathNode> nodes,
+        List<int[]> paths,
+        List<int[]> predecessors
+) {}
@@ -0,0 +1,11 @@
+package com.carlos.challenge.infrastructure.in.web.dto.resp;
+
+import java.util.List;
+
+/** One keyset page; pass {@code nextCursor} back as {@code after} to continue. Null when there is no next page. */
+public record CursorSliceResponse<T>(
+        List<T> content,
+        int size,
+        boolean hasNext,
+        String nextCursor
+) {}
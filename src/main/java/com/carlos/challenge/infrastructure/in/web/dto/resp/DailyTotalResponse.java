@@ -0,0 +1,11 @@
+package com.carlos.challenge.infrastructure.in.web.dto.resp;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record DailyTotalResponse(
+        String pointOfSaleId,
+        LocalDate day,
+        BigDecimal total,
+        long count
+) {}
@@ -0,0 +1,7 @@
+package com.carlos.challenge.infrastructure.in.web.dto.resp;
+
+public record PathNode(
+        String id,
+        String name,
+        Integer code
+) {}
@@ -0,0 +1,7 @@
+package com.carlos.challenge.infrastructure.in.web.dto.resp;
+
+public record TokenResponse(
+        String accessToken,
+        String tokenType,
+        long expiresIn
+) {}
@@ -1,10 +1,26 @@
 package com.carlos.challenge.infrastructure.in.web.mapper;
 
 import com.carlos.challenge.domain.model.Accreditation;
+import com.carlos.challenge.domain.model.AccreditationAggregate;
+import com.carlos.challenge.domain.model.AccreditationDailyTotal;
+import com.carlos.challenge.domain.model.AccreditationSummary;
+import com.carlos.challenge.domain.model.AccreditationWriteResult;
+import com.carlos.challenge.infrastructure.in.web.dto.resp.AccreditationAggregateResponse;
 import com.carlos.challenge.infrastructure.in.web.dto.resp.AccreditationResponse;
+import com.carlos.challenge.infrastructure.in.web.dto.resp.AccreditationSummaryResponse;
+import com.carlos.challenge.infrastructure.in.web.dto.resp.BulkItemResponse;
+import com.carlos.challenge.infrastructure.in.web.dto.resp.DailyTotalResponse;
 import org.mapstruct.Mapper;
 
 @Mapper(componentModel = "spring")
 public interface AccreditationWebMapper {
     AccreditationResponse toResponse(Accreditation acc);
-}
\ No newline at end of file
+
+    AccreditationSummaryResponse toSummaryResponse(AccreditationSummary summary);
+
+    BulkItemResponse toItemResponse(AccreditationWriteResult result);
+
+    DailyTotalResponse toDailyResponse(AccreditationDailyTotal total);
+
+    AccreditationAggregateResponse toAggregateResponse(AccreditationAggregate aggregate);
+}
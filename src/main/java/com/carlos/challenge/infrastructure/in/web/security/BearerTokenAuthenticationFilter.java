@@ -0,0 +1,55 @@
+package com.carlos.challenge.infrastructure.in.web.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+
+/**
+ * Authenticates {@code Authorization: Bearer <token>} requests from a {@link SignedTokenService} token.
+ * Requests without a bearer token pass through untouched to the Basic filter behind it. The context is
+ * also kept as a request attribute, like the Basic filter does, so the async dispatch that finishes a
+ * streamed body (which this filter does not see again) is still authenticated.
+ */
+public class BearerTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+    private static final String INVALID_TOKEN_CHALLENGE = "Bearer error=\"invalid_token\"";
+
+    private final SignedTokenService tokens;
+    private final SecurityContextRepository contexts = new RequestAttributeSecurityContextRepository();
+
+    public BearerTokenAuthenticationFilter(SignedTokenService tokens) {
+        this.tokens = tokens;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        try {
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(tokens.verify(header.substring(BEARER.length()).trim()));
+            SecurityContextHolder.setContext(context);
+            contexts.saveContext(context, request, response);
+        } catch (AuthenticationException ex) {
+            SecurityContextHolder.clearContext();
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, INVALID_TOKEN_CHALLENGE);
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, ex.getMessage());
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,113 @@
+package com.carlos.challenge.infrastructure.in.web.security;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntSupplier;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Remembers successful username/password checks for a short while so repeated HTTP Basic calls
+ * skip the password hash verification. Entries are keyed by an HMAC of the credentials under a
+ * per-process random key, so the cache never holds the password or anything that can be checked
+ * offline against it. Failed attempts are never cached and always pay the full verification.
+ * <p>
+ * Direct-mapped like the other in-process caches: a colliding entry is simply replaced. The whole
+ * cache is dropped when the users' configuration changes, detected through {@code usersVersion}.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private static final String HMAC = "HmacSHA256";
+    private static final int SLOTS = 1024;
+
+    private final AuthenticationProvider delegate;
+    private final IntSupplier usersVersion;
+    private final long ttlNanos;
+    private final AtomicReferenceArray<Slot> slots = new AtomicReferenceArray<>(SLOTS);
+    private final AtomicLong generation = new AtomicLong();
+    private final ThreadLocal<Mac> mac;
+    private volatile int knownUsersVersion;
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, IntSupplier usersVersion, Duration ttl) {
+        this.delegate = delegate;
+        this.usersVersion = usersVersion;
+        this.ttlNanos = ttl.toNanos();
+        this.knownUsersVersion = usersVersion.getAsInt();
+
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        SecretKeySpec key = new SecretKeySpec(secret, HMAC);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac m = Mac.getInstance(HMAC);
+                m.init(key);
+                return m;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        int version = usersVersion.getAsInt();
+        if (version != knownUsersVersion) {
+            knownUsersVersion = version;
+            invalidateAll();
+        }
+
+        Object credentials = authentication.getCredentials();
+        if (authentication.getName() == null || credentials == null) return delegate.authenticate(authentication);
+
+        byte[] digest = digest(authentication.getName(), credentials.toString());
+        int idx = indexOf(digest);
+        long gen = generation.get();
+        long now = System.nanoTime();
+        Slot slot = slots.get(idx);
+        if (slot != null && slot.generation() == gen && now - slot.expiresAt() < 0
+                && MessageDigest.isEqual(slot.digest(), digest)) {
+            return slot.result();
+        }
+
+        Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.isAuthenticated()) {
+            Authentication cached = UsernamePasswordAuthenticationToken.authenticated(
+                    result.getPrincipal(), null, result.getAuthorities());
+            slots.set(idx, new Slot(digest, cached, now + ttlNanos, gen));
+            return cached;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+
+    /** Forgets every cached verification; the next call of each user is checked in full again. */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+    }
+
+    private byte[] digest(String username, String password) {
+        Mac m = mac.get();
+        m.update(username.getBytes(StandardCharsets.UTF_8));
+        m.update((byte) 0);
+        return m.doFinal(password.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int indexOf(byte[] digest) {
+        return ((digest[0] & 0xff) | (digest[1] & 0xff) << 8) & (SLOTS - 1);
+    }
+
+    private record Slot(byte[] digest, Authentication result, long expiresAt, long generation) {}
+}
@@ -0,0 +1,34 @@
+package com.carlos.challenge.infrastructure.in.web.security;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import java.time.Instant;
+import java.util.Collection;
+
+/** Authentication restored from a verified bearer token. */
+public class SignedTokenAuthentication extends AbstractAuthenticationToken {
+
+    private final String username;
+    private final Instant expiresAt;
+
+    public SignedTokenAuthentication(String username, Collection<? extends GrantedAuthority> authorities, Instant expiresAt) {
+        super(authorities);
+        this.username = username;
+        this.expiresAt = expiresAt;
+        setAuthenticated(true);
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return username;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,135 @@
+package com.carlos.challenge.infrastructure.in.web.security;
+
+import com.carlos.challenge.infrastructure.config.SignedTokenProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.IntSupplier;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Issues and verifies compact HS256 JWTs ({@code header.payload.signature}, base64url) carrying the
+ * username, roles and expiry. Verification is an HMAC plus a small JSON parse, with no lookup.
+ * Tokens also carry the users' configuration version, so changing the configured users revokes
+ * every token issued before the change.
+ */
+public class SignedTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(SignedTokenService.class);
+
+    public static final String INVALID_TOKEN = "Invalid bearer token";
+    public static final String EXPIRED_TOKEN = "Bearer token expired";
+    private static final String RANDOM_SECRET = "security.token.secret not set: using a random key, tokens will not "
+            + "survive a restart nor be accepted by other nodes";
+    private static final String SECRET_TOO_SHORT = "security.token.secret must be at least 32 bytes";
+
+    private static final String HMAC = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder B64D = Base64.getUrlDecoder();
+    private static final String HEADER = B64.encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    private final ObjectMapper objectMapper;
+    private final IntSupplier usersVersion;
+    private final Duration ttl;
+    private final Clock clock;
+    private final ThreadLocal<Mac> mac;
+
+    public SignedTokenService(SignedTokenProperties props, ObjectMapper objectMapper, IntSupplier usersVersion, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.usersVersion = usersVersion;
+        this.ttl = props.getTtl();
+        this.clock = clock;
+
+        byte[] secret;
+        if (props.getSecret() == null || props.getSecret().isBlank()) {
+            log.warn(RANDOM_SECRET);
+            secret = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(secret);
+        } else {
+            secret = Base64.getDecoder().decode(props.getSecret());
+            if (secret.length < MIN_SECRET_BYTES) throw new IllegalStateException(SECRET_TOO_SHORT);
+        }
+        SecretKeySpec key = new SecretKeySpec(secret, HMAC);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac m = Mac.getInstance(HMAC);
+                m.init(key);
+                return m;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    public Duration ttl() {
+        return ttl;
+    }
+
+    public String issue(Authentication auth) {
+        long now = clock.instant().getEpochSecond();
+        ObjectNode payload = objectMapper.createObjectNode()
+                .put("sub", auth.getName())
+                .put("iat", now)
+                .put("exp", now + ttl.toSeconds())
+                .put("ver", usersVersion.getAsInt());
+        var roles = payload.putArray("roles");
+        auth.getAuthorities().forEach(a -> roles.add(a.getAuthority()));
+
+        String signingInput;
+        try {
+            signingInput = HEADER + "." + B64.encodeToString(objectMapper.writeValueAsBytes(payload));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return signingInput + "." + B64.encodeToString(sign(signingInput));
+    }
+
+    /** @throws BadCredentialsException when the token is malformed, forged, expired or revoked */
+    public SignedTokenAuthentication verify(String token) {
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot < 0 || firstDot == lastDot || !HEADER.equals(token.substring(0, firstDot))) {
+            throw new BadCredentialsException(INVALID_TOKEN);
+        }
+        String signingInput = token.substring(0, lastDot);
+        JsonNode payload;
+        try {
+            byte[] signature = B64D.decode(token.substring(lastDot + 1));
+            if (!MessageDigest.isEqual(signature, sign(signingInput))) throw new BadCredentialsException(INVALID_TOKEN);
+            payload = objectMapper.readTree(B64D.decode(token.substring(firstDot + 1, lastDot)));
+        } catch (IllegalArgumentException | IOException e) {
+            throw new BadCredentialsException(INVALID_TOKEN, e);
+        }
+
+        Instant expiresAt = Instant.ofEpochSecond(payload.path("exp").asLong());
+        if (!clock.instant().isBefore(expiresAt)) throw new BadCredentialsException(EXPIRED_TOKEN);
+        if (payload.path("ver").asInt() != usersVersion.getAsInt()) throw new BadCredentialsException(INVALID_TOKEN);
+
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        payload.path("roles").forEach(r -> authorities.add(new SimpleGrantedAuthority(r.asText())));
+        return new SignedTokenAuthentication(payload.path("sub").asText(), authorities, expiresAt);
+    }
+
+    private byte[] sign(String signingInput) {
+        return mac.get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+    }
+}
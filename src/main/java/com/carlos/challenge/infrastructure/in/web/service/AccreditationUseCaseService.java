@@ -1,23 +1,62 @@
 package com.carlos.challenge.infrastructure.in.web.service;
 
+import com.carlos.challenge.domain.exception.IdempotencyKeyConflictException;
+import com.carlos.challenge.domain.exception.IdempotencyKeyInProgressException;
 import com.carlos.challenge.domain.model.Accreditation;
+import com.carlos.challenge.domain.model.AccreditationAggregate;
+import com.carlos.challenge.domain.model.AccreditationAggregateQuery;
+import com.carlos.challenge.domain.model.AccreditationDailyTotal;
+import com.carlos.challenge.domain.model.AccreditationField;
+import com.carlos.challenge.domain.model.AccreditationSliceQuery;
+import com.carlos.challenge.domain.model.AccreditationSummary;
+import com.carlos.challenge.domain.model.AccreditationTotals;
+import com.carlos.challenge.domain.model.AccreditationWriteResult;
+import com.carlos.challenge.domain.model.IdempotencyClaim;
 import com.carlos.challenge.domain.port.in.AccreditationUseCasePort;
+import com.carlos.challenge.domain.port.out.AccreditationIdempotencyPort;
 import com.carlos.challenge.domain.port.out.AccreditationRepositoryPort;
-import lombok.RequiredArgsConstructor;
+import com.carlos.challenge.domain.port.out.AccreditationWriteBufferPort;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 @Service
-@RequiredArgsConstructor
 @Transactional
 public class AccreditationUseCaseService implements AccreditationUseCasePort {
 
     public static final String ACCREDITATION_NOT_FOUND = "Accreditation not found: ";
+    public static final String INVALID_RANGE = "Invalid date range: ";
+    public static final String IDEMPOTENCY_KEY_REUSED = "Idempotency key already used for a different accreditation: ";
+    public static final String IDEMPOTENCY_KEY_IN_PROGRESS = "A request with this idempotency key is still in progress: ";
+    private static final int CLAIM_POLLS = 10;
+    private static final long CLAIM_POLL_MILLIS = 50;
     private final AccreditationRepositoryPort repository;
+    private final PointOfSaleNameCache posNames;
+    private final AccreditationWriteBufferPort writeBuffer;
+    private final AccreditationIdempotencyPort idempotency;
+    private final IdempotencyKeyCache recentKeys = new IdempotencyKeyCache();
+
+    public AccreditationUseCaseService(AccreditationRepositoryPort repository,
+                                       PointOfSaleNameCache posNames,
+                                       Optional<AccreditationWriteBufferPort> writeBuffer,
+                                       Optional<AccreditationIdempotencyPort> idempotency) {
+        this.repository = repository;
+        this.posNames = posNames;
+        this.writeBuffer = writeBuffer.orElse(null);
+        this.idempotency = idempotency.orElse(null);
+    }
 
     @Override
     public Accreditation create(BigDecimal amount, String pointOfSaleId) {
@@ -25,12 +64,114 @@ public class AccreditationUseCaseService implements AccreditationUseCasePort {
                 null,
                 amount,
                 pointOfSaleId,
-                null,
+                posNames.nameOf(pointOfSaleId),
                 java.time.Instant.now()
         );
         return repository.save(acc);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Accreditation submit(BigDecimal amount, String pointOfSaleId) {
+        if (writeBuffer == null) return create(amount, pointOfSaleId);
+        return writeBuffer.enqueue(new Accreditation(null, amount, pointOfSaleId,
+                posNames.nameOf(pointOfSaleId), Instant.now()));
+    }
+
+    @Override
+    public Accreditation create(BigDecimal amount, String pointOfSaleId, String idempotencyKey) {
+        if (idempotencyKey == null) return create(amount, pointOfSaleId);
+        return createOnce(amount, pointOfSaleId, idempotencyKey, repository::save);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Accreditation submit(BigDecimal amount, String pointOfSaleId, String idempotencyKey) {
+        if (idempotencyKey == null) return submit(amount, pointOfSaleId);
+        return createOnce(amount, pointOfSaleId, idempotencyKey,
+                writeBuffer == null ? repository::save : writeBuffer::enqueue);
+    }
+
+    // local cache first, then the shared claim; only the request that acquires the claim writes,
+    // and marks the claim stored once the write went through
+    private Accreditation createOnce(BigDecimal amount, String pointOfSaleId, String key,
+                                     UnaryOperator<Accreditation> store) {
+        Accreditation seen = recentKeys.get(key);
+        if (seen != null) return sameRequestOrConflict(seen, amount, pointOfSaleId, key);
+
+        Accreditation draft = new Accreditation(null, amount, pointOfSaleId, posNames.nameOf(pointOfSaleId), Instant.now());
+        if (idempotency == null) {
+            Accreditation stored = store.apply(draft);
+            recentKeys.put(key, stored);
+            return stored;
+        }
+
+        IdempotencyClaim claim = claimOrWait(key, draft);
+        if (!claim.acquired()) {
+            recentKeys.put(key, claim.accreditation());
+            return sameRequestOrConflict(claim.accreditation(), amount, pointOfSaleId, key);
+        }
+        Accreditation claimed = sameRequestOrConflict(claim.accreditation(), amount, pointOfSaleId, key);
+        Accreditation stored;
+        try {
+            Optional<Accreditation> landed = claim.state() == IdempotencyClaim.State.RECLAIMED
+                    ? repository.findById(claimed.id()) : Optional.empty();
+            stored = landed.isPresent() ? landed.get() : store.apply(claimed);
+        } catch (RuntimeException ex) {
+            idempotency.release(key);
+            throw ex;
+        }
+        idempotency.markStored(key);
+        recentKeys.put(key, stored);
+        return stored;
+    }
+
+    // the first request's accreditation is only returned once it is stored; while it is pending the
+    // client is asked to retry (a claim whose owner died is taken over meanwhile). Only a virtual
+    // thread polls a little first: parking it is cheap, holding a Tomcat platform thread is not
+    private IdempotencyClaim claimOrWait(String key, Accreditation draft) {
+        IdempotencyClaim claim = idempotency.claim(key, draft);
+        int polls = Thread.currentThread().isVirtual() ? CLAIM_POLLS : 0;
+        for (int i = 0; claim.state() == IdempotencyClaim.State.PENDING && i < polls; i++) {
+            try {
+                Thread.sleep(CLAIM_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            claim = idempotency.claim(key, draft);
+        }
+        if (claim.state() == IdempotencyClaim.State.PENDING) {
+            throw new IdempotencyKeyInProgressException(IDEMPOTENCY_KEY_IN_PROGRESS + key);
+        }
+        return claim;
+    }
+
+    private static Accreditation sameRequestOrConflict(Accreditation existing, BigDecimal amount,
+                                                       String pointOfSaleId, String key) {
+        if (existing.amount().compareTo(amount) != 0 || !existing.pointOfSaleId().equals(pointOfSaleId)) {
+            throw new IdempotencyKeyConflictException(IDEMPOTENCY_KEY_REUSED + key);
+        }
+        return existing;
+    }
+
+    @Override
+    public boolean isWriteBehindEnabled() {
+        return writeBuffer != null;
+    }
+
+    // one insertMany per batch: a single round trip, no per-item transaction
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<AccreditationWriteResult> createAll(List<Accreditation> drafts) {
+        Instant now = Instant.now();
+        List<Accreditation> batch = new ArrayList<>(drafts.size());
+        for (Accreditation d : drafts) {
+            batch.add(new Accreditation(null, d.amount(), d.pointOfSaleId(), posNames.nameOf(d.pointOfSaleId()), now));
+        }
+        return repository.saveAll(batch);
+    }
+
 
     @Override
     @Transactional(readOnly = true)
@@ -39,6 +180,12 @@ public class AccreditationUseCaseService implements AccreditationUseCasePort {
                 .orElseThrow(() -> new IllegalArgumentException(ACCREDITATION_NOT_FOUND + id));
     }
 
+    @Override
+    public long refreshPointOfSaleName(String pointOfSaleId, String pointOfSaleName) {
+        posNames.evict(pointOfSaleId);
+        return repository.updatePointOfSaleName(pointOfSaleId, pointOfSaleName);
+    }
+
     @Override
     public void delete(String id) {
         repository.deleteById(id);
@@ -67,4 +214,50 @@ public class AccreditationUseCaseService implements AccreditationUseCasePort {
     public Page<Accreditation> findByPointOfSaleAndDateBetween(String pointOfSaleId, Instant from, Instant to, Pageable pageable) {
         return repository.findByPointOfSaleAndDateBetween(pointOfSaleId, from, to, pageable);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<AccreditationSummary> findSummaries(AccreditationSliceQuery query) {
+        return repository.findSummaries(query);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Accreditation> findSlice(AccreditationSliceQuery query) {
+        return repository.findSlice(query);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AccreditationTotals totals(String pointOfSaleId, LocalDate from, LocalDate to) {
+        List<AccreditationDailyTotal> daily = repository.findDailyTotals(pointOfSaleId, from, to);
+        BigDecimal total = BigDecimal.ZERO;
+        long count = 0;
+        for (AccreditationDailyTotal d : daily) {
+            total = total.add(d.total());
+            count += d.count();
+        }
+        return new AccreditationTotals(total, count, daily);
+    }
+
+    @Override
+    public void rebuildTotals() {
+        repository.rebuildDailyTotals();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Stream<AccreditationAggregate> aggregate(AccreditationAggregateQuery query) {
+        if (query.from().isAfter(query.to())) {
+            throw new IllegalArgumentException(INVALID_RANGE + query.from() + " > " + query.to());
+        }
+        return repository.aggregate(query);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Stream<Accreditation> export(String pointOfSaleId, Instant from, Instant to, Set<AccreditationField> fields) {
+        if (from.isAfter(to)) throw new IllegalArgumentException(INVALID_RANGE + from + " > " + to);
+        return repository.stream(pointOfSaleId, from, to, fields);
+    }
 }
@@ -0,0 +1,144 @@
+package com.carlos.challenge.infrastructure.in.web.service;
+
+import com.carlos.challenge.infrastructure.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Already-encoded response bodies for hot reads, so a hit skips web mapping and Jackson and is
+ * written to the response as is. Entries are tagged with the data version they were built from
+ * (see {@code VersionETags}); a write bumps the version, so every entry built before it stops
+ * matching, on this node and on any other node sharing the store. Same direct-mapped layout as
+ * {@link PointOfSaleNameCache}: no eviction bookkeeping, a collision just replaces the slot.
+ */
+@Component
+public class EncodedResponseCache {
+
+    private final boolean enabled;
+    private final int mask;
+    private final int maxEntryBytes;
+    private final AtomicReferenceArray<Entry> slots;
+
+    private final Timer encodeTimer;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter savedSeconds;
+
+    public EncodedResponseCache(ResponseCacheProperties props, MeterRegistry registry) {
+        int size = Integer.highestOneBit(Math.max(1, props.getSlots() - 1)) << 1;
+        this.enabled = props.isEnabled();
+        this.mask = size - 1;
+        this.maxEntryBytes = props.getMaxEntryBytes();
+        this.slots = new AtomicReferenceArray<>(size);
+
+        this.encodeTimer = Timer.builder("response.cache.encode")
+                .description("Web mapping + JSON encoding of bodies that were not cached")
+                .register(registry);
+        this.hits = Counter.builder("response.cache.hits").register(registry);
+        this.misses = Counter.builder("response.cache.misses").register(registry);
+        this.savedSeconds = Counter.builder("response.cache.encode.saved")
+                .description("Encoding time the hits did not spend, as measured when each entry was built")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    /** @return the cached body for {@code key} if it was built at {@code tag}, otherwise {@code null} */
+    public byte[] get(String key, String tag) {
+        if (!enabled) return null;
+        Entry e = slots.get(key.hashCode() & mask);
+        if (e != null && e.key().equals(key) && e.tag().equals(tag)) {
+            hits.increment();
+            savedSeconds.increment(e.encodeNanos() / 1e9);
+            return e.body();
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Encodes with {@code writer} and keeps the bytes under {@code key} at {@code tag}. The tag must
+     * have been read before the data the writer encodes, so a racing write leaves it stale, not ahead.
+     */
+    public byte[] put(String key, String tag, StreamingResponseBody writer) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        long start = System.nanoTime();
+        try {
+            writer.writeTo(out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        long took = System.nanoTime() - start;
+        encodeTimer.record(took, TimeUnit.NANOSECONDS);
+
+        byte[] body = out.toByteArray();
+        if (enabled && body.length <= maxEntryBytes) {
+            slots.set(key.hashCode() & mask, new Entry(key, tag, body, took));
+        }
+        return body;
+    }
+
+    /**
+     * Wraps {@code writer} so the body goes straight to the response and is kept under {@code key}
+     * at {@code tag} once written, unless it grows past {@code max-entry-bytes}: the copy is dropped
+     * as soon as it does, so a large body is never held in memory. Same tag rule as {@link #put}.
+     */
+    public StreamingResponseBody writeThrough(String key, String tag, StreamingResponseBody writer) {
+        if (!enabled) return writer;
+        return out -> {
+            CappedCopy copy = new CappedCopy(out, maxEntryBytes);
+            long start = System.nanoTime();
+            writer.writeTo(copy);
+            long took = System.nanoTime() - start;
+            encodeTimer.record(took, TimeUnit.NANOSECONDS);
+            byte[] body = copy.bytes();
+            if (body != null) slots.set(key.hashCode() & mask, new Entry(key, tag, body, took));
+        };
+    }
+
+    private record Entry(String key, String tag, byte[] body, long encodeNanos) {}
+
+    private static final class CappedCopy extends FilterOutputStream {
+        private final int limit;
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream(256);
+
+        CappedCopy(OutputStream out, int limit) {
+            super(out);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            keep(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            keep(b, off, len);
+        }
+
+        private void keep(byte[] b, int off, int len) {
+            if (copy == null) return;
+            if (copy.size() + len > limit) {
+                copy = null;
+            } else {
+                copy.write(b, off, len);
+            }
+        }
+
+        byte[] bytes() {
+            return copy == null ? null : copy.toByteArray();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.carlos.challenge.infrastructure.in.web.service;
 
 import com.carlos.challenge.domain.model.graph.MinPaths;
 import com.carlos.challenge.domain.model.graph.Neighbor;
+import com.carlos.challenge.domain.model.graph.ShortestPathDag;
 import com.carlos.challenge.domain.port.in.GraphUseCasePort;
 import com.carlos.challenge.domain.port.in.PointOfSaleUseCasePort;
 import org.springframework.stereotype.Service;
@@ -10,6 +11,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.StampedLock;
 
 @Service
@@ -24,6 +26,8 @@ public class GraphUseCaseService implements GraphUseCasePort {
 
     private final ConcurrentMap<String, ConcurrentMap<String, Integer>> adj = new ConcurrentHashMap<>();
     private final StampedLock lock = new StampedLock();
+    // seeded from the clock: the graph is lost on restart and must not reuse an old version
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis() << 20);
 
     public GraphUseCaseService(PointOfSaleUseCasePort points) {
         this.points = points;
@@ -45,6 +49,7 @@ public class GraphUseCaseService implements GraphUseCasePort {
         try {
             adj.computeIfAbsent(fromId, k -> new ConcurrentHashMap<>()).put(toId, cost);
             adj.computeIfAbsent(toId,   k -> new ConcurrentHashMap<>()).put(fromId, cost);
+            version.incrementAndGet();
         } finally {
             lock.unlockWrite(stamp);
         }
@@ -59,11 +64,17 @@ public class GraphUseCaseService implements GraphUseCasePort {
         try {
             Optional.ofNullable(adj.get(fromId)).ifPresent(m -> m.remove(toId));
             Optional.ofNullable(adj.get(toId)).ifPresent(m -> m.remove(fromId));
+            version.incrementAndGet();
         } finally {
             lock.unlockWrite(stamp);
         }
     }
 
+    @Override
+    public long version() {
+        return version.get();
+    }
+
     @Override
     public List<Neighbor> neighborsOf(String id) {
         points.findById(id);
@@ -102,6 +113,47 @@ public class GraphUseCaseService implements GraphUseCasePort {
             return new MinPaths(0, List.of(List.of(fromId)));
         }
 
+        Search search = search(fromId, toId);
+
+        List<List<String>> allPaths = new ArrayList<>();
+        Deque<String> stack = new ArrayDeque<>();
+        stack.push(toId);
+        backtrackPaths(fromId, toId, search.preds(), stack, allPaths);
+
+        return new MinPaths(search.best(), allPaths);
+    }
+
+    @Override
+    public ShortestPathDag shortestPathDag(String fromId, String toId) {
+
+        points.findById(fromId);
+        points.findById(toId);
+
+        if (fromId.equals(toId)) {
+            return new ShortestPathDag(0, List.of(fromId), Map.of(fromId, Set.of()));
+        }
+
+        Search search = search(fromId, toId);
+
+        // walk back from the destination: only predecessors reached this way are on a minimum path
+        Map<String, Set<String>> onPaths = new HashMap<>();
+        Deque<String> todo = new ArrayDeque<>(List.of(toId));
+        while (!todo.isEmpty()) {
+            String v = todo.pop();
+            if (onPaths.containsKey(v)) continue;
+            Set<String> ps = v.equals(fromId) ? Set.of() : search.preds().getOrDefault(v, Set.of());
+            onPaths.put(v, ps);
+            todo.addAll(ps);
+        }
+
+        List<String> nodes = new ArrayList<>(onPaths.keySet());
+        nodes.sort(Comparator.comparing((String n) -> !n.equals(fromId))
+                .thenComparingInt(search.dist()::get)
+                .thenComparing(n -> n.equals(toId)));
+        return new ShortestPathDag(search.best(), nodes, onPaths);
+    }
+
+    private Search search(String fromId, String toId) {
         Map<String, Map<String, Integer>> graph = deepSnapshot(adj);
 
         Map<String, Integer> dist = new HashMap<>();
@@ -143,15 +195,11 @@ public class GraphUseCaseService implements GraphUseCasePort {
         if (best == Integer.MAX_VALUE) {
             throw new IllegalArgumentException(ERR_NO_MIN_PATH);
         }
-
-        List<List<String>> allPaths = new ArrayList<>();
-        Deque<String> stack = new ArrayDeque<>();
-        stack.push(toId);
-        backtrackPaths(fromId, toId, preds, stack, allPaths);
-
-        return new MinPaths(best, allPaths);
+        return new Search(best, dist, preds);
     }
 
+    private record Search(int best, Map<String, Integer> dist, Map<String, Set<String>> preds) {}
+
     private static void backtrackPaths(String start, String current,
                                        Map<String, Set<String>> preds,
                                        Deque<String> stack,
@@ -0,0 +1,37 @@
+package com.carlos.challenge.infrastructure.in.web.service;
+
+import com.carlos.challenge.domain.model.Accreditation;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Recently used idempotency keys of this node, so a terminal retrying against the same node is
+ * answered without a round trip. Direct-mapped like {@link PointOfSaleNameCache}: a colliding key
+ * just evicts, and the shared claim in Mongo stays the source of truth.
+ */
+class IdempotencyKeyCache {
+
+    private static final int SLOTS = 4096;
+    private static final long TTL_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    private final AtomicReferenceArray<Slot> slots = new AtomicReferenceArray<>(SLOTS);
+
+    Accreditation get(String key) {
+        Slot slot = slots.get(indexOf(key));
+        if (slot != null && slot.key().equals(key) && System.nanoTime() - slot.expiresAt() < 0) {
+            return slot.accreditation();
+        }
+        return null;
+    }
+
+    void put(String key, Accreditation accreditation) {
+        slots.set(indexOf(key), new Slot(key, accreditation, System.nanoTime() + TTL_NANOS));
+    }
+
+    private static int indexOf(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (SLOTS - 1);
+    }
+
+    private record Slot(String key, Accreditation accreditation, long expiresAt) {}
+}
@@ -0,0 +1,72 @@
+package com.carlos.challenge.infrastructure.in.web.service;
+
+import com.carlos.challenge.domain.port.out.PointOfSaleRepositoryPort;
+import com.carlos.challenge.infrastructure.support.IdOrCode;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Resolves "UUID or code" identifiers. UUIDs are recognised without touching the store;
+ * codes go through a small direct-mapped cache (code -> id) before hitting the repository.
+ * Deletes and code changes only evict on the node that made them, so a slot remembers the store
+ * version it was read at: a hit at the same version is trusted as is. After a write anywhere the
+ * cached id is checked to still carry the code, and the code is resolved again if it does not.
+ */
+@Component
+public class PointOfSaleIdResolver {
+
+    public static final String EMPTY_ID_CODE = "Empty id/code";
+    public static final String INVALID_ID_CODE_FORMAT = "Invalid id/code format: ";
+
+    private static final int SLOTS = 1024;
+    private static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final PointOfSaleRepositoryPort repository;
+    private final AtomicReferenceArray<Slot> slots = new AtomicReferenceArray<>(SLOTS);
+
+    public PointOfSaleIdResolver(PointOfSaleRepositoryPort repository) {
+        this.repository = repository;
+    }
+
+    public String resolve(String idOrCode) {
+        if (IdOrCode.isBlank(idOrCode)) throw new IllegalArgumentException(EMPTY_ID_CODE);
+        if (IdOrCode.isUuid(idOrCode)) return idOrCode;
+
+        long parsed = IdOrCode.parseCode(idOrCode);
+        if (parsed == IdOrCode.NOT_A_CODE) throw new IllegalArgumentException(INVALID_ID_CODE_FORMAT + idOrCode);
+        int code = (int) parsed;
+
+        int idx = code & (SLOTS - 1);
+        Slot slot = slots.get(idx);
+        long now = System.nanoTime();
+        // read before the data: an unchanged version means nothing was written since
+        long version = repository.version();
+        if (slot != null && slot.code() == code && now - slot.expiresAt() < 0) {
+            if (slot.version() == version) return slot.id();
+            if (stillCarries(slot)) {
+                slots.compareAndSet(idx, slot, new Slot(code, slot.id(), slot.expiresAt(), version));
+                return slot.id();
+            }
+        }
+
+        String id = repository.resolveId(idOrCode);
+        slots.set(idx, new Slot(code, id, now + TTL_NANOS, version));
+        return id;
+    }
+
+    private boolean stillCarries(Slot slot) {
+        return repository.findById(slot.id())
+                .map(pos -> pos.code() != null && pos.code() == slot.code())
+                .orElse(false);
+    }
+
+    public void evict(String id) {
+        for (int i = 0; i < SLOTS; i++) {
+            Slot slot = slots.get(i);
+            if (slot != null && slot.id().equals(id)) slots.compareAndSet(i, slot, null);
+        }
+    }
+
+    private record Slot(int code, String id, long expiresAt, long version) {}
+}
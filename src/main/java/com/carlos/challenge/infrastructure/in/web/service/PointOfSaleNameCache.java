@@ -0,0 +1,50 @@
+package com.carlos.challenge.infrastructure.in.web.service;
+
+import com.carlos.challenge.domain.model.PointOfSale;
+import com.carlos.challenge.domain.port.out.PointOfSaleRepositoryPort;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * POS id -> name lookup for denormalizing accreditations at write time. Same direct-mapped,
+ * short-TTL layout as {@link PointOfSaleIdResolver}; renames evict the entry right away and
+ * the TTL covers renames made on other nodes.
+ */
+@Component
+public class PointOfSaleNameCache {
+
+    private static final int SLOTS = 1024;
+    public static final Duration TTL = Duration.ofSeconds(30);
+    private static final long TTL_NANOS = TTL.toNanos();
+
+    private final PointOfSaleRepositoryPort repository;
+    private final AtomicReferenceArray<Slot> slots = new AtomicReferenceArray<>(SLOTS);
+
+    public PointOfSaleNameCache(PointOfSaleRepositoryPort repository) {
+        this.repository = repository;
+    }
+
+    /** @return the current name, or {@code null} when the POS does not exist */
+    public String nameOf(String pointOfSaleId) {
+        if (pointOfSaleId == null) return null;
+        int idx = pointOfSaleId.hashCode() & (SLOTS - 1);
+        Slot slot = slots.get(idx);
+        long now = System.nanoTime();
+        if (slot != null && slot.id().equals(pointOfSaleId) && now - slot.expiresAt() < 0) {
+            return slot.name();
+        }
+
+        String name = repository.findById(pointOfSaleId).map(PointOfSale::name).orElse(null);
+        if (name != null) slots.set(idx, new Slot(pointOfSaleId, name, now + TTL_NANOS));
+        return name;
+    }
+
+    public void evict(String pointOfSaleId) {
+        int idx = pointOfSaleId.hashCode() & (SLOTS - 1);
+        Slot slot = slots.get(idx);
+        if (slot != null && slot.id().equals(pointOfSaleId)) slots.compareAndSet(idx, slot, null);
+    }
+
+    private record Slot(String id, String name, long expiresAt) {}
+}
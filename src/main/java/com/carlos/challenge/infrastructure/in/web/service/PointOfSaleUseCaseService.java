@@ -1,12 +1,16 @@
 package com.carlos.challenge.infrastructure.in.web.service;
 
 import com.carlos.challenge.domain.model.PointOfSale;
+import com.carlos.challenge.domain.model.PointOfSaleRenamed;
 import com.carlos.challenge.domain.port.in.PointOfSaleUseCasePort;
 import com.carlos.challenge.domain.port.out.PointOfSaleRepositoryPort;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 @Service
@@ -15,9 +19,18 @@ public class PointOfSaleUseCaseService implements PointOfSaleUseCasePort {
 
     public static final String POINT_OF_SALE_NOT_FOUND = "Point of sale not found: ";
     private final PointOfSaleRepositoryPort repositoryPort;
+    private final PointOfSaleIdResolver idResolver;
+    private final PointOfSaleNameCache posNames;
+    private final ApplicationEventPublisher events;
 
-    public PointOfSaleUseCaseService(PointOfSaleRepositoryPort repositoryPort) {
+    public PointOfSaleUseCaseService(PointOfSaleRepositoryPort repositoryPort,
+                                     PointOfSaleIdResolver idResolver,
+                                     PointOfSaleNameCache posNames,
+                                     ApplicationEventPublisher events) {
         this.repositoryPort = repositoryPort;
+        this.idResolver = idResolver;
+        this.posNames = posNames;
+        this.events = events;
     }
 
     @Override
@@ -25,6 +38,18 @@ public class PointOfSaleUseCaseService implements PointOfSaleUseCasePort {
         return repositoryPort.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Stream<PointOfSale> streamAll() {
+        return repositoryPort.stream();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long version() {
+        return repositoryPort.version();
+    }
+
     @Override
     public PointOfSale create(String name) {
         return repositoryPort.save(new PointOfSale(null, name, null));
@@ -37,12 +62,20 @@ public class PointOfSaleUseCaseService implements PointOfSaleUseCasePort {
 
     @Override
     public PointOfSale update(String id, String name) {
-        return repositoryPort.save(new PointOfSale(id, name, repositoryPort.findById(id).map(PointOfSale::code).orElse(null)));
+        Optional<PointOfSale> previous = repositoryPort.findById(id);
+        PointOfSale saved = repositoryPort.save(new PointOfSale(id, name, previous.map(PointOfSale::code).orElse(null)));
+        if (previous.isPresent() && !Objects.equals(previous.get().name(), saved.name())) {
+            // before the event: creates on this node must stop picking up the old name right away
+            posNames.evict(id);
+            events.publishEvent(new PointOfSaleRenamed(id, previous.get().name(), saved.name()));
+        }
+        return saved;
     }
 
     @Override
     public void delete(String id) {
         repositoryPort.deleteById(id);
+        idResolver.evict(id);
     }
 
 
@@ -68,6 +101,6 @@ public class PointOfSaleUseCaseService implements PointOfSaleUseCasePort {
     @Override
     @Transactional(readOnly = true)
     public String resolveId(String idOrCode) {
-        return repositoryPort.resolveId(idOrCode);
+        return idResolver.resolve(idOrCode);
     }
 }
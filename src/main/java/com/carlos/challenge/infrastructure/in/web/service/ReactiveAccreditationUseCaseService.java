@@ -0,0 +1,63 @@
+package com.carlos.challenge.infrastructure.in.web.service;
+
+import com.carlos.challenge.domain.model.Accreditation;
+import com.carlos.challenge.domain.port.in.ReactiveAccreditationUseCasePort;
+import com.carlos.challenge.domain.port.out.ReactiveAccreditationRepositoryPort;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+
+@Service
+@Profile("reactive")
+public class ReactiveAccreditationUseCaseService implements ReactiveAccreditationUseCasePort {
+
+    public static final String RANGE_REQUIRES_BOTH = "from and to must be given together";
+    public static final String FILTER_REQUIRED = "pointOfSaleId or from/to is required";
+
+    private final ReactiveAccreditationRepositoryPort repository;
+    private final PointOfSaleNameCache posNames;
+
+    public ReactiveAccreditationUseCaseService(ReactiveAccreditationRepositoryPort repository, PointOfSaleNameCache posNames) {
+        this.repository = repository;
+        this.posNames = posNames;
+    }
+
+    @Override
+    public Mono<Accreditation> create(BigDecimal amount, String pointOfSaleId) {
+        // the name lookup may go to Redis on a cache miss: keep it off the event loop
+        return Mono.fromCallable(() -> Optional.ofNullable(posNames.nameOf(pointOfSaleId)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(name -> repository.save(
+                        new Accreditation(null, amount, pointOfSaleId, name.orElse(null), Instant.now())));
+    }
+
+    @Override
+    public Mono<Accreditation> findById(String id) {
+        return repository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException(AccreditationUseCaseService.ACCREDITATION_NOT_FOUND + id)));
+    }
+
+    @Override
+    public Mono<Void> delete(String id) {
+        return repository.deleteById(id).then();
+    }
+
+    @Override
+    public Flux<Accreditation> find(String pointOfSaleId, Instant from, Instant to) {
+        if ((from == null) != (to == null)) return Flux.error(new IllegalArgumentException(RANGE_REQUIRES_BOTH));
+        if (from != null && from.isAfter(to)) {
+            return Flux.error(new IllegalArgumentException(AccreditationUseCaseService.INVALID_RANGE + from + " > " + to));
+        }
+        if (from == null) {
+            return pointOfSaleId == null ? Flux.error(new IllegalArgumentException(FILTER_REQUIRED))
+                    : repository.findByPointOfSale(pointOfSaleId);
+        }
+        return pointOfSaleId == null ? repository.findByDateBetween(from, to)
+                : repository.findByPointOfSaleAndDateBetween(pointOfSaleId, from, to);
+    }
+}
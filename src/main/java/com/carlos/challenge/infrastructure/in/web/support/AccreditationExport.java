@@ -0,0 +1,137 @@
+package com.carlos.challenge.infrastructure.in.web.support;
+
+import com.carlos.challenge.domain.model.Accreditation;
+import com.carlos.challenge.domain.model.AccreditationField;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes accreditations row by row as NDJSON or CSV, optionally gzipped, straight from the source
+ * stream to the response. Only the selected columns are written, in {@link AccreditationField} order.
+ * Nothing is buffered beyond the writer's own buffer, so heap use does not grow with the export size.
+ */
+public final class AccreditationExport {
+
+    public enum Format {
+        NDJSON(JsonStreaming.APPLICATION_NDJSON_VALUE, "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    public static final String APPLICATION_GZIP_VALUE = "application/gzip";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private AccreditationExport() {}
+
+    public static StreamingResponseBody body(ObjectMapper objectMapper, Stream<Accreditation> rows,
+                                             List<AccreditationField> fields, Format format, boolean gzip) {
+        return out -> {
+            try (rows; OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out) {
+                Iterator<Accreditation> it = rows.iterator();
+                if (format == Format.CSV) {
+                    writeCsv(target, it, fields);
+                } else {
+                    writeNdjson(objectMapper, target, it, fields);
+                }
+            }
+        };
+    }
+
+    private static void writeNdjson(ObjectMapper objectMapper, OutputStream out, Iterator<Accreditation> rows,
+                                    List<AccreditationField> fields) throws IOException {
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // lines are delimited by the '\n' below, not by Jackson's default " " between root values
+            gen.setRootValueSeparator(null);
+            while (rows.hasNext()) {
+                Accreditation acc = rows.next();
+                gen.writeStartObject();
+                for (AccreditationField f : fields) {
+                    String value = valueOf(acc, f);
+                    if (value == null) {
+                        gen.writeNullField(f.property());
+                    } else if (f == AccreditationField.AMOUNT) {
+                        gen.writeFieldName(f.property());
+                        gen.writeNumber(value);
+                    } else {
+                        gen.writeStringField(f.property(), value);
+                    }
+                }
+                gen.writeEndObject();
+                gen.writeRaw('\n');
+            }
+        }
+    }
+
+    private static void writeCsv(OutputStream out, Iterator<Accreditation> rows, List<AccreditationField> fields)
+            throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) w.write(',');
+            w.write(fields.get(i).property());
+        }
+        w.write("\r\n");
+        while (rows.hasNext()) {
+            Accreditation acc = rows.next();
+            for (int i = 0; i < fields.size(); i++) {
+                if (i > 0) w.write(',');
+                writeCsvCell(w, valueOf(acc, fields.get(i)));
+            }
+            w.write("\r\n");
+        }
+        w.flush();
+    }
+
+    private static void writeCsvCell(Writer w, String value) throws IOException {
+        if (value == null) return;
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            w.write(value);
+            return;
+        }
+        w.write('"');
+        w.write(value.replace("\"", "\"\""));
+        w.write('"');
+    }
+
+    private static String valueOf(Accreditation acc, AccreditationField field) {
+        return switch (field) {
+            case ID -> acc.id();
+            case AMOUNT -> acc.amount() == null ? null : acc.amount().toPlainString();
+            case POINT_OF_SALE_ID -> acc.pointOfSaleId();
+            case POINT_OF_SALE_NAME -> acc.pointOfSaleName();
+            case RECEPTION_DATE -> acc.receptionDate() == null ? null : acc.receptionDate().toString();
+        };
+    }
+}
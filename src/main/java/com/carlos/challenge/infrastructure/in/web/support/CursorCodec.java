@@ -0,0 +1,37 @@
+package com.carlos.challenge.infrastructure.in.web.support;
+
+import com.carlos.challenge.domain.model.AccreditationKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque, URL-safe cursor for keyset paging: base64url of {@code <epochMillis>.<id>}.
+ * Mongo keeps dates at millisecond precision, so the round trip is exact.
+ */
+public final class CursorCodec {
+
+    public static final String INVALID_CURSOR = "Invalid cursor: ";
+
+    private CursorCodec() {}
+
+    public static String encode(AccreditationKey key) {
+        String raw = key.receptionDate().toEpochMilli() + "." + key.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static AccreditationKey decode(String cursor) {
+        String raw;
+        long millis;
+        int dot;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            dot = raw.indexOf('.');
+            millis = dot > 0 ? Long.parseLong(raw, 0, dot, 10) : -1;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(INVALID_CURSOR + cursor, e);
+        }
+        if (dot <= 0 || dot == raw.length() - 1) throw new IllegalArgumentException(INVALID_CURSOR + cursor);
+        return new AccreditationKey(Instant.ofEpochMilli(millis), raw.substring(dot + 1));
+    }
+}
@@ -0,0 +1,448 @@
+package com.carlos.challenge.infrastructure.in.web.support;
+
+import com.carlos.challenge.infrastructure.config.CompressionProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzips responses of the configured endpoints once the body reaches that endpoint's minimum size.
+ * The first {@code min-size} bytes are held back; a body that ends below it goes out as is with its
+ * length, a longer one switches to gzip, so streamed listings are compressed without being buffered.
+ * <p>
+ * A gzipped body is a different representation: a strong ETag gets a {@code -gzip} suffix, which is
+ * stripped from {@code If-None-Match} before the controller compares it with its own tag. The last
+ * gzipped body of a response with a strong ETag is kept per URL + Accept. A later request without
+ * validators of its own is passed on with that tag as {@code If-None-Match}: if the controller
+ * answers 304 the data has not changed, and the kept body goes out as the 200 without serializing
+ * the payload again. ETags here come from data versions, so they change whenever the data does.
+ * <p>
+ * Only blocking writes are supported: the held-back bytes, the gzip trailer and the cache copy are
+ * written when the request's last dispatch leaves this filter, and a non-blocking write completes
+ * through {@code AsyncContext.complete()} without coming back here, so its body would be cut short.
+ */
+public class GzipResponseFilter extends OncePerRequestFilter {
+
+    private static final String GZIP = "gzip";
+    private static final String GZIP_SUFFIX = "-gzip\"";
+    private static final AntPathMatcher PATHS = new AntPathMatcher();
+    private static final String NON_BLOCKING_UNSUPPORTED = "Non-blocking writes are not supported on gzipped responses";
+    // what a 200 carries that the controller's 304 does not
+    private static final List<String> REPLAYED = List.of(
+            HttpHeaders.CACHE_CONTROL, HttpHeaders.CONTENT_LANGUAGE, HttpHeaders.VARY);
+
+    private final List<CompressionProperties.Endpoint> endpoints;
+    private final int level;
+    private final int cacheMaxEntryBytes;
+    private final int mask;
+    private final AtomicReferenceArray<Precompressed> cache;
+
+    public GzipResponseFilter(CompressionProperties props) {
+        int size = Integer.highestOneBit(Math.max(1, props.getCacheSlots() - 1)) << 1;
+        this.endpoints = List.copyOf(props.getEndpoints());
+        this.level = props.getLevel();
+        this.cacheMaxEntryBytes = props.getCacheMaxEntryBytes();
+        this.mask = size - 1;
+        this.cache = new AtomicReferenceArray<>(size);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // streamed bodies are written after the first pass returns; the async dispatch finishes them
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        GzipResponse started = WebUtils.getNativeResponse(response, GzipResponse.class);
+        if (started != null) {
+            chain.doFilter(request, response);
+            if (!isAsyncStarted(request)) started.finish();
+            return;
+        }
+
+        int minSize = minSizeFor(request);
+        if (minSize < 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING)) || "HEAD".equals(request.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        boolean gzipValidator = ifNoneMatch != null && ifNoneMatch.contains(GZIP_SUFFIX);
+        String query = request.getQueryString();
+        String key = request.getRequestURI() + (query == null ? "" : "?" + query)
+                + " " + request.getHeader(HttpHeaders.ACCEPT);
+        Precompressed kept = ifNoneMatch == null && request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) == null
+                ? cached(key) : null;
+        GzipResponse wrapped = new GzipResponse(response, minSize, gzipValidator, key, kept);
+        HttpServletRequest passed = request;
+        if (gzipValidator) passed = new ValidatorRequest(request, null);
+        else if (kept != null) passed = new ValidatorRequest(request, kept.etag());
+        chain.doFilter(passed, wrapped);
+        if (!isAsyncStarted(request)) wrapped.finish();
+    }
+
+    private int minSizeFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (CompressionProperties.Endpoint e : endpoints) {
+            if (PATHS.match(e.getPath(), path)) return e.getMinSize();
+        }
+        return -1;
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.trim().split(";");
+            String coding = parts[0].trim();
+            if (!coding.equalsIgnoreCase(GZIP) && !coding.equals("*")) continue;
+            for (int i = 1; i < parts.length; i++) {
+                String p = parts[i].trim().replace(" ", "");
+                if (p.startsWith("q=") && p.substring(2).matches("0(\\.0*)?")) return false;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean compressible(String contentType) {
+        if (contentType == null) return false;
+        String ct = contentType.toLowerCase();
+        return ct.startsWith("text/") || ct.contains("json") || ct.contains("cbor") || ct.contains("xml");
+    }
+
+    private Precompressed cached(String key) {
+        Precompressed p = cache.get(key.hashCode() & mask);
+        return p != null && p.key().equals(key) ? p : null;
+    }
+
+    private void store(Precompressed p) {
+        cache.set(p.key().hashCode() & mask, p);
+    }
+
+    private record Precompressed(String key, String etag, byte[] body, String contentType,
+                                 Map<String, List<String>> headers) {}
+
+    /**
+     * Presents {@code "v-gzip"} validators as {@code "v"}, the tag the controller computes, or, when
+     * the client sent none, the tag of the kept gzipped body so the controller can say it is current.
+     */
+    private static final class ValidatorRequest extends HttpServletRequestWrapper {
+
+        private final String assumed;
+
+        ValidatorRequest(HttpServletRequest request, String assumed) {
+            super(request);
+            this.assumed = assumed;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (!HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name)) return super.getHeader(name);
+            String value = super.getHeader(name);
+            return value == null ? assumed : value.replace(GZIP_SUFFIX, "\"");
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (!HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name)) return super.getHeaders(name);
+            if (assumed != null) return Collections.enumeration(List.of(assumed));
+            List<String> values = Collections.list(super.getHeaders(name));
+            values.replaceAll(v -> v.replace(GZIP_SUFFIX, "\""));
+            return Collections.enumeration(values);
+        }
+    }
+
+    private final class GzipResponse extends HttpServletResponseWrapper {
+
+        private final HttpServletResponse delegate;
+        private final int minSize;
+        private final boolean gzipValidator;
+        private final String key;
+        private final Precompressed kept;
+        private final ByteArrayOutputStream pending;
+
+        private OutputStream target;
+        private GZIPOutputStream gzip;
+        private CapturingStream capture;
+        private String cacheTag;
+        private long contentLength = -1;
+        private ServletOutputStream out;
+        private PrintWriter writer;
+
+        GzipResponse(HttpServletResponse delegate, int minSize, boolean gzipValidator, String key, Precompressed kept) {
+            super(delegate);
+            this.delegate = delegate;
+            this.minSize = minSize;
+            this.gzipValidator = gzipValidator;
+            this.key = key;
+            this.kept = kept;
+            this.pending = new ByteArrayOutputStream(Math.min(minSize, 8192));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (out == null) out = new Stream();
+            return out;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            return writer;
+        }
+
+        // the length is only known to be right if the body goes out uncompressed
+        @Override
+        public void setContentLength(int len) {
+            setContentLengthLong(len);
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (target == null) contentLength = len;
+            else if (gzip == null) delegate.setContentLengthLong(len);
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) setContentLengthLong(Long.parseLong(value));
+            else super.setHeader(name, value);
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) setContentLengthLong(Long.parseLong(value));
+            else super.addHeader(name, value);
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) setContentLengthLong(value);
+            else super.setIntHeader(name, value);
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) writer.flush();
+            if (target != null) {
+                target.flush();
+                delegate.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            if (target == null) pending.reset();
+            super.resetBuffer();
+        }
+
+        @Override
+        public void reset() {
+            if (target == null) {
+                pending.reset();
+                contentLength = -1;
+            }
+            super.reset();
+        }
+
+        private void write(byte[] b, int off, int len) throws IOException {
+            if (target != null) {
+                target.write(b, off, len);
+                return;
+            }
+            pending.write(b, off, len);
+            if (pending.size() >= minSize) start();
+        }
+
+        /** Past the threshold: pick gzip or identity for the rest of the body. */
+        private void start() throws IOException {
+            int status = delegate.getStatus();
+            boolean compress = status != HttpServletResponse.SC_PARTIAL_CONTENT
+                    && delegate.getHeader(HttpHeaders.CONTENT_ENCODING) == null
+                    && compressible(delegate.getContentType());
+            if (!compress) {
+                if (contentLength >= 0) delegate.setContentLengthLong(contentLength);
+                target = delegate.getOutputStream();
+            } else {
+                delegate.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+                String etag = delegate.getHeader(HttpHeaders.ETAG);
+                boolean strong = etag != null && etag.startsWith("\"");
+                if (strong) delegate.setHeader(HttpHeaders.ETAG, gzipTag(etag));
+
+                // a controller that ignored the kept tag still serializes; at least skip the deflate
+                Precompressed hit = strong ? cached(key) : null;
+                if (hit != null && hit.etag().equals(etag)) {
+                    delegate.setContentLength(hit.body().length);
+                    delegate.getOutputStream().write(hit.body());
+                    target = OutputStream.nullOutputStream();
+                } else {
+                    if (strong) cacheTag = etag;
+                    capture = new CapturingStream(delegate.getOutputStream(), cacheTag != null ? cacheMaxEntryBytes : 0);
+                    gzip = new GZIPOutputStream(capture, 8192, true) {
+                        { def.setLevel(level); }
+                    };
+                    target = gzip;
+                }
+            }
+            pending.writeTo(target);
+            pending.reset();
+        }
+
+        void finish() throws IOException {
+            if (writer != null) writer.flush();
+            if (target == null && kept != null && delegate.getStatus() == HttpServletResponse.SC_NOT_MODIFIED) {
+                // the 304 answers the tag this filter asked about, not the client: send the kept body
+                sendKept();
+                return;
+            }
+            if (target == null) {
+                // ended below the threshold (or no body at all): send it as is
+                if (pending.size() > 0) {
+                    delegate.setContentLength(pending.size());
+                    pending.writeTo(delegate.getOutputStream());
+                } else if (contentLength >= 0) {
+                    delegate.setContentLengthLong(contentLength);
+                }
+                // a 304 answers for the representation the client holds
+                String etag = delegate.getHeader(HttpHeaders.ETAG);
+                if (gzipValidator && delegate.getStatus() == HttpServletResponse.SC_NOT_MODIFIED
+                        && etag != null && etag.startsWith("\"")) {
+                    delegate.setHeader(HttpHeaders.ETAG, gzipTag(etag));
+                }
+                return;
+            }
+            if (gzip != null) {
+                gzip.finish();
+                byte[] body = capture.captured();
+                if (cacheTag != null && body != null) {
+                    store(new Precompressed(key, cacheTag, body, delegate.getContentType(), replayedHeaders()));
+                }
+            }
+            target.flush();
+        }
+
+        private void sendKept() throws IOException {
+            delegate.setStatus(HttpServletResponse.SC_OK);
+            if (kept.contentType() != null) delegate.setContentType(kept.contentType());
+            kept.headers().forEach((name, values) -> {
+                Collection<String> present = delegate.getHeaders(name);
+                for (String v : values) {
+                    if (!present.contains(v)) delegate.addHeader(name, v);
+                }
+            });
+            delegate.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+            delegate.setHeader(HttpHeaders.ETAG, gzipTag(kept.etag()));
+            delegate.setContentLength(kept.body().length);
+            delegate.getOutputStream().write(kept.body());
+            delegate.getOutputStream().flush();
+        }
+
+        private Map<String, List<String>> replayedHeaders() {
+            Map<String, List<String>> headers = new HashMap<>();
+            for (String name : REPLAYED) {
+                Collection<String> values = delegate.getHeaders(name);
+                if (!values.isEmpty()) headers.put(name, List.copyOf(values));
+            }
+            return headers;
+        }
+
+        private static String gzipTag(String etag) {
+            return etag.endsWith(GZIP_SUFFIX) ? etag : etag.substring(0, etag.length() - 1) + GZIP_SUFFIX;
+        }
+
+        private final class Stream extends ServletOutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                GzipResponse.this.write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                GzipResponse.this.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                if (target != null) target.flush();
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            // see the class comment: the body is finished by the filter, not by the write listener
+            @Override
+            public void setWriteListener(WriteListener listener) {
+                throw new IllegalStateException(NON_BLOCKING_UNSUPPORTED);
+            }
+        }
+    }
+
+    /** Passes compressed bytes on and keeps a copy while they fit in a cache entry. */
+    private static final class CapturingStream extends OutputStream {
+
+        private final OutputStream out;
+        private final int limit;
+        private ByteArrayOutputStream copy;
+
+        CapturingStream(OutputStream out, int limit) {
+            this.out = out;
+            this.limit = limit;
+            this.copy = limit > 0 ? new ByteArrayOutputStream() : null;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (copy != null) {
+                if (copy.size() + len > limit) copy = null;
+                else copy.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        byte[] captured() {
+            return copy == null ? null : copy.toByteArray();
+        }
+    }
+}
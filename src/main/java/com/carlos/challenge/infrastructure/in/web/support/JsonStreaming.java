@@ -0,0 +1,42 @@
+package com.carlos.challenge.infrastructure.in.web.support;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a (lazily produced) stream of DTOs straight to the response, either as one JSON array or
+ * as NDJSON, without collecting it first. The source stream is closed once written, so database
+ * cursors behind it are released even if the client goes away mid-response.
+ */
+public final class JsonStreaming {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private JsonStreaming() {}
+
+    public static boolean wantsNdjson(String accept) {
+        return accept != null && accept.contains(APPLICATION_NDJSON_VALUE);
+    }
+
+    public static StreamingResponseBody body(ObjectMapper objectMapper, Stream<?> items, boolean ndjson) {
+        return out -> {
+            try (items; JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+                Iterator<?> it = items.iterator();
+                if (ndjson) {
+                    gen.setRootValueSeparator(null);
+                    while (it.hasNext()) {
+                        gen.writeObject(it.next());
+                        gen.writeRaw('\n');
+                    }
+                } else {
+                    gen.writeStartArray();
+                    while (it.hasNext()) gen.writeObject(it.next());
+                    gen.writeEndArray();
+                }
+            }
+        };
+    }
+}
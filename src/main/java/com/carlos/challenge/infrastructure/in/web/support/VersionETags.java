@@ -0,0 +1,17 @@
+package com.carlos.challenge.infrastructure.in.web.support;
+
+/**
+ * Strong ETags built from data version counters rather than from the response bytes, so they
+ * can be checked before anything is read or serialized. The representation is part of the tag:
+ * the JSON and NDJSON forms of the same listing are different bytes.
+ */
+public final class VersionETags {
+
+    private VersionETags() {}
+
+    public static String of(String resource, boolean ndjson, long... versions) {
+        StringBuilder sb = new StringBuilder(48).append('"').append(resource);
+        for (long v : versions) sb.append('-').append(Long.toHexString(v));
+        return sb.append(ndjson ? "-ndjson" : "-json").append('"').toString();
+    }
+}
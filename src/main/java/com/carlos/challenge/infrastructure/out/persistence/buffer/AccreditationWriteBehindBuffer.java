@@ -0,0 +1,270 @@
+package com.carlos.challenge.infrastructure.out.persistence.buffer;
+
+import com.carlos.challenge.domain.exception.WriteBufferFullException;
+import com.carlos.challenge.domain.model.Accreditation;
+import com.carlos.challenge.domain.model.AccreditationWriteResult;
+import com.carlos.challenge.domain.port.out.AccreditationRepositoryPort;
+import com.carlos.challenge.domain.port.out.AccreditationWriteBufferPort;
+import com.carlos.challenge.infrastructure.config.AccreditationWriteBehindProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded write-behind buffer in front of {@link AccreditationRepositoryPort#saveAll}.
+ * A single flusher thread drains the queue into batches, closing a batch when it is full or
+ * when {@code flush-interval} has passed since its first record. A batch that cannot be written
+ * (store unreachable) is appended to an NDJSON spill file and replayed later; ids are assigned at
+ * enqueue time, so a replay that overlaps an earlier partial write only yields duplicate-key rejections
+ * (from the unique {@code _id} index, or on a time-series collection from the adapter's own id check).
+ * A batch that can be neither written nor spilled stays with the flusher and is retried, holding
+ * back the queue (and so turning new creates into 429s) until the store or the disk recovers.
+ */
+@Component
+@ConditionalOnProperty(prefix = "accreditations.write-behind", name = "enabled", havingValue = "true")
+public class AccreditationWriteBehindBuffer implements AccreditationWriteBufferPort {
+
+    private static final Logger log = LoggerFactory.getLogger(AccreditationWriteBehindBuffer.class);
+
+    public static final String BUFFER_FULL = "Accreditation write buffer is full, retry later";
+    private static final String FLUSH_FAILED_SPILLING = "Flush of {} accreditations failed, spilling to {}: {}";
+    private static final String ITEM_REJECTED = "Accreditation {} rejected by the store: {}";
+    private static final String SPILL_WRITE_FAILED = "Could not spill {} accreditations to {}, keeping them for a retry";
+    private static final String FLUSHER_FAILED = "Accreditation flusher failed, continuing";
+    private static final String LOST_ON_SHUTDOWN = "Shutting down with {} accreditations neither stored nor spilled";
+    private static final String SPILL_REPLAYED = "Replayed {} spilled accreditations from {}";
+    private static final String SPILL_REPLAY_FAILED = "Replay of {} failed, will retry: {}";
+
+    private static final long REPLAY_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final AccreditationRepositoryPort repository;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<Accreditation> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Path spillFile;
+    private final Path replayFile;
+    private final ReentrantLock spillLock = new ReentrantLock();
+
+    private final Timer flushTimer;
+    private final Counter rejected;
+    private final Counter spilled;
+
+    private volatile boolean running;
+    private Thread flusher;
+    private long nextReplayAt;
+
+    public AccreditationWriteBehindBuffer(AccreditationRepositoryPort repository,
+                                          AccreditationWriteBehindProperties props,
+                                          ObjectMapper objectMapper,
+                                          MeterRegistry registry) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(props.getCapacity());
+        this.batchSize = props.getBatchSize();
+        this.flushIntervalNanos = props.getFlushInterval().toNanos();
+        this.spillFile = props.getSpillFile();
+        this.replayFile = spillFile.resolveSibling(spillFile.getFileName() + ".replay");
+
+        Gauge.builder("accreditation.buffer.depth", queue, BlockingQueue::size)
+                .description("Accreditations waiting to be flushed")
+                .register(registry);
+        this.flushTimer = Timer.builder("accreditation.buffer.flush")
+                .description("Batch insert latency of the write-behind flusher")
+                .register(registry);
+        this.rejected = Counter.builder("accreditation.buffer.rejected")
+                .description("Creates refused because the buffer was full")
+                .register(registry);
+        this.spilled = Counter.builder("accreditation.buffer.spilled")
+                .description("Accreditations written to the spill file")
+                .register(registry);
+    }
+
+    @Override
+    public Accreditation enqueue(Accreditation acc) {
+        Accreditation withId = acc.id() != null ? acc
+                : new Accreditation(new ObjectId().toHexString(), acc.amount(), acc.pointOfSaleId(),
+                        acc.pointOfSaleName(), acc.receptionDate());
+        if (!queue.offer(withId)) {
+            rejected.increment();
+            throw new WriteBufferFullException(BUFFER_FULL);
+        }
+        return withId;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        flusher = Thread.ofPlatform().name("accreditation-flusher").daemon().start(this::runFlusher);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            flusher.interrupt();
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    int depth() {
+        return queue.size();
+    }
+
+    private void runFlusher() {
+        List<Accreditation> batch = new ArrayList<>(batchSize);
+        replaySpillIfDue();
+        while (running) {
+            try {
+                if (!batch.isEmpty()) {
+                    // neither stored nor spilled last round: hold on to it and try again
+                    TimeUnit.NANOSECONDS.sleep(REPLAY_BACKOFF_NANOS);
+                    flush(batch);
+                } else if (fillBatch(batch)) {
+                    flush(batch);
+                } else {
+                    replaySpillIfDue();
+                }
+            } catch (InterruptedException e) {
+                break;
+            } catch (RuntimeException e) {
+                log.error(FLUSHER_FAILED, e);
+            }
+        }
+        // shutting down: write out whatever is left (spilled if the store is down)
+        flush(batch);
+        while (batch.isEmpty() && queue.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+        }
+        int lost = batch.size() + queue.size();
+        if (lost > 0) log.error(LOST_ON_SHUTDOWN, lost);
+    }
+
+    private boolean fillBatch(List<Accreditation> batch) throws InterruptedException {
+        Accreditation first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) return false;
+        batch.add(first);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) break;
+            Accreditation next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) break;
+            batch.add(next);
+        }
+        return true;
+    }
+
+    private void flush(List<Accreditation> batch) {
+        if (batch.isEmpty()) return;
+        long start = System.nanoTime();
+        try {
+            for (AccreditationWriteResult r : repository.saveAll(batch)) {
+                if (!r.isStored()) log.warn(ITEM_REJECTED, batch.get(r.index()).id(), r.error());
+            }
+            batch.clear();
+            replaySpillIfDue();
+        } catch (RuntimeException ex) {
+            // not only DataAccessException: whatever the store throws, these were already answered with 202
+            log.warn(FLUSH_FAILED_SPILLING, batch.size(), spillFile, ex.getMessage());
+            if (spill(batch)) batch.clear();
+            nextReplayAt = System.nanoTime() + REPLAY_BACKOFF_NANOS;
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean spill(List<Accreditation> batch) {
+        spillLock.lock();
+        try {
+            Path dir = spillFile.toAbsolutePath().getParent();
+            if (dir != null) Files.createDirectories(dir);
+            try (BufferedWriter w = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (Accreditation acc : batch) {
+                    w.write(objectMapper.writeValueAsString(acc));
+                    w.newLine();
+                }
+            }
+            spilled.increment(batch.size());
+            return true;
+        } catch (IOException e) {
+            log.error(SPILL_WRITE_FAILED, batch.size(), spillFile, e);
+            return false;
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    // runs on the flusher thread only; the lock just keeps the spill -> replay rename
+    // from racing an append
+    private void replaySpillIfDue() {
+        if (System.nanoTime() - nextReplayAt < 0) return;
+        spillLock.lock();
+        try {
+            if (!Files.exists(replayFile)) {
+                if (!Files.exists(spillFile)) return;
+                Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            log.error(SPILL_REPLAY_FAILED, spillFile, e.getMessage());
+            return;
+        } finally {
+            spillLock.unlock();
+        }
+
+        int replayed = 0;
+        List<Accreditation> batch = new ArrayList<>(batchSize);
+        try (BufferedReader r = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                if (line.isBlank()) continue;
+                batch.add(objectMapper.readValue(line, Accreditation.class));
+                if (batch.size() == batchSize) {
+                    repository.saveAll(batch);
+                    replayed += batch.size();
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                repository.saveAll(batch);
+                replayed += batch.size();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn(SPILL_REPLAY_FAILED, replayFile, e.getMessage());
+            nextReplayAt = System.nanoTime() + REPLAY_BACKOFF_NANOS;
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(replayFile);
+        } catch (IOException e) {
+            log.warn(SPILL_REPLAY_FAILED, replayFile, e.getMessage());
+        }
+        log.info(SPILL_REPLAYED, replayed, replayFile);
+    }
+}
@@ -2,13 +2,25 @@ package com.carlos.challenge.infrastructure.out.persistence.cache.adapter;
 
 import com.carlos.challenge.domain.model.PointOfSale;
 import com.carlos.challenge.domain.port.out.PointOfSaleRepositoryPort;
+import com.carlos.challenge.infrastructure.support.IdOrCode;
+import com.carlos.challenge.infrastructure.out.persistence.cache.index.IntCodeIndex;
+import com.carlos.challenge.infrastructure.out.persistence.sequence.BlockCodeAllocator;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.StampedLock;
-
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory store without a global lock. Writes on the same id are serialized by
+ * a lock stripe, code uniqueness across ids is enforced with {@code putIfAbsent}
+ * on the code index, and readers never block: an index hit is only trusted when
+ * the record in {@code byId} still carries that code/name, so a half-applied
+ * write is seen as "not there yet" instead of as an inconsistent result.
+ */
 @Profile("!redis")
 @Component
 public class PointOfSaleCacheAdapter implements PointOfSaleRepositoryPort {
@@ -17,75 +29,48 @@ public class PointOfSaleCacheAdapter implements PointOfSaleRepositoryPort {
     public static final String INVALID_ID_CODE_FORMAT = "Invalid id/code format: ";
     public static final String POINT_OF_SALE_NOT_FOUND_FOR_CODE = "PointOfSale not found for code: ";
     public static final String POINT_OF_SALE_CODE_ALREADY_IN_USE = "PointOfSale code already in use: ";
+    private static final int STRIPES = 64;
+
     private final Map<String, PointOfSale> byId = new ConcurrentHashMap<>();
-    private final Map<Integer, String> idByCode = new ConcurrentHashMap<>();
+    private final IntCodeIndex idByCode = new IntCodeIndex();
     private final Map<String, String> idByName = new ConcurrentHashMap<>();
     private final AtomicInteger codeSeq = new AtomicInteger(1);
+    // seeded from the clock: a restart empties the store and must not hand out an old version again
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis() << 20);
+    private final BlockCodeAllocator codes =
+            new BlockCodeAllocator(codeSeq::getAndAdd, BlockCodeAllocator.DEFAULT_BLOCK_SIZE);
 
-    private final StampedLock lock = new StampedLock();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public PointOfSaleCacheAdapter() {
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+    }
 
     @Override
     public List<PointOfSale> findAll() {
-        long stamp = lock.tryOptimisticRead();
-        List<PointOfSale> snapshot = new ArrayList<>(byId.values());
-        if (!lock.validate(stamp)) {
-            stamp = lock.readLock();
-            try {
-                snapshot = new ArrayList<>(byId.values());
-            } finally {
-                lock.unlockRead(stamp);
-            }
-        }
-        return snapshot;
+        return new ArrayList<>(byId.values());
+    }
+
+    @Override
+    public Stream<PointOfSale> stream() {
+        return byId.values().stream();
     }
 
     @Override
     public Optional<PointOfSale> findById(String id) {
-        long stamp = lock.tryOptimisticRead();
-        PointOfSale pos = byId.get(id);
-        if (!lock.validate(stamp)) {
-            stamp = lock.readLock();
-            try {
-                pos = byId.get(id);
-            } finally {
-                lock.unlockRead(stamp);
-            }
-        }
-        return Optional.ofNullable(pos);
+        return Optional.ofNullable(byId.get(id));
     }
 
     @Override
     public Optional<PointOfSale> findByName(String name) {
-        long stamp = lock.tryOptimisticRead();
         String id = idByName.get(name);
         PointOfSale pos = (id == null) ? null : byId.get(id);
-        if (!lock.validate(stamp)) {
-            stamp = lock.readLock();
-            try {
-                id = idByName.get(name);
-                pos = (id == null) ? null : byId.get(id);
-            } finally {
-                lock.unlockRead(stamp);
-            }
-        }
-        return Optional.ofNullable(pos);
+        return (pos != null && name.equals(pos.name())) ? Optional.of(pos) : Optional.empty();
     }
 
     @Override
     public Optional<PointOfSale> findByCode(Integer code) {
-        long stamp = lock.tryOptimisticRead();
-        String id = idByCode.get(code);
-        PointOfSale pos = (id == null) ? null : byId.get(id);
-        if (!lock.validate(stamp)) {
-            stamp = lock.readLock();
-            try {
-                id = idByCode.get(code);
-                pos = (id == null) ? null : byId.get(id);
-            } finally {
-                lock.unlockRead(stamp);
-            }
-        }
-        return Optional.ofNullable(pos);
+        return code == null ? Optional.empty() : Optional.ofNullable(byCode(code));
     }
 
     @Override
@@ -93,90 +78,105 @@ public class PointOfSaleCacheAdapter implements PointOfSaleRepositoryPort {
         if (idOrCode == null || idOrCode.isBlank()) {
             throw new IllegalArgumentException(EMPTY_ID_CODE);
         }
-        if (isUuid(idOrCode)) return idOrCode;
+        if (IdOrCode.isUuid(idOrCode)) return idOrCode;
 
-        final int code;
-        try {
-            code = Integer.parseInt(idOrCode.trim());
-        } catch (NumberFormatException e) {
+        long parsed = IdOrCode.parseCode(idOrCode);
+        if (parsed == IdOrCode.NOT_A_CODE) {
             throw new IllegalArgumentException(INVALID_ID_CODE_FORMAT + idOrCode);
         }
+        final int code = (int) parsed;
 
-        long stamp = lock.tryOptimisticRead();
-        String id = idByCode.get(code);
-        if (!lock.validate(stamp)) {
-            stamp = lock.readLock();
-            try {
-                id = idByCode.get(code);
-            } finally {
-                lock.unlockRead(stamp);
-            }
-        }
-        if (id == null) throw new NoSuchElementException(POINT_OF_SALE_NOT_FOUND_FOR_CODE + code);
-        return id;
+        PointOfSale pos = byCode(code);
+        if (pos == null) throw new NoSuchElementException(POINT_OF_SALE_NOT_FOUND_FOR_CODE + code);
+        return pos.id();
     }
 
-
     @Override
     public PointOfSale save(PointOfSale point) {
-        long stamp = lock.writeLock();
+        String id = (point.id() == null || point.id().isBlank())
+                ? UUID.randomUUID().toString()
+                : point.id();
+
+        ReentrantLock stripe = stripeFor(id);
+        stripe.lock();
         try {
-            String id = (point.id() == null || point.id().isBlank())
-                    ? UUID.randomUUID().toString()
-                    : point.id();
+            PointOfSale previous = byId.get(id);
 
             Integer code = point.code();
             if (code == null) {
-                code = nextAvailableCodeNoLock();
-            } else {
-                String existingIdForCode = idByCode.get(code);
-                if (existingIdForCode != null && !existingIdForCode.equals(id)) {
-                    throw new IllegalArgumentException(POINT_OF_SALE_CODE_ALREADY_IN_USE + code);
-                }
+                code = claimNextCode(id);
+            } else if (previous == null || !code.equals(previous.code())) {
+                claimCode(code, id);
             }
 
             PointOfSale stored = new PointOfSale(id, point.name(), code);
+            byId.put(id, stored);
 
-
-            PointOfSale previous = byId.put(id, stored);
             if (previous != null) {
-                if (previous.code() != null) idByCode.remove(previous.code());
-                if (previous.name() != null) idByName.remove(previous.name());
+                if (previous.code() != null && !previous.code().equals(code)) {
+                    idByCode.remove(previous.code(), id);
+                    codes.release(previous.code());
+                }
+                if (previous.name() != null && !previous.name().equals(stored.name())) {
+                    idByName.remove(previous.name(), id);
+                }
             }
-
-            if (stored.code() != null) idByCode.put(stored.code(), id);
             if (stored.name() != null) idByName.put(stored.name(), id);
 
+            version.incrementAndGet();
             return stored;
         } finally {
-            lock.unlockWrite(stamp);
+            stripe.unlock();
         }
     }
 
     @Override
     public void deleteById(String id) {
-        long stamp = lock.writeLock();
+        ReentrantLock stripe = stripeFor(id);
+        stripe.lock();
         try {
             PointOfSale removed = byId.remove(id);
             if (removed != null) {
-                if (removed.code() != null) idByCode.remove(removed.code());
-                if (removed.name() != null) idByName.remove(removed.name());
+                if (removed.code() != null) {
+                    idByCode.remove(removed.code(), id);
+                    codes.release(removed.code());
+                }
+                if (removed.name() != null) idByName.remove(removed.name(), id);
+                version.incrementAndGet();
             }
         } finally {
-            lock.unlockWrite(stamp);
+            stripe.unlock();
+        }
+    }
+
+    @Override
+    public long version() {
+        return version.get();
+    }
+
+    private PointOfSale byCode(int code) {
+        String id = idByCode.get(code);
+        PointOfSale pos = (id == null) ? null : byId.get(id);
+        return (pos != null && pos.code() != null && pos.code() == code) ? pos : null;
+    }
+
+    private void claimCode(int code, String id) {
+        String owner = idByCode.putIfAbsent(code, id);
+        if (owner != null && !owner.equals(id)) {
+            throw new IllegalArgumentException(POINT_OF_SALE_CODE_ALREADY_IN_USE + code);
         }
+        codes.markUsed(code);
     }
 
-    private int nextAvailableCodeNoLock() {
-        int c;
-        do {
-            c = codeSeq.getAndIncrement();
-        } while (idByCode.containsKey(c));
-        return c;
+    private int claimNextCode(String id) {
+        while (true) {
+            int c = codes.next();
+            if (idByCode.putIfAbsent(c, id) == null) return c;
+        }
     }
 
-    private static boolean isUuid(String s) {
-        try { UUID.fromString(s); return true; }
-        catch (Exception e) { return false; }
+    private ReentrantLock stripeFor(String id) {
+        int h = id.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+package com.carlos.challenge.infrastructure.out.persistence.cache.index;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Concurrent code -> id index keyed by primitive {@code int}. Codes handed out by the
+ * sequence are dense and small, so they live in lazily allocated pages of a flat array
+ * (one reference per code, no boxing, no hash nodes). Codes outside that range
+ * (negative or very large explicit codes) fall back to a regular map.
+ */
+public final class IntCodeIndex {
+
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    static final int DENSE_LIMIT = 1 << 24;
+
+    private final AtomicReferenceArray<AtomicReferenceArray<String>> pages =
+            new AtomicReferenceArray<>(DENSE_LIMIT >>> PAGE_BITS);
+    private final Map<Integer, String> sparse = new ConcurrentHashMap<>();
+
+    public String get(int code) {
+        if (!isDense(code)) return sparse.get(code);
+        AtomicReferenceArray<String> page = pages.get(code >>> PAGE_BITS);
+        return page == null ? null : page.get(code & PAGE_MASK);
+    }
+
+    /** @return the id already mapped to {@code code}, or {@code null} if {@code id} was stored */
+    public String putIfAbsent(int code, String id) {
+        if (!isDense(code)) return sparse.putIfAbsent(code, id);
+        AtomicReferenceArray<String> page = pageFor(code);
+        int slot = code & PAGE_MASK;
+        while (true) {
+            if (page.compareAndSet(slot, null, id)) return null;
+            String existing = page.get(slot);
+            if (existing != null) return existing;
+        }
+    }
+
+    public boolean remove(int code, String id) {
+        if (!isDense(code)) return sparse.remove(code, id);
+        AtomicReferenceArray<String> page = pages.get(code >>> PAGE_BITS);
+        if (page == null) return false;
+        int slot = code & PAGE_MASK;
+        String current = page.get(slot);
+        // ids are compared by value, the CAS needs the exact instance stored
+        return current != null && current.equals(id) && page.compareAndSet(slot, current, null);
+    }
+
+    private AtomicReferenceArray<String> pageFor(int code) {
+        int idx = code >>> PAGE_BITS;
+        AtomicReferenceArray<String> page = pages.get(idx);
+        if (page == null) {
+            AtomicReferenceArray<String> fresh = new AtomicReferenceArray<>(PAGE_SIZE);
+            page = pages.compareAndSet(idx, null, fresh) ? fresh : pages.get(idx);
+        }
+        return page;
+    }
+
+    private static boolean isDense(int code) {
+        return code >= 0 && code < DENSE_LIMIT;
+    }
+}
@@ -0,0 +1,236 @@
+package com.carlos.challenge.infrastructure.out.persistence.mongo.adapter;
+
+import com.carlos.challenge.domain.model.AccreditationDailyTotal;
+import com.carlos.challenge.infrastructure.config.AccreditationRetentionProperties;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.entity.AccreditationDailyTotalDocument;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.entity.AccreditationDocument;
+import com.mongodb.MongoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains {@link AccreditationDailyTotalDocument} next to the accreditation writes. Deltas of a
+ * batch are folded per (POS, day) first, so a batch costs one upsert per distinct pair. The rollup
+ * is not written in the same transaction as the accreditations: a failed increment is counted in
+ * {@code accreditation.daily_totals.failed} and its (POS, day) rows are recomputed from the
+ * accreditations by {@link #repairStale()} once their day has closed; {@link #rebuild()} recomputes
+ * every closed day.
+ */
+@Component
+public class AccreditationDailyTotalsStore {
+
+    private static final Logger log = LoggerFactory.getLogger(AccreditationDailyTotalsStore.class);
+
+    private static final String ROLLUP_UPDATE_FAILED = "Daily totals not updated for {} accreditations, {} rows queued for repair: {}";
+    private static final String ROW_REPAIRED = "Daily totals row {} recomputed after a failed update";
+    private static final String ROW_ARCHIVED = "Daily totals row {} missed an update but its month is archived; left as it is";
+    private static final String ROW_REPAIR_FAILED = "Daily totals row {} could not be recomputed, will retry: {}";
+    private static final String REBUILT = "Daily totals rebuilt for days before {}; {} stale rows removed";
+    private static final String REBUILD_RUN = "rebuildRun";
+
+    private final MongoTemplate mongoTemplate;
+    private final AccreditationRetentionProperties retention;
+    private final Counter failed;
+    // ids of rows that missed an increment on this node; lost on restart, like the increment itself
+    private final Set<String> staleRows = ConcurrentHashMap.newKeySet();
+
+    public AccreditationDailyTotalsStore(MongoTemplate mongoTemplate, AccreditationRetentionProperties retention,
+                                         MeterRegistry registry) {
+        this.mongoTemplate = mongoTemplate;
+        this.retention = retention;
+        this.failed = Counter.builder("accreditation.daily_totals.failed")
+                .description("Daily totals rows that missed an increment and wait for a recompute")
+                .register(registry);
+        Gauge.builder("accreditation.daily_totals.stale", staleRows, Set::size)
+                .description("Daily totals rows waiting for a recompute")
+                .register(registry);
+    }
+
+    public void add(Collection<AccreditationDocument> docs) {
+        apply(docs, 1);
+    }
+
+    public void subtract(AccreditationDocument doc) {
+        apply(List.of(doc), -1);
+    }
+
+    /** Queues a (POS, day) row whose increment failed for {@link #repairStale()}. */
+    public void markStale(String pointOfSaleId, String day) {
+        if (staleRows.add(AccreditationDailyTotalDocument.idOf(pointOfSaleId, day))) failed.increment();
+    }
+
+    /**
+     * Recomputes the rows queued by failed increments. Like {@link #rebuild()}, a row is only
+     * replaced once its day has closed, so the current day's rows wait for the first run after
+     * midnight UTC; rows of archived months have nothing left to recompute from and are dropped
+     * from the queue.
+     */
+    @Scheduled(fixedDelayString = "${accreditations.daily-totals.repair-interval:PT1M}")
+    public void repairStale() {
+        String today = dayOf(Instant.now());
+        String firstKept = retention.isEnabled() ? retention.firstKeptMonth().atDay(1).toString() : null;
+        for (String id : staleRows) {
+            String day = id.substring(id.lastIndexOf(':') + 1);
+            if (day.compareTo(today) >= 0) continue;
+            if (firstKept != null && day.compareTo(firstKept) < 0) {
+                staleRows.remove(id);
+                log.warn(ROW_ARCHIVED, id);
+                continue;
+            }
+            // dequeued first: an increment of the row failing while it is recomputed queues it again
+            staleRows.remove(id);
+            try {
+                String pointOfSaleId = id.substring(0, id.lastIndexOf(':'));
+                Instant start = LocalDate.parse(day).atStartOfDay(ZoneOffset.UTC).toInstant();
+                recompute(Criteria.where("pointOfSaleId").is(pointOfSaleId)
+                                .and("receptionDate").gte(Date.from(start)).lt(Date.from(start.plus(1, ChronoUnit.DAYS))),
+                        Criteria.where("_id").is(id));
+                log.info(ROW_REPAIRED, id);
+            } catch (DataAccessException | MongoException ex) {
+                staleRows.add(id);
+                log.warn(ROW_REPAIR_FAILED, id, ex.getMessage());
+            }
+        }
+    }
+
+    public List<AccreditationDailyTotal> find(String pointOfSaleId, LocalDate from, LocalDate to) {
+        Criteria criteria = (pointOfSaleId == null ? new Criteria() : Criteria.where("pointOfSaleId").is(pointOfSaleId))
+                .and("day").gte(from.toString()).lte(to.toString());
+        Query query = Query.query(criteria).with(Sort.by("day", "pointOfSaleId"));
+        return mongoTemplate.find(query, AccreditationDailyTotalDocument.class).stream()
+                .map(d -> new AccreditationDailyTotal(d.getPointOfSaleId(), LocalDate.parse(d.getDay()), d.getTotal(), d.getCount()))
+                .toList();
+    }
+
+    /**
+     * Recomputes the (POS, day) totals of every day before the current UTC one and {@code $merge}s
+     * them row by row; rows of those days the aggregation did not produce (no accreditations left)
+     * are removed afterwards. The current day keeps receiving increments while the aggregation
+     * runs, and replacing its rows would drop those, so it is left alone until it has closed.
+     * With retention enabled only the months still kept in Mongo are recomputed: the rows of archived
+     * months are the only record of their totals.
+     */
+    public void rebuild() {
+        String today = dayOf(Instant.now());
+        Criteria closedDays = Criteria.where("receptionDate");
+        Criteria rows = Criteria.where("day");
+        if (retention.isEnabled()) {
+            LocalDate firstKept = retention.firstKeptMonth().atDay(1);
+            closedDays.gte(Date.from(firstKept.atStartOfDay(ZoneOffset.UTC).toInstant()));
+            rows.gte(firstKept.toString());
+        }
+        closedDays.lt(Date.from(LocalDate.parse(today).atStartOfDay(ZoneOffset.UTC).toInstant()));
+        rows.lt(today);
+        List<String> covered = staleRows.stream()
+                .filter(id -> id.substring(id.lastIndexOf(':') + 1).compareTo(today) < 0)
+                .toList();
+        long stale = recompute(closedDays, rows);
+        covered.forEach(staleRows::remove);
+        log.info(REBUILT, today, stale);
+    }
+
+    // $merges the totals of the accreditations matching `accreditations` over their rows, then removes
+    // the rows matching `rows` the aggregation did not produce; returns how many were removed
+    private long recompute(Criteria accreditations, Criteria rows) {
+        String run = new ObjectId().toHexString();
+        List<Document> pipeline = List.of(
+                new Document("$match", accreditations.getCriteriaObject()),
+                new Document("$group", new Document("_id", new Document("p", "$pointOfSaleId")
+                        .append("d", new Document("$dateToString", new Document("format", "%Y-%m-%d")
+                                .append("date", "$receptionDate").append("timezone", "UTC"))))
+                        .append("total", new Document("$sum", new Document("$toDecimal", "$amount")))
+                        .append("count", new Document("$sum", 1L))),
+                new Document("$project", new Document("_id", new Document("$concat", List.of("$_id.p", ":", "$_id.d")))
+                        .append("pointOfSaleId", "$_id.p")
+                        .append("day", "$_id.d")
+                        .append("total", 1)
+                        .append("count", 1)
+                        .append(REBUILD_RUN, run)),
+                new Document("$merge", new Document("into", AccreditationDailyTotalDocument.COLLECTION)
+                        .append("on", "_id")
+                        .append("whenMatched", "replace")
+                        .append("whenNotMatched", "insert")));
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(AccreditationDocument.class))
+                .aggregate(pipeline)
+                .allowDiskUse(true)
+                .toCollection();
+
+        return mongoTemplate.remove(Query.query(rows.and(REBUILD_RUN).ne(run)), AccreditationDailyTotalDocument.class)
+                .getDeletedCount();
+    }
+
+    private void apply(Collection<AccreditationDocument> docs, int sign) {
+        if (docs.isEmpty()) return;
+        Map<String, Delta> deltas = new LinkedHashMap<>();
+        for (AccreditationDocument doc : docs) {
+            String day = dayOf(doc.getReceptionDate());
+            BigDecimal amount = doc.getAmount() == null ? BigDecimal.ZERO : doc.getAmount();
+            deltas.computeIfAbsent(AccreditationDailyTotalDocument.idOf(doc.getPointOfSaleId(), day),
+                            k -> new Delta(doc.getPointOfSaleId(), day))
+                    .add(sign > 0 ? amount : amount.negate(), sign);
+        }
+
+        try {
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AccreditationDailyTotalDocument.class);
+            deltas.forEach((id, d) -> ops.upsert(
+                    Query.query(Criteria.where("_id").is(id)),
+                    new Update()
+                            .setOnInsert("pointOfSaleId", d.pointOfSaleId)
+                            .setOnInsert("day", d.day)
+                            .inc("total", new Decimal128(d.total))
+                            .inc("count", d.count)));
+            ops.execute();
+        } catch (DataAccessException ex) {
+            deltas.values().forEach(d -> markStale(d.pointOfSaleId, d.day));
+            log.warn(ROLLUP_UPDATE_FAILED, docs.size(), deltas.size(), ex.getMessage());
+        }
+    }
+
+    private static String dayOf(Instant instant) {
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC).toString();
+    }
+
+    private static final class Delta {
+        final String pointOfSaleId;
+        final String day;
+        BigDecimal total = BigDecimal.ZERO;
+        long count;
+
+        Delta(String pointOfSaleId, String day) {
+            this.pointOfSaleId = pointOfSaleId;
+            this.day = day;
+        }
+
+        void add(BigDecimal amount, int n) {
+            total = total.add(amount);
+            count += n;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.carlos.challenge.infrastructure.out.persistence.mongo.adapter;
+
+import com.carlos.challenge.domain.model.Accreditation;
+import com.carlos.challenge.domain.model.IdempotencyClaim;
+import com.carlos.challenge.domain.port.out.AccreditationIdempotencyPort;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.entity.AccreditationIdempotencyDocument;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.Instant;
+
+import static com.carlos.challenge.infrastructure.out.persistence.mongo.entity.AccreditationIdempotencyDocument.PENDING;
+import static com.carlos.challenge.infrastructure.out.persistence.mongo.entity.AccreditationIdempotencyDocument.STORED;
+
+@Component
+public class AccreditationIdempotencyMongoAdapter implements AccreditationIdempotencyPort {
+
+    // a claim can expire between the failed insert and the read; one more insert settles it
+    private static final int ATTEMPTS = 2;
+    // a store takes milliseconds; a claim pending for this long belongs to a request that died
+    static final Duration PENDING_TAKEOVER_AFTER = Duration.ofSeconds(10);
+
+    private final MongoTemplate mongoTemplate;
+
+    public AccreditationIdempotencyMongoAdapter(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public IdempotencyClaim claim(String key, Accreditation draft) {
+        Accreditation acc = draft.id() != null ? draft
+                : new Accreditation(new ObjectId().toHexString(), draft.amount(), draft.pointOfSaleId(),
+                        draft.pointOfSaleName(), draft.receptionDate());
+        for (int attempt = 1; ; attempt++) {
+            Instant now = Instant.now();
+            try {
+                mongoTemplate.insert(new AccreditationIdempotencyDocument(key, acc.id(), acc.amount(),
+                        acc.pointOfSaleId(), acc.pointOfSaleName(), acc.receptionDate(), PENDING, now));
+                return new IdempotencyClaim(acc, IdempotencyClaim.State.ACQUIRED);
+            } catch (DuplicateKeyException ex) {
+                AccreditationIdempotencyDocument stale = takeOverStale(key, now);
+                if (stale != null) return new IdempotencyClaim(toAccreditation(stale), IdempotencyClaim.State.RECLAIMED);
+
+                AccreditationIdempotencyDocument existing = mongoTemplate.findById(key, AccreditationIdempotencyDocument.class);
+                if (existing != null) {
+                    IdempotencyClaim.State state = PENDING.equals(existing.getState())
+                            ? IdempotencyClaim.State.PENDING : IdempotencyClaim.State.STORED;
+                    return new IdempotencyClaim(toAccreditation(existing), state);
+                }
+                if (attempt == ATTEMPTS) throw ex;
+            }
+        }
+    }
+
+    @Override
+    public void markStored(String key) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(key)),
+                Update.update("state", STORED), AccreditationIdempotencyDocument.class);
+    }
+
+    @Override
+    public void release(String key) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(key).and("state").is(PENDING)),
+                AccreditationIdempotencyDocument.class);
+    }
+
+    // keeps the recorded accreditation and its id, so the new owner can tell whether the first
+    // owner's store landed before it died and a late write of it cannot add a second one
+    private AccreditationIdempotencyDocument takeOverStale(String key, Instant now) {
+        Query stale = Query.query(Criteria.where("_id").is(key)
+                .and("state").is(PENDING)
+                .and("claimedAt").lt(now.minus(PENDING_TAKEOVER_AFTER)));
+        return mongoTemplate.findAndModify(stale, Update.update("claimedAt", now),
+                FindAndModifyOptions.options().returnNew(true), AccreditationIdempotencyDocument.class);
+    }
+
+    private static Accreditation toAccreditation(AccreditationIdempotencyDocument doc) {
+        return new Accreditation(doc.getAccreditationId(), doc.getAmount(), doc.getPointOfSaleId(),
+                doc.getPointOfSaleName(), doc.getReceptionDate());
+    }
+}
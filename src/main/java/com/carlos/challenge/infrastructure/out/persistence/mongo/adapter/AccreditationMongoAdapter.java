@@ -1,38 +1,202 @@
 package com.carlos.challenge.infrastructure.out.persistence.mongo.adapter;
 
 import com.carlos.challenge.domain.model.Accreditation;
+import com.carlos.challenge.domain.model.AccreditationAggregate;
+import com.carlos.challenge.domain.model.AccreditationAggregateQuery;
+import com.carlos.challenge.domain.model.AccreditationDailyTotal;
+import com.carlos.challenge.domain.model.AccreditationField;
+import com.carlos.challenge.domain.model.AccreditationKey;
+import com.carlos.challenge.domain.model.AccreditationSliceQuery;
+import com.carlos.challenge.domain.model.AccreditationSummary;
+import com.carlos.challenge.domain.model.AccreditationWriteResult;
+import com.carlos.challenge.domain.model.TimeBucket;
 import com.carlos.challenge.domain.port.out.AccreditationRepositoryPort;
+import com.carlos.challenge.infrastructure.config.AccreditationStorageProperties;
 import com.carlos.challenge.infrastructure.out.persistence.mongo.entity.AccreditationDocument;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.entity.AccreditationSummaryView;
 import com.carlos.challenge.infrastructure.out.persistence.mongo.mapper.AccreditationMongoMapper;
 import com.carlos.challenge.infrastructure.out.persistence.mongo.repository.AccreditationMongoRepository;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
+import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Component
 @RequiredArgsConstructor
 public class AccreditationMongoAdapter implements AccreditationRepositoryPort {
 
+    static final String POS_DATE_ID_IDX = "pos_date_id_idx";
+    private static final String DUPLICATE_ID = "duplicate key: an accreditation with _id already exists: ";
+    private static final int AGGREGATE_BATCH_SIZE = 1_000;
+    // large batches keep round trips down on full-range exports; documents are small
+    private static final int EXPORT_BATCH_SIZE = 5_000;
+
     private final AccreditationMongoRepository repository;
     private final AccreditationMongoMapper mapper;
+    private final MongoTemplate mongoTemplate;
+    private final AccreditationDailyTotalsStore dailyTotals;
+    private final AccreditationStorageProperties storage;
 
     @Override
     public Accreditation save(Accreditation accreditation) {
         AccreditationDocument saved = repository.save(mapper.toDocument(accreditation));
+        dailyTotals.add(List.of(saved));
         return mapper.toDomain(saved);
     }
 
+    @Override
+    public List<AccreditationWriteResult> saveAll(List<Accreditation> accreditations) {
+        if (accreditations.isEmpty()) return List.of();
+
+        // ids are assigned client-side so every item can be reported even if the batch partly fails
+        List<AccreditationDocument> docs = new ArrayList<>(accreditations.size());
+        for (Accreditation acc : accreditations) {
+            AccreditationDocument doc = mapper.toDocument(acc);
+            if (doc.getId() == null) doc.setId(new ObjectId().toHexString());
+            docs.add(doc);
+        }
+
+        Map<Integer, String> failed = new HashMap<>();
+        List<AccreditationDocument> pending = docs;
+        int[] positions = null;
+        if (storage.isTimeSeries()) {
+            rejectStoredIds(docs, failed);
+            if (!failed.isEmpty()) {
+                pending = new ArrayList<>(docs.size() - failed.size());
+                positions = new int[docs.size() - failed.size()];
+                for (int i = 0; i < docs.size(); i++) {
+                    if (failed.containsKey(i)) continue;
+                    positions[pending.size()] = i;
+                    pending.add(docs.get(i));
+                }
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AccreditationDocument.class)
+                        .insert(pending)
+                        .execute();
+            } catch (DataAccessException ex) {
+                MongoBulkWriteException bulk = bulkWriteCause(ex);
+                if (bulk == null || bulk.getWriteErrors().isEmpty()) throw ex;
+                for (BulkWriteError err : bulk.getWriteErrors()) {
+                    failed.put(positions == null ? err.getIndex() : positions[err.getIndex()], err.getMessage());
+                }
+            }
+        }
+
+        List<AccreditationWriteResult> results = new ArrayList<>(docs.size());
+        List<AccreditationDocument> stored = failed.isEmpty() ? docs : new ArrayList<>(docs.size());
+        for (int i = 0; i < docs.size(); i++) {
+            String error = failed.get(i);
+            if (error == null) {
+                results.add(AccreditationWriteResult.stored(i, docs.get(i).getId()));
+                if (stored != docs) stored.add(docs.get(i));
+            } else {
+                results.add(AccreditationWriteResult.rejected(i, error));
+            }
+        }
+        dailyTotals.add(stored);
+        return results;
+    }
+
+    // a time-series collection has no unique index on _id, so the duplicate-key rejection a regular
+    // collection gives (and write-behind replays rely on) is done here: ids repeated in the batch or
+    // already stored are rejected. The lookup is bounded by the batch's POS ids and time range, which
+    // the time-series buckets are organised by. Not atomic: two writers inserting the same id at the
+    // same moment both get through, which only the single-threaded replay of one node avoids
+    private void rejectStoredIds(List<AccreditationDocument> docs, Map<Integer, String> failed) {
+        Set<String> posIds = new HashSet<>();
+        Instant from = null, to = null;
+        for (AccreditationDocument doc : docs) {
+            posIds.add(doc.getPointOfSaleId());
+            Instant at = doc.getReceptionDate();
+            if (at == null) continue;
+            if (from == null || at.isBefore(from)) from = at;
+            if (to == null || at.isAfter(to)) to = at;
+        }
+
+        Set<String> seen = new HashSet<>();
+        if (from != null) {
+            Query stored = Query.query(Criteria.where("pointOfSaleId").in(posIds)
+                    .and("receptionDate").gte(from).lte(to)
+                    .and("_id").in(docs.stream().map(AccreditationDocument::getId).toList()));
+            stored.fields().include("_id");
+            for (AccreditationDocument doc : mongoTemplate.find(stored, AccreditationDocument.class)) {
+                seen.add(doc.getId());
+            }
+        }
+        for (int i = 0; i < docs.size(); i++) {
+            if (!seen.add(docs.get(i).getId())) failed.put(i, DUPLICATE_ID + docs.get(i).getId());
+        }
+    }
+
     @Override
     public Optional<Accreditation> findById(String id) {
         return repository.findById(id).map(mapper::toDomain);
     }
 
+    @Override
+    public long updatePointOfSaleName(String pointOfSaleId, String pointOfSaleName) {
+        Query query = Query.query(Criteria.where("pointOfSaleId").is(pointOfSaleId)
+                .and("pointOfSaleName").ne(pointOfSaleName));
+        return mongoTemplate.updateMulti(query, Update.update("pointOfSaleName", pointOfSaleName), AccreditationDocument.class)
+                .getModifiedCount();
+    }
+
     @Override
     public void deleteById(String id) {
-        repository.deleteById(id);
+        // find + remove instead of findAndRemove: time-series collections do not support findAndModify.
+        // Only the caller whose remove actually deleted the document adjusts the rollup, once per copy
+        // deleted (a time-series collection can hold several documents with the same _id).
+        Query byId = Query.query(Criteria.where("_id").is(id));
+        List<AccreditationDocument> copies = mongoTemplate.find(byId, AccreditationDocument.class);
+        if (copies.isEmpty()) return;
+        long deleted = mongoTemplate.remove(byId, AccreditationDocument.class).getDeletedCount();
+        for (int i = 0; i < Math.min(deleted, copies.size()); i++) {
+            dailyTotals.subtract(copies.get(i));
+        }
+    }
+
+    @Override
+    public List<AccreditationDailyTotal> findDailyTotals(String pointOfSaleId, LocalDate from, LocalDate to) {
+        return dailyTotals.find(pointOfSaleId, from, to);
+    }
+
+    @Override
+    public void rebuildDailyTotals() {
+        dailyTotals.rebuild();
     }
 
     @Override
@@ -55,4 +219,148 @@ public class AccreditationMongoAdapter implements AccreditationRepositoryPort {
         return repository.findByPointOfSaleIdAndReceptionDateBetween(pointOfSaleId, from, to, pageable)
                 .map(mapper::toDomain);
     }
+
+    @Override
+    public Slice<AccreditationSummary> findSummaries(AccreditationSliceQuery q) {
+        List<AccreditationSummaryView> views = mongoTemplate.query(AccreditationDocument.class)
+                .as(AccreditationSummaryView.class)
+                .matching(summariesQuery(q))
+                .all();
+        boolean hasNext = views.size() > q.size();
+        List<AccreditationSummary> content = (hasNext ? views.subList(0, q.size()) : views).stream()
+                .map(mapper::toSummary)
+                .toList();
+        return new SliceImpl<>(content, PageRequest.ofSize(q.size()), hasNext);
+    }
+
+    /**
+     * Filter, projection and sort only touch {@code pos_date_id_idx} keys, so the slice is answered
+     * from the index alone. The seek is a top-level $or whose branches both carry the POS and date
+     * bounds: each is a bounded index scan, where a nested $or would be a filter over fetched documents.
+     */
+    public static Query summariesQuery(AccreditationSliceQuery q) {
+        AccreditationKey after = q.after();
+        Criteria range;
+        if (after == null) {
+            range = Criteria.where("pointOfSaleId").is(q.pointOfSaleId())
+                    .and("receptionDate").gte(q.from()).lte(q.to());
+        } else {
+            Criteria beyond = Criteria.where("pointOfSaleId").is(q.pointOfSaleId());
+            beyond = q.descending()
+                    ? beyond.and("receptionDate").lt(after.receptionDate()).gte(q.from())
+                    : beyond.and("receptionDate").gt(after.receptionDate()).lte(q.to());
+            Criteria sameDate = Criteria.where("pointOfSaleId").is(q.pointOfSaleId())
+                    .and("receptionDate").is(after.receptionDate());
+            sameDate = q.descending() ? sameDate.and("_id").lt(after.id()) : sameDate.and("_id").gt(after.id());
+            range = new Criteria().orOperator(beyond, sameDate);
+        }
+
+        Sort.Direction dir = q.descending() ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Query query = Query.query(range)
+                .with(Sort.by(dir, "receptionDate").and(Sort.by(dir, "_id")))
+                .withHint(POS_DATE_ID_IDX)
+                .limit(q.size() + 1);
+        query.fields().include("_id", "pointOfSaleId", "receptionDate");
+        return query;
+    }
+
+    @Override
+    public Slice<Accreditation> findSlice(AccreditationSliceQuery q) {
+        List<Criteria> filters = new ArrayList<>(4);
+        if (q.pointOfSaleId() != null) filters.add(Criteria.where("pointOfSaleId").is(q.pointOfSaleId()));
+        if (q.from() != null) filters.add(Criteria.where("receptionDate").gte(q.from()));
+        if (q.to() != null) filters.add(Criteria.where("receptionDate").lte(q.to()));
+        AccreditationKey after = q.after();
+        if (after != null) {
+            // (date, id) > (d, i)  <=>  date > d  or  (date == d and id > i); mirrored when descending
+            filters.add(q.descending()
+                    ? new Criteria().orOperator(
+                            Criteria.where("receptionDate").lt(after.receptionDate()),
+                            Criteria.where("receptionDate").is(after.receptionDate()).and("_id").lt(after.id()))
+                    : new Criteria().orOperator(
+                            Criteria.where("receptionDate").gt(after.receptionDate()),
+                            Criteria.where("receptionDate").is(after.receptionDate()).and("_id").gt(after.id())));
+        }
+
+        Sort.Direction dir = q.descending() ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Query query = (filters.isEmpty() ? new Query() : Query.query(new Criteria().andOperator(filters)))
+                .with(Sort.by(dir, "receptionDate").and(Sort.by(dir, "_id")))
+                .limit(q.size() + 1);
+
+        List<AccreditationDocument> docs = mongoTemplate.find(query, AccreditationDocument.class);
+        boolean hasNext = docs.size() > q.size();
+        List<Accreditation> content = (hasNext ? docs.subList(0, q.size()) : docs).stream().map(mapper::toDomain).toList();
+        return new SliceImpl<>(content, PageRequest.ofSize(q.size()), hasNext);
+    }
+
+    @Override
+    public Stream<Accreditation> stream(String pointOfSaleId, Instant from, Instant to, Set<AccreditationField> fields) {
+        Criteria criteria = pointOfSaleId == null
+                ? Criteria.where("receptionDate").gte(from).lte(to)
+                : Criteria.where("pointOfSaleId").is(pointOfSaleId).and("receptionDate").gte(from).lte(to);
+        Query query = Query.query(criteria)
+                .with(Sort.by("receptionDate").and(Sort.by("_id")))
+                .cursorBatchSize(EXPORT_BATCH_SIZE);
+        query.fields().include(fields.stream().map(AccreditationField::property).toArray(String[]::new));
+        if (!fields.contains(AccreditationField.ID)) query.fields().exclude("_id");
+        return mongoTemplate.stream(query, AccreditationDocument.class).map(mapper::toDomain);
+    }
+
+    @Override
+    public Stream<AccreditationAggregate> aggregate(AccreditationAggregateQuery q) {
+        Criteria match = q.pointOfSaleId() == null
+                ? Criteria.where("receptionDate").gte(q.from()).lte(q.to())
+                : Criteria.where("pointOfSaleId").is(q.pointOfSaleId()).and("receptionDate").gte(q.from()).lte(q.to());
+
+        Document groupId = new Document();
+        if (q.byPointOfSale()) groupId.append("p", "$pointOfSaleId");
+        if (q.bucket() != null && q.bucket() != TimeBucket.NONE) {
+            groupId.append("t", new Document("$dateTrunc", new Document("date", "$receptionDate")
+                    .append("unit", q.bucket().name().toLowerCase())
+                    .append("timezone", "UTC")));
+        }
+        // amounts are persisted as strings (Spring's default BigDecimal mapping), hence $toDecimal
+        Document amount = new Document("$toDecimal", "$amount");
+        AggregationOperation group = ctx -> new Document("$group", new Document("_id", groupId.isEmpty() ? null : groupId)
+                .append("count", new Document("$sum", 1L))
+                .append("sum", new Document("$sum", amount))
+                .append("min", new Document("$min", amount))
+                .append("max", new Document("$max", amount))
+                .append("avg", new Document("$avg", amount)));
+        AggregationOperation sort = ctx -> new Document("$sort", new Document("_id", 1));
+
+        AggregationOptions.Builder options = AggregationOptions.builder()
+                .allowDiskUse(true)
+                .cursorBatchSize(AGGREGATE_BATCH_SIZE);
+        if (q.pointOfSaleId() != null) options.hint(POS_DATE_ID_IDX);
+
+        Aggregation aggregation = Aggregation.newAggregation(Aggregation.match(match), group, sort)
+                .withOptions(options.build());
+        return mongoTemplate.aggregateStream(aggregation, mongoTemplate.getCollectionName(AccreditationDocument.class), Document.class)
+                .map(AccreditationMongoAdapter::toAggregate);
+    }
+
+    private static AccreditationAggregate toAggregate(Document d) {
+        Document id = d.get("_id") instanceof Document doc ? doc : new Document();
+        Date period = id.getDate("t");
+        return new AccreditationAggregate(
+                id.getString("p"),
+                period == null ? null : period.toInstant(),
+                ((Number) d.get("count")).longValue(),
+                decimal(d.get("sum")),
+                decimal(d.get("min")),
+                decimal(d.get("max")),
+                decimal(d.get("avg")));
+    }
+
+    private static BigDecimal decimal(Object value) {
+        return value instanceof Decimal128 dec ? dec.bigDecimalValue() : null;
+    }
+
+    private static MongoBulkWriteException bulkWriteCause(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof MongoBulkWriteException bulk) return bulk;
+        }
+        return null;
+    }
 }
@@ -0,0 +1,109 @@
+package com.carlos.challenge.infrastructure.out.persistence.mongo.adapter;
+
+import com.carlos.challenge.domain.model.Accreditation;
+import com.carlos.challenge.domain.port.out.ReactiveAccreditationRepositoryPort;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.entity.AccreditationDailyTotalDocument;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.entity.AccreditationDocument;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.mapper.AccreditationMongoMapper;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.repository.AccreditationReactiveMongoRepository;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.Decimal128;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Reactive-driver implementation for the {@code reactive} profile. Writes keep the daily rollup in
+ * step the same way {@link AccreditationDailyTotalsStore} does, with a single {@code $inc} upsert
+ * per accreditation; a failed increment queues its row for the store's repair of stale rows.
+ */
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+public class AccreditationReactiveMongoAdapter implements ReactiveAccreditationRepositoryPort {
+
+    private static final Logger log = LoggerFactory.getLogger(AccreditationReactiveMongoAdapter.class);
+
+    private static final String ROLLUP_UPDATE_FAILED = "Daily totals not updated for accreditation {}, row queued for repair: {}";
+    private static final Sort ORDER = Sort.by("receptionDate").and(Sort.by("_id"));
+
+    private final AccreditationReactiveMongoRepository repository;
+    private final AccreditationMongoMapper mapper;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final AccreditationDailyTotalsStore dailyTotals;
+
+    @Override
+    public Mono<Accreditation> save(Accreditation accreditation) {
+        return repository.save(mapper.toDocument(accreditation))
+                .flatMap(saved -> rollup(saved, 1).thenReturn(saved))
+                .map(mapper::toDomain);
+    }
+
+    @Override
+    public Mono<Accreditation> findById(String id) {
+        return repository.findById(id).map(mapper::toDomain);
+    }
+
+    @Override
+    public Mono<Boolean> deleteById(String id) {
+        // find + remove, as in AccreditationMongoAdapter: only the remove that deleted adjusts the
+        // rollup, once per copy deleted
+        Query byId = Query.query(Criteria.where("_id").is(id));
+        return mongoTemplate.find(byId, AccreditationDocument.class).collectList()
+                .filter(copies -> !copies.isEmpty())
+                .flatMap(copies -> mongoTemplate.remove(byId, AccreditationDocument.class)
+                        .flatMap(res -> Flux.fromIterable(copies)
+                                .take(Math.min(res.getDeletedCount(), copies.size()))
+                                .concatMap(doc -> rollup(doc, -1))
+                                .then(Mono.just(res.getDeletedCount() > 0))))
+                .defaultIfEmpty(false);
+    }
+
+    @Override
+    public Flux<Accreditation> findByPointOfSale(String pointOfSaleId) {
+        return repository.findByPointOfSaleId(pointOfSaleId, ORDER).map(mapper::toDomain);
+    }
+
+    @Override
+    public Flux<Accreditation> findByDateBetween(Instant from, Instant to) {
+        return repository.findByReceptionDateBetween(from, to, ORDER).map(mapper::toDomain);
+    }
+
+    @Override
+    public Flux<Accreditation> findByPointOfSaleAndDateBetween(String pointOfSaleId, Instant from, Instant to) {
+        return repository.findByPointOfSaleIdAndReceptionDateBetween(pointOfSaleId, from, to, ORDER)
+                .map(mapper::toDomain);
+    }
+
+    private Mono<Void> rollup(AccreditationDocument doc, int sign) {
+        String day = LocalDate.ofInstant(doc.getReceptionDate(), ZoneOffset.UTC).toString();
+        BigDecimal amount = doc.getAmount() == null ? BigDecimal.ZERO : doc.getAmount();
+        Update update = new Update()
+                .setOnInsert("pointOfSaleId", doc.getPointOfSaleId())
+                .setOnInsert("day", day)
+                .inc("total", new Decimal128(sign > 0 ? amount : amount.negate()))
+                .inc("count", (long) sign);
+        return mongoTemplate.upsert(
+                        Query.query(Criteria.where("_id").is(AccreditationDailyTotalDocument.idOf(doc.getPointOfSaleId(), day))),
+                        update, AccreditationDailyTotalDocument.class)
+                .then()
+                .onErrorResume(DataAccessException.class, ex -> {
+                    dailyTotals.markStale(doc.getPointOfSaleId(), day);
+                    log.warn(ROLLUP_UPDATE_FAILED, doc.getId(), ex.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
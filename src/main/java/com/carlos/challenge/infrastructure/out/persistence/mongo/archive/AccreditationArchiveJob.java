@@ -0,0 +1,140 @@
+package com.carlos.challenge.infrastructure.out.persistence.mongo.archive;
+
+import com.carlos.challenge.infrastructure.config.AccreditationRetentionProperties;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.entity.AccreditationDocument;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.mapper.AccreditationMongoMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves whole UTC months older than {@code keep-months} out of Mongo: each month is streamed into a
+ * gzipped NDJSON file (same line format as the write-behind spill file), and only once the file is
+ * complete are the month's documents removed. The daily totals rollup is left untouched, so stats keep
+ * covering archived months (a rollup rebuild only recomputes the months still kept in Mongo).
+ */
+@Component
+@ConditionalOnProperty(prefix = "accreditations.retention", name = "enabled", havingValue = "true")
+public class AccreditationArchiveJob {
+
+    private static final Logger log = LoggerFactory.getLogger(AccreditationArchiveJob.class);
+
+    private static final String ARCHIVED = "Archived {} accreditations of {} to {}";
+    private static final String DELETE_MISMATCH = "Archived {} accreditations of {} but removed {}; check {}";
+    private static final String ARCHIVE_FAILED = "Archiving {} failed, its documents were kept";
+
+    private static final int BATCH_SIZE = 5_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final AccreditationMongoMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final AccreditationRetentionProperties props;
+
+    public AccreditationArchiveJob(MongoTemplate mongoTemplate, AccreditationMongoMapper mapper,
+                                   ObjectMapper objectMapper, AccreditationRetentionProperties props) {
+        this.mongoTemplate = mongoTemplate;
+        this.mapper = mapper;
+        this.objectMapper = objectMapper;
+        this.props = props;
+    }
+
+    @Scheduled(cron = "${accreditations.retention.cron:0 30 3 * * *}", zone = "UTC")
+    public void run() {
+        archiveBefore(props.firstKeptMonth());
+    }
+
+    /** Archives every month strictly before {@code firstKept}; returns the files written. */
+    public List<Path> archiveBefore(YearMonth firstKept) {
+        Instant limit = startOf(firstKept);
+        Query oldestQuery = Query.query(Criteria.where("receptionDate").lt(limit))
+                .with(Sort.by("receptionDate")).limit(1);
+        oldestQuery.fields().include("receptionDate");
+        AccreditationDocument oldest = mongoTemplate.findOne(oldestQuery, AccreditationDocument.class);
+
+        List<Path> written = new ArrayList<>();
+        if (oldest == null) return written;
+        for (YearMonth m = YearMonth.from(oldest.getReceptionDate().atZone(ZoneOffset.UTC)); m.isBefore(firstKept); m = m.plusMonths(1)) {
+            try {
+                Path file = archiveMonth(m);
+                if (file != null) written.add(file);
+            } catch (IOException | UncheckedIOException e) {
+                log.error(ARCHIVE_FAILED, m, e);
+                break;
+            }
+        }
+        return written;
+    }
+
+    private Path archiveMonth(YearMonth month) throws IOException {
+        Criteria range = Criteria.where("receptionDate").gte(startOf(month)).lt(startOf(month.plusMonths(1)));
+        Query query = Query.query(range).with(Sort.by("receptionDate").and(Sort.by("_id"))).cursorBatchSize(BATCH_SIZE);
+
+        Files.createDirectories(props.getArchiveDir());
+        Path tmp = Files.createTempFile(props.getArchiveDir(), "accreditations-" + month, ".tmp");
+        long count = 0;
+        try (Stream<AccreditationDocument> docs = mongoTemplate.stream(query, AccreditationDocument.class);
+             BufferedWriter w = new BufferedWriter(new OutputStreamWriter(
+                     new GZIPOutputStream(Files.newOutputStream(tmp)), StandardCharsets.UTF_8))) {
+            Iterator<AccreditationDocument> it = docs.iterator();
+            while (it.hasNext()) {
+                w.write(objectMapper.writeValueAsString(mapper.toDomain(it.next())));
+                w.newLine();
+                count++;
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        if (count == 0) {
+            Files.deleteIfExists(tmp);
+            return null;
+        }
+
+        Path file = targetFor(month);
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        long removed = mongoTemplate.remove(Query.query(range), AccreditationDocument.class).getDeletedCount();
+        if (removed != count) {
+            log.warn(DELETE_MISMATCH, count, month, removed, file);
+        } else {
+            log.info(ARCHIVED, count, month, file);
+        }
+        return file;
+    }
+
+    // a month archived again gets a numbered file; after a run that stopped between the move and the
+    // delete, that file repeats the earlier one and restores must skip duplicate ids
+    private Path targetFor(YearMonth month) {
+        Path file = props.getArchiveDir().resolve("accreditations-" + month + ".ndjson.gz");
+        for (int n = 1; Files.exists(file); n++) {
+            file = props.getArchiveDir().resolve("accreditations-" + month + "." + n + ".ndjson.gz");
+        }
+        return file;
+    }
+
+    private static Instant startOf(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
@@ -0,0 +1,52 @@
+package com.carlos.challenge.infrastructure.out.persistence.mongo.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+import java.math.BigDecimal;
+
+/**
+ * Materialized per (POS, UTC day) totals, kept up to date with {@code $inc} upserts.
+ * {@code id} is {@code pointOfSaleId + ":" + day}; {@code day} is ISO {@code yyyy-MM-dd} so it
+ * sorts and range-queries as a plain string.
+ */
+@Document(collection = AccreditationDailyTotalDocument.COLLECTION)
+@CompoundIndex(name = "pos_and_day_idx", def = "{'pointOfSaleId': 1, 'day': 1}")
+public class AccreditationDailyTotalDocument {
+
+    public static final String COLLECTION = "acreditacionesDailyTotals";
+
+    @Id
+    private String id;
+
+    private String pointOfSaleId;
+
+    @Indexed
+    private String day;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal total;
+
+    private long count;
+
+    public AccreditationDailyTotalDocument() {}
+
+    public static String idOf(String pointOfSaleId, String day) {
+        return pointOfSaleId + ":" + day;
+    }
+
+    public String getId() { return id; }
+    public String getPointOfSaleId() { return pointOfSaleId; }
+    public String getDay() { return day; }
+    public BigDecimal getTotal() { return total; }
+    public long getCount() { return count; }
+
+    public void setId(String id) { this.id = id; }
+    public void setPointOfSaleId(String pointOfSaleId) { this.pointOfSaleId = pointOfSaleId; }
+    public void setDay(String day) { this.day = day; }
+    public void setTotal(BigDecimal total) { this.total = total; }
+    public void setCount(long count) { this.count = count; }
+}
@@ -3,14 +3,17 @@ package com.carlos.challenge.infrastructure.out.persistence.mongo.entity;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.CompoundIndexes;
-import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.math.BigDecimal;
 import java.time.Instant;
 
 @Document(collection = "acreditacionesV2")
+// keyset paging sorts on (receptionDate, _id); _id in the key avoids an in-memory sort of the range.
+// Both also serve every query on their prefixes (POS, POS + date range, date range), which therefore
+// have no index of their own; created by MongoIndexMigration
 @CompoundIndexes({
-        @CompoundIndex(name = "pos_and_date_idx", def = "{'pointOfSaleId': 1, 'receptionDate': 1}")
+        @CompoundIndex(name = "date_id_idx", def = "{'receptionDate': 1, '_id': 1}"),
+        @CompoundIndex(name = "pos_date_id_idx", def = "{'pointOfSaleId': 1, 'receptionDate': 1, '_id': 1}")
 })
 public class AccreditationDocument {
 
@@ -19,12 +22,10 @@ public class AccreditationDocument {
 
     private BigDecimal amount;
 
-    @Indexed
     private String pointOfSaleId;
 
     private String pointOfSaleName;
 
-    @Indexed
     private Instant receptionDate;
 
     public AccreditationDocument() {}
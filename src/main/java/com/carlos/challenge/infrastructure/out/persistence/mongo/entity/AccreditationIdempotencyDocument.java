@@ -0,0 +1,67 @@
+package com.carlos.challenge.infrastructure.out.persistence.mongo.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One document per idempotency key; the key is the {@code _id}, so its unique index is what
+ * serializes concurrent claims. Keeps a copy of the accreditation so a retry can be answered
+ * without reading the accreditations collection. {@code state} goes from {@code PENDING} to
+ * {@code STORED} once the accreditation is written; documents without a state predate it and count
+ * as stored. Expires a day after the claim.
+ */
+@Document(collection = "accreditationIdempotency")
+public class AccreditationIdempotencyDocument {
+
+    public static final String PENDING = "PENDING";
+    public static final String STORED = "STORED";
+
+    @Id
+    private String key;
+
+    private String accreditationId;
+    private BigDecimal amount;
+    private String pointOfSaleId;
+    private String pointOfSaleName;
+    private Instant receptionDate;
+    private String state;
+
+    @Indexed(name = "claimed_ttl_idx", expireAfter = "1d")
+    private Instant claimedAt;
+
+    public AccreditationIdempotencyDocument() {}
+
+    public AccreditationIdempotencyDocument(String key, String accreditationId, BigDecimal amount, String pointOfSaleId,
+                                            String pointOfSaleName, Instant receptionDate, String state,
+                                            Instant claimedAt) {
+        this.key = key;
+        this.accreditationId = accreditationId;
+        this.amount = amount;
+        this.pointOfSaleId = pointOfSaleId;
+        this.pointOfSaleName = pointOfSaleName;
+        this.receptionDate = receptionDate;
+        this.state = state;
+        this.claimedAt = claimedAt;
+    }
+
+    public String getKey() { return key; }
+    public String getAccreditationId() { return accreditationId; }
+    public BigDecimal getAmount() { return amount; }
+    public String getPointOfSaleId() { return pointOfSaleId; }
+    public String getPointOfSaleName() { return pointOfSaleName; }
+    public Instant getReceptionDate() { return receptionDate; }
+    public String getState() { return state; }
+    public Instant getClaimedAt() { return claimedAt; }
+
+    public void setKey(String key) { this.key = key; }
+    public void setAccreditationId(String accreditationId) { this.accreditationId = accreditationId; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public void setPointOfSaleId(String pointOfSaleId) { this.pointOfSaleId = pointOfSaleId; }
+    public void setPointOfSaleName(String pointOfSaleName) { this.pointOfSaleName = pointOfSaleName; }
+    public void setReceptionDate(Instant receptionDate) { this.receptionDate = receptionDate; }
+    public void setState(String state) { this.state = state; }
+    public void setClaimedAt(Instant claimedAt) { this.claimedAt = claimedAt; }
+}
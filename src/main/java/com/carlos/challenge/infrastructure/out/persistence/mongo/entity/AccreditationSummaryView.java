@@ -0,0 +1,6 @@
+package com.carlos.challenge.infrastructure.out.persistence.mongo.entity;
+
+import java.time.Instant;
+
+/** Read-only projection of {@link AccreditationDocument}; every field is a key of {@code pos_date_id_idx}. */
+public record AccreditationSummaryView(String id, String pointOfSaleId, Instant receptionDate) {}
@@ -1,7 +1,9 @@
 package com.carlos.challenge.infrastructure.out.persistence.mongo.mapper;
 
 import com.carlos.challenge.domain.model.Accreditation;
+import com.carlos.challenge.domain.model.AccreditationSummary;
 import com.carlos.challenge.infrastructure.out.persistence.mongo.entity.AccreditationDocument;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.entity.AccreditationSummaryView;
 import org.mapstruct.Mapper;
 import org.springframework.data.domain.Page;
 
@@ -12,6 +14,8 @@ public interface AccreditationMongoMapper {
 
     AccreditationDocument toDocument(Accreditation acc);
 
+    AccreditationSummary toSummary(AccreditationSummaryView view);
+
     default Page<Accreditation> toDomainPage(Page<AccreditationDocument> page) {
         return page.map(this::toDomain);
     }
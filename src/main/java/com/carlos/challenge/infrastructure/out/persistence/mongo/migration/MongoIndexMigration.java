@@ -0,0 +1,65 @@
+package com.carlos.challenge.infrastructure.out.persistence.mongo.migration;
+
+import com.carlos.challenge.infrastructure.out.persistence.mongo.entity.AccreditationDailyTotalDocument;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.entity.AccreditationDocument;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.entity.AccreditationIdempotencyDocument;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+import java.util.List;
+
+/**
+ * Brings the Mongo indexes in line with the entity annotations, in place of Spring Data's
+ * {@code auto-index-creation}: that one builds indexes as a side effect of the first repository
+ * touching an entity and only ever adds them, so an index dropped from an entity stays on the
+ * collection and keeps costing every insert. Here the declared indexes are created and the ones
+ * superseded by a longer index with the same prefix are dropped. Each step is a no-op once applied,
+ * so every node may run it at startup; with {@code accreditations.storage.migrate-indexes=false}
+ * it is left to a single instance started with the flag on.
+ */
+@Component
+@ConditionalOnProperty(prefix = "accreditations.storage", name = "migrate-indexes", havingValue = "true", matchIfMissing = true)
+public class MongoIndexMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexMigration.class);
+
+    private static final String DROPPED = "Dropped index {} of {}, covered by a longer index with the same prefix";
+
+    private static final List<Class<?>> ENTITIES = List.of(
+            AccreditationDocument.class, AccreditationDailyTotalDocument.class, AccreditationIdempotencyDocument.class);
+
+    // prefixes of pos_date_id_idx and date_id_idx, matched by key so their generated names do not matter
+    private static final List<Document> SUPERSEDED_ACCREDITATION_KEYS = List.of(
+            new Document("pointOfSaleId", 1).append("receptionDate", 1),
+            new Document("pointOfSaleId", 1),
+            new Document("receptionDate", 1));
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoIndexMigration(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        var resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> entity : ENTITIES) {
+            IndexOperations ops = mongoTemplate.indexOps(entity);
+            resolver.resolveIndexFor(entity).forEach(ops::ensureIndex);
+        }
+
+        String collection = mongoTemplate.getCollectionName(AccreditationDocument.class);
+        for (Document index : mongoTemplate.getCollection(collection).listIndexes()) {
+            if (SUPERSEDED_ACCREDITATION_KEYS.contains(index.get("key", Document.class))) {
+                mongoTemplate.indexOps(AccreditationDocument.class).dropIndex(index.getString("name"));
+                log.info(DROPPED, index.getString("name"), collection);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.carlos.challenge.infrastructure.out.persistence.mongo.repository;
+
+import com.carlos.challenge.infrastructure.out.persistence.mongo.entity.AccreditationDocument;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+
+public interface AccreditationReactiveMongoRepository extends ReactiveMongoRepository<AccreditationDocument, String> {
+    Flux<AccreditationDocument> findByPointOfSaleId(String pointOfSaleId, Sort sort);
+
+    Flux<AccreditationDocument> findByReceptionDateBetween(Instant from, Instant to, Sort sort);
+
+    Flux<AccreditationDocument> findByPointOfSaleIdAndReceptionDateBetween(String pointOfSaleId, Instant from, Instant to, Sort sort);
+}
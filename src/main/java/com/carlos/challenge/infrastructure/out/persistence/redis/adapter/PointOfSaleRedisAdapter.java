@@ -2,11 +2,18 @@ package com.carlos.challenge.infrastructure.out.persistence.redis.adapter;
 
 import com.carlos.challenge.domain.model.PointOfSale;
 import com.carlos.challenge.domain.port.out.PointOfSaleRepositoryPort;
+import com.carlos.challenge.infrastructure.config.RedisTopologyProperties;
+import com.carlos.challenge.infrastructure.support.IdOrCode;
+import com.carlos.challenge.infrastructure.out.persistence.sequence.BlockCodeAllocator;
 import org.redisson.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.redisson.client.codec.Codec;
 import org.redisson.codec.TypedJsonJacksonCodec;
 
@@ -18,72 +25,108 @@ public class PointOfSaleRedisAdapter implements PointOfSaleRepositoryPort {
     private static final String EMPTY_ID_CODE = "Empty id/code";
     private static final String INVALID_ID_CODE_FORMAT = "Invalid id/code format: ";
     private static final String CODE_ALREADY_IN_USE = "PointOfSale code already in use: ";
+    private static final int SCAN_COUNT = 500;
+    private static final long LOCK_LEASE_SECONDS = 10;
 
-    private final RMap<String, PointOfSale> byId;
-    private final RMap<Integer, String> idByCode;
-    private final RMap<String, String> idByName;
+    private final RedissonClient redisson;
+    private final PointOfSaleRedisKeys keys;
+    private final List<RMap<String, PointOfSale>> byId;
+    private final List<RMap<Integer, String>> idByCode;
+    private final List<RMap<String, String>> idByName;
     private final RAtomicLong codeSeq;
-    private final RReadWriteLock rw;
+    private final RAtomicLong version;
+    private final BlockCodeAllocator codes;
 
     public PointOfSaleRedisAdapter(RedissonClient redisson) {
+        this(redisson, PointOfSaleRedisKeys.DEFAULT);
+    }
+
+    @Autowired
+    public PointOfSaleRedisAdapter(RedissonClient redisson, RedisTopologyProperties topology) {
+        this(redisson, topology.getMode() == RedisTopologyProperties.Mode.CLUSTER
+                ? PointOfSaleRedisKeys.of(topology.getKeyPrefix(), topology.getShards(), true)
+                : PointOfSaleRedisKeys.of(topology.getKeyPrefix(), 1, false));
+    }
+
+    public PointOfSaleRedisAdapter(RedissonClient redisson, PointOfSaleRedisKeys keys) {
         Codec byIdCodec     = new TypedJsonJacksonCodec(String.class, PointOfSale.class);
         Codec codeIdxCodec  = new TypedJsonJacksonCodec(Integer.class, String.class);
         Codec nameIdxCodec  = new TypedJsonJacksonCodec(String.class, String.class);
 
-        this.byId     = redisson.getMap("pos:byId", byIdCodec);
-        this.idByCode = redisson.getMap("pos:idByCode", codeIdxCodec);
-        this.idByName = redisson.getMap("pos:idByName", nameIdxCodec);
+        this.redisson = redisson;
+        this.keys     = keys;
+        this.byId     = new ArrayList<>(keys.shards());
+        this.idByCode = new ArrayList<>(keys.shards());
+        this.idByName = new ArrayList<>(keys.shards());
+        for (int s = 0; s < keys.shards(); s++) {
+            byId.add(redisson.getMap(keys.byId(s), byIdCodec));
+            idByCode.add(redisson.getMap(keys.idByCode(s), codeIdxCodec));
+            idByName.add(redisson.getMap(keys.idByName(s), nameIdxCodec));
+        }
 
-        this.codeSeq  = redisson.getAtomicLong("pos:codeSeq");
-        this.rw       = redisson.getReadWriteLock("pos:lock");
+        this.codeSeq  = redisson.getAtomicLong(keys.codeSeq());
+        this.version  = redisson.getAtomicLong(keys.version());
 
         this.codeSeq.compareAndSet(0, 1);
+        this.version.compareAndSet(0, System.currentTimeMillis() << 20);
+
+        this.codes = new BlockCodeAllocator(n -> (int) codeSeq.getAndAdd(n), BlockCodeAllocator.DEFAULT_BLOCK_SIZE);
+        for (RMap<Integer, String> shard : idByCode) {
+            for (Integer c : shard.keySet()) {
+                codes.markUsed(c);
+            }
+        }
     }
 
     @Override
     public List<PointOfSale> findAll() {
-        RLock r = rw.readLock();
-        r.lock();
-        try {
-            return new ArrayList<>(byId.values());
-        } finally {
-            r.unlock();
+        List<PointOfSale> all = new ArrayList<>();
+        for (RMap<String, PointOfSale> shard : byId) {
+            all.addAll(shard.readAllValues());
         }
+        return all;
+    }
+
+    // HSCAN each shard in batches of SCAN_COUNT instead of HVALS: near-constant memory on large
+    // hashes. An entry may come back twice if a hash is resized while the scan runs, so records
+    // already emitted are skipped: a bit per code, ids only for records without a usable code
+    @Override
+    public Stream<PointOfSale> stream() {
+        BitSet seenCodes = new BitSet();
+        Set<String> seenIds = new HashSet<>();
+        return byId.stream()
+                .flatMap(shard -> StreamSupport.stream(shard.values(SCAN_COUNT).spliterator(), false))
+                .filter(pos -> firstSighting(pos, seenCodes, seenIds));
+    }
+
+    private static boolean firstSighting(PointOfSale pos, BitSet seenCodes, Set<String> seenIds) {
+        Integer code = pos.code();
+        if (code == null || code < 0) return seenIds.add(pos.id());
+        if (seenCodes.get(code)) return false;
+        seenCodes.set(code);
+        return true;
     }
 
     @Override
     public Optional<PointOfSale> findById(String id) {
-        RLock r = rw.readLock();
-        r.lock();
-        try {
-            return Optional.ofNullable(byId.get(id));
-        } finally {
-            r.unlock();
-        }
+        return Optional.ofNullable(recordsOf(id).get(id));
     }
 
+    // the indexes live in other shards than the records and are updated after them (and a
+    // replica may lag behind), so an entry can point at a record that no longer carries that
+    // name/code: cross-check
     @Override
     public Optional<PointOfSale> findByName(String name) {
-        RLock r = rw.readLock();
-        r.lock();
-        try {
-            String id = idByName.get(name);
-            return Optional.ofNullable(id == null ? null : byId.get(id));
-        } finally {
-            r.unlock();
-        }
+        String id = namesOf(name).get(name);
+        PointOfSale pos = id == null ? null : recordsOf(id).get(id);
+        return Optional.ofNullable(pos != null && name.equals(pos.name()) ? pos : null);
     }
 
     @Override
     public Optional<PointOfSale> findByCode(Integer code) {
-        RLock r = rw.readLock();
-        r.lock();
-        try {
-            String id = idByCode.get(code);
-            return Optional.ofNullable(id == null ? null : byId.get(id));
-        } finally {
-            r.unlock();
-        }
+        String id = codesOf(code).get(code);
+        PointOfSale pos = id == null ? null : recordsOf(id).get(id);
+        return Optional.ofNullable(pos != null && code.equals(pos.code()) ? pos : null);
     }
 
     @Override
@@ -91,83 +134,186 @@ public class PointOfSaleRedisAdapter implements PointOfSaleRepositoryPort {
         if (idOrCode == null || idOrCode.isBlank()) {
             throw new IllegalArgumentException(EMPTY_ID_CODE);
         }
-        if (isUuid(idOrCode)) return idOrCode;
+        if (IdOrCode.isUuid(idOrCode)) return idOrCode;
 
-        final int code;
-        try {
-            code = Integer.parseInt(idOrCode.trim());
-        } catch (NumberFormatException e) {
+        long parsed = IdOrCode.parseCode(idOrCode);
+        if (parsed == IdOrCode.NOT_A_CODE) {
             throw new IllegalArgumentException(INVALID_ID_CODE_FORMAT + idOrCode);
         }
+        final int code = (int) parsed;
 
-        RLock r = rw.readLock();
-        r.lock();
-        try {
-            String id = idByCode.get(code);
-            if (id == null) throw new NoSuchElementException(POINT_OF_SALE_NOT_FOUND_FOR_CODE + code);
-            return id;
-        } finally {
-            r.unlock();
-        }
+        return findByCode(code)
+                .map(PointOfSale::id)
+                .orElseThrow(() -> new NoSuchElementException(POINT_OF_SALE_NOT_FOUND_FOR_CODE + code));
     }
 
+    // writers only serialize on the record they touch; code uniqueness comes from HSETNX on
+    // the code index, names are last-writer-wins and guarded by the cross-check on read
     @Override
     public PointOfSale save(PointOfSale point) {
-        RLock w = rw.writeLock();
-        w.lock(10, TimeUnit.SECONDS);
-        try {
-            String id = (point.id() == null || point.id().isBlank())
-                    ? UUID.randomUUID().toString()
-                    : point.id();
+        String id = (point.id() == null || point.id().isBlank())
+                ? UUID.randomUUID().toString()
+                : point.id();
 
+        RLock lock = redisson.getLock(keys.lock(id));
+        lock.lock(LOCK_LEASE_SECONDS, TimeUnit.SECONDS);
+        try {
             Integer code = point.code();
             if (code == null) {
-                int c;
-                do {
-                    c = (int) codeSeq.getAndIncrement();
-                } while (idByCode.containsKey(c));
-                code = c;
+                code = claimNextCode(id);
             } else {
-                String existingIdForCode = idByCode.get(code);
-                if (existingIdForCode != null && !existingIdForCode.equals(id)) {
-                    throw new IllegalArgumentException(CODE_ALREADY_IN_USE + code);
-                }
+                claimCode(code, id);
             }
 
             PointOfSale stored = new PointOfSale(id, point.name(), code);
 
-            PointOfSale previous = byId.put(id, stored);
+            PointOfSale previous = recordsOf(id).put(id, stored);
             if (previous != null) {
-                if (previous.code() != null) idByCode.remove(previous.code());
-                if (previous.name() != null) idByName.remove(previous.name());
+                if (previous.code() != null && !previous.code().equals(code)) {
+                    codesOf(previous.code()).remove(previous.code(), id);
+                    codes.release(previous.code());
+                }
+                if (previous.name() != null && !previous.name().equals(stored.name())) {
+                    namesOf(previous.name()).remove(previous.name(), id);
+                }
             }
 
-            if (stored.code() != null) idByCode.put(stored.code(), id);
-            if (stored.name() != null) idByName.put(stored.name(), id);
+            if (stored.name() != null) namesOf(stored.name()).fastPut(stored.name(), id);
 
+            version.incrementAndGet();
             return stored;
         } finally {
-            w.unlock();
+            lock.unlock();
         }
     }
 
     @Override
     public void deleteById(String id) {
-        RLock w = rw.writeLock();
-        w.lock(10, TimeUnit.SECONDS);
+        RLock lock = redisson.getLock(keys.lock(id));
+        lock.lock(LOCK_LEASE_SECONDS, TimeUnit.SECONDS);
         try {
-            PointOfSale removed = byId.remove(id);
+            PointOfSale removed = recordsOf(id).remove(id);
             if (removed != null) {
-                if (removed.code() != null) idByCode.remove(removed.code());
-                if (removed.name() != null) idByName.remove(removed.name());
+                if (removed.code() != null) {
+                    codesOf(removed.code()).remove(removed.code(), id);
+                    codes.release(removed.code());
+                }
+                if (removed.name() != null) namesOf(removed.name()).remove(removed.name(), id);
+                version.incrementAndGet();
             }
         } finally {
-            w.unlock();
+            lock.unlock();
         }
     }
 
-    private static boolean isUuid(String s) {
-        try { UUID.fromString(s); return true; }
-        catch (Exception e) { return false; }
+    /**
+     * A save or delete is three writes to different slots (record, code index, name index), so a
+     * writer that dies between them leaves the indexes out of step with the records. Reads already
+     * cross-check every index hit, so the exposure is: a dangling entry (holding a code that nobody
+     * carries any more) or a missing one (a record not found by its code or name). This sweep fixes
+     * both, record by record under its lock; records being written right now are skipped and left
+     * for the next run. Returns the entries fixed.
+     */
+    public int repairIndexes() {
+        int fixed = 0;
+        for (RMap<Integer, String> shard : idByCode) {
+            for (Map.Entry<Integer, String> e : shard.entrySet(SCAN_COUNT)) {
+                fixed += dropDangling(shard, e.getKey(), e.getValue(), pos -> e.getKey().equals(pos.code()));
+            }
+        }
+        for (RMap<String, String> shard : idByName) {
+            for (Map.Entry<String, String> e : shard.entrySet(SCAN_COUNT)) {
+                fixed += dropDangling(shard, e.getKey(), e.getValue(), pos -> e.getKey().equals(pos.name()));
+            }
+        }
+        for (RMap<String, PointOfSale> shard : byId) {
+            for (PointOfSale pos : shard.values(SCAN_COUNT)) {
+                fixed += restoreMissing(pos.id());
+            }
+        }
+        if (fixed > 0) version.incrementAndGet();
+        return fixed;
+    }
+
+    private <K> int dropDangling(RMap<K, String> index, K key, String owner, Predicate<PointOfSale> carries) {
+        RLock lock = redisson.getLock(keys.lock(owner));
+        if (!lock.tryLock()) return 0;
+        try {
+            PointOfSale held = recordsOf(owner).get(owner);
+            if (held != null && carries.test(held)) return 0;
+            if (!index.remove(key, owner)) return 0;
+            if (key instanceof Integer code) codes.release(code);
+            return 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int restoreMissing(String id) {
+        RLock lock = redisson.getLock(keys.lock(id));
+        if (!lock.tryLock()) return 0;
+        try {
+            PointOfSale pos = recordsOf(id).get(id);
+            if (pos == null) return 0;
+            int fixed = 0;
+            if (pos.code() != null && codesOf(pos.code()).fastPutIfAbsent(pos.code(), id)) {
+                codes.markUsed(pos.code());
+                fixed++;
+            }
+            // another record may carry the same name: only an absent entry is restored
+            if (pos.name() != null && namesOf(pos.name()).fastPutIfAbsent(pos.name(), id)) fixed++;
+            return fixed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // shared by every node, so an ETag stays valid whichever node answers the next poll; one
+    // INCR per write, bumped only after the write's changes are in place
+    @Override
+    public long version() {
+        return version.get();
+    }
+
+    // codes come from a locally leased block; HSETNX both claims the code and writes
+    // the index entry, so a collision with a code taken elsewhere costs one round trip
+    private int claimNextCode(String id) {
+        while (true) {
+            int c = codes.next();
+            if (codesOf(c).fastPutIfAbsent(c, id)) return c;
+        }
+    }
+
+    // an entry whose owner no longer carries the code was left by a writer that died between
+    // the claim and the record write; take it over, holding the owner's lock so a save of
+    // that record still in flight cannot finish with the same code
+    private void claimCode(int code, String id) {
+        RMap<Integer, String> index = codesOf(code);
+        String owner = index.putIfAbsent(code, id);
+        if (owner != null && !owner.equals(id)) {
+            RLock ownerLock = redisson.getLock(keys.lock(owner));
+            if (!ownerLock.tryLock()) throw new IllegalArgumentException(CODE_ALREADY_IN_USE + code);
+            try {
+                PointOfSale held = recordsOf(owner).get(owner);
+                if ((held != null && Integer.valueOf(code).equals(held.code())) || !index.replace(code, owner, id)) {
+                    throw new IllegalArgumentException(CODE_ALREADY_IN_USE + code);
+                }
+            } finally {
+                ownerLock.unlock();
+            }
+        }
+        codes.markUsed(code);
+    }
+
+    private RMap<String, PointOfSale> recordsOf(String id) {
+        return byId.get(keys.shardOf(id));
+    }
+
+    private RMap<Integer, String> codesOf(Integer code) {
+        return idByCode.get(keys.shardOf(code));
+    }
+
+    private RMap<String, String> namesOf(String name) {
+        return idByName.get(keys.shardOf(name));
     }
 }
@@ -0,0 +1,61 @@
+package com.carlos.challenge.infrastructure.out.persistence.redis.adapter;
+
+/**
+ * Key names for the POS structures. Records and the code/name indexes are split over
+ * {@code shards} hashes; a record goes to the shard of its id, an index entry to the shard of
+ * its code or name. In cluster mode each shard is wrapped in its own hash tag
+ * ({@code {pos:3}:byId}, {@code {pos:3}:idByCode}, ...) so the shards land on different slots.
+ * With a single shard and no tag the names are the plain {@code pos:byId}, {@code pos:idByCode}, ...
+ * Indexes follow the code/name rather than the id so a lookup hits one slot; the price is that a save
+ * spans several slots and is not atomic, which the adapter's index repair sweep makes up for.
+ */
+public record PointOfSaleRedisKeys(String prefix, int shards, boolean hashTagged) {
+
+    public static final PointOfSaleRedisKeys DEFAULT = of("pos", 1, false);
+
+    public PointOfSaleRedisKeys {
+        if (shards < 1) throw new IllegalArgumentException("shards must be >= 1: " + shards);
+    }
+
+    public static PointOfSaleRedisKeys of(String prefix, int shards, boolean hashTagged) {
+        return new PointOfSaleRedisKeys(prefix, shards, hashTagged);
+    }
+
+    public int shardOf(Object value) {
+        return Math.floorMod(value.hashCode(), shards);
+    }
+
+    public String byId(int shard) {
+        return shardKey(shard, "byId");
+    }
+
+    public String idByCode(int shard) {
+        return shardKey(shard, "idByCode");
+    }
+
+    public String idByName(int shard) {
+        return shardKey(shard, "idByName");
+    }
+
+    /** Per-record lock, in the slot of the record's shard. */
+    public String lock(String id) {
+        return shardKey(shardOf(id), "lock:" + id);
+    }
+
+    public String codeSeq() {
+        return single("codeSeq");
+    }
+
+    public String version() {
+        return single("version");
+    }
+
+    private String shardKey(int shard, String name) {
+        if (hashTagged) return "{" + prefix + ":" + shard + "}:" + name;
+        return shards == 1 ? prefix + ":" + name : prefix + ":" + shard + ":" + name;
+    }
+
+    private String single(String name) {
+        return hashTagged ? "{" + prefix + ":" + name + "}" : prefix + ":" + name;
+    }
+}
@@ -0,0 +1,37 @@
+package com.carlos.challenge.infrastructure.out.persistence.redis.repair;
+
+import com.carlos.challenge.infrastructure.out.persistence.redis.adapter.PointOfSaleRedisAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically brings the POS code/name indexes back in line with the records, see
+ * {@link PointOfSaleRedisAdapter#repairIndexes()}. Every node may run it: each fix is a
+ * conditional write under the record's lock, so concurrent sweeps do not conflict.
+ */
+@Profile("redis")
+@Component
+@ConditionalOnProperty(prefix = "redis.index-repair", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PointOfSaleIndexRepairJob {
+
+    private static final Logger log = LoggerFactory.getLogger(PointOfSaleIndexRepairJob.class);
+
+    private static final String REPAIRED = "Repaired {} POS index entries left by interrupted writes";
+
+    private final PointOfSaleRedisAdapter adapter;
+
+    public PointOfSaleIndexRepairJob(PointOfSaleRedisAdapter adapter) {
+        this.adapter = adapter;
+    }
+
+    @Scheduled(initialDelayString = "${redis.index-repair.interval:PT15M}",
+               fixedDelayString = "${redis.index-repair.interval:PT15M}")
+    public void run() {
+        int fixed = adapter.repairIndexes();
+        if (fixed > 0) log.warn(REPAIRED, fixed);
+    }
+}
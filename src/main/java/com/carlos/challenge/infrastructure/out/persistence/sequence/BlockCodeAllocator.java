@@ -0,0 +1,117 @@
+package com.carlos.challenge.infrastructure.out.persistence.sequence;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Hands out POS codes from blocks leased to this node from a shared sequence.
+ * Codes already taken (explicit codes, codes seen from other nodes) are kept
+ * in a bitmap, so the next free code is found with {@link BitSet#nextClearBit(int)}
+ * instead of probing the code index once per candidate.
+ */
+public class BlockCodeAllocator {
+
+    public static final int DEFAULT_BLOCK_SIZE = 64;
+    // 16M codes -> 2MB of bitmap at most; anything above goes to a plain set
+    static final int BITMAP_LIMIT = 1 << 24;
+
+    private static final String BLOCK_SIZE_MUST_BE_POSITIVE = "Block size must be > 0";
+    private static final String CODE_SPACE_EXHAUSTED = "PointOfSale code space exhausted";
+
+    private final IntUnaryOperator leaseBlock;
+    private final int blockSize;
+    private final BitSet used = new BitSet();
+    private final Set<Integer> usedBeyondBitmap = new HashSet<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private int next;
+    private int blockEnd;
+
+    /**
+     * @param leaseBlock receives the block size and returns the first code of a
+     *                   freshly reserved block {@code [start, start + size)}
+     */
+    public BlockCodeAllocator(IntUnaryOperator leaseBlock, int blockSize) {
+        if (blockSize <= 0) throw new IllegalArgumentException(BLOCK_SIZE_MUST_BE_POSITIVE);
+        this.leaseBlock = leaseBlock;
+        this.blockSize = blockSize;
+    }
+
+    public int next() {
+        lock.lock();
+        try {
+            while (true) {
+                if (next < blockEnd) {
+                    int c = nextFree(next, blockEnd);
+                    if (c < blockEnd) {
+                        setUsed(c);
+                        next = c + 1;
+                        return c;
+                    }
+                }
+                int start = leaseBlock.applyAsInt(blockSize);
+                if (start < 0 || start > Integer.MAX_VALUE - blockSize) {
+                    throw new IllegalStateException(CODE_SPACE_EXHAUSTED);
+                }
+                next = start;
+                blockEnd = start + blockSize;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void markUsed(int code) {
+        if (code < 0) return;
+        lock.lock();
+        try {
+            setUsed(code);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(int code) {
+        if (code < 0) return;
+        lock.lock();
+        try {
+            if (code < BITMAP_LIMIT) used.clear(code);
+            else usedBeyondBitmap.remove(code);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isUsed(int code) {
+        if (code < 0) return false;
+        lock.lock();
+        try {
+            return code < BITMAP_LIMIT ? used.get(code) : usedBeyondBitmap.contains(code);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void setUsed(int code) {
+        if (code < BITMAP_LIMIT) used.set(code);
+        else usedBeyondBitmap.add(code);
+    }
+
+    private int nextFree(int from, int to) {
+        int c = from;
+        while (c < to) {
+            if (c < BITMAP_LIMIT) {
+                c = used.nextClearBit(c);
+                if (c < BITMAP_LIMIT) return c;
+            } else if (!usedBeyondBitmap.contains(c)) {
+                return c;
+            } else {
+                c++;
+            }
+        }
+        return to;
+    }
+}
@@ -0,0 +1,70 @@
+package com.carlos.challenge.infrastructure.support;
+
+/**
+ * Exception-free parsing for "UUID or numeric code" identifiers. Neither method
+ * allocates, so callers can classify input on every request without paying for
+ * {@code UUID.fromString} / {@code Integer.parseInt} failures and their stack traces.
+ */
+public final class IdOrCode {
+
+    public static final long NOT_A_CODE = Long.MIN_VALUE;
+
+    private IdOrCode() {}
+
+    /** Canonical 8-4-4-4-12 hex form, case-insensitive. */
+    public static boolean isUuid(CharSequence s) {
+        if (s == null || s.length() != 36) return false;
+        for (int i = 0; i < 36; i++) {
+            char c = s.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') return false;
+            } else if (!isHex(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses a (surrounding whitespace tolerated) base-10 int.
+     *
+     * @return the value, or {@link #NOT_A_CODE} when {@code s} is not an int
+     */
+    public static long parseCode(CharSequence s) {
+        if (s == null) return NOT_A_CODE;
+        int start = 0;
+        int end = s.length();
+        while (start < end && s.charAt(start) <= ' ') start++;
+        while (end > start && s.charAt(end - 1) <= ' ') end--;
+        if (start == end) return NOT_A_CODE;
+
+        boolean negative = false;
+        char first = s.charAt(start);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++start == end) return NOT_A_CODE;
+        }
+
+        long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return NOT_A_CODE;
+            value = value * 10 + (c - '0');
+            if (value > limit) return NOT_A_CODE;
+        }
+        return negative ? -value : value;
+    }
+
+    public static boolean isBlank(CharSequence s) {
+        if (s == null) return true;
+        for (int i = 0; i < s.length(); i++) {
+            if (!Character.isWhitespace(s.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private static boolean isHex(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+}
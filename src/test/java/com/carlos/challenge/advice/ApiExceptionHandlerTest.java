@@ -1,6 +1,7 @@
 package com.carlos.challenge.advice;
 
 import com.carlos.challenge.config.TestProfiles;
+import com.carlos.challenge.domain.exception.IdempotencyKeyInProgressException;
 import com.carlos.challenge.infrastructure.in.web.advice.ApiExceptionHandler;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.ResponseEntity;
@@ -30,4 +31,23 @@ class ApiExceptionHandlerTest {
         ResponseEntity<?> r = advice.handleNotFound(new IllegalArgumentException("bad"), req);
         assertThat(r.getStatusCode().value()).isEqualTo(404);
     }
+
+    @Test
+    void bufferFull_translatesTo429WithRetryAfter() {
+        HttpServletRequest req = mock(HttpServletRequest.class);
+        when(req.getRequestURI()).thenReturn("/api/accreditations");
+        ResponseEntity<?> r = advice.handleBufferFull(
+                new com.carlos.challenge.domain.exception.WriteBufferFullException("full"), req);
+        assertThat(r.getStatusCode().value()).isEqualTo(429);
+        assertThat(r.getHeaders().getFirst("Retry-After")).isEqualTo("1");
+    }
+
+    @Test
+    void idempotencyInProgress_translatesTo409WithRetryAfter() {
+        HttpServletRequest req = mock(HttpServletRequest.class);
+        when(req.getRequestURI()).thenReturn("/api/accreditations");
+        ResponseEntity<?> r = advice.handleIdempotencyInProgress(new IdempotencyKeyInProgressException("pending"), req);
+        assertThat(r.getStatusCode().value()).isEqualTo(409);
+        assertThat(r.getHeaders().getFirst("Retry-After")).isEqualTo("1");
+    }
 }
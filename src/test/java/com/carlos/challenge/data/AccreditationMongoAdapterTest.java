@@ -1,20 +1,69 @@
 package com.carlos.challenge.data;
 
 import com.carlos.challenge.config.TestProfiles;
+import com.carlos.challenge.domain.model.Accreditation;
+import com.carlos.challenge.domain.model.AccreditationAggregate;
+import com.carlos.challenge.domain.model.AccreditationAggregateQuery;
+import com.carlos.challenge.domain.model.AccreditationField;
+import com.carlos.challenge.domain.model.AccreditationKey;
+import com.carlos.challenge.domain.model.AccreditationSliceQuery;
+import com.carlos.challenge.domain.model.AccreditationSummary;
+import com.carlos.challenge.domain.model.IdempotencyClaim;
+import com.carlos.challenge.domain.model.TimeBucket;
+import com.carlos.challenge.infrastructure.config.AccreditationRetentionProperties;
+import com.carlos.challenge.infrastructure.config.AccreditationStorageProperties;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.adapter.AccreditationDailyTotalsStore;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.adapter.AccreditationIdempotencyMongoAdapter;
 import com.carlos.challenge.infrastructure.out.persistence.mongo.adapter.AccreditationMongoAdapter;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.archive.AccreditationArchiveJob;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.entity.AccreditationDailyTotalDocument;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.entity.AccreditationDocument;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.entity.AccreditationIdempotencyDocument;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.mapper.AccreditationMongoMapper;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.mapper.AccreditationMongoMapperImpl;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.migration.MongoIndexMigration;
 import com.carlos.challenge.infrastructure.out.persistence.mongo.repository.AccreditationMongoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.ExplainVerbosity;
+import org.assertj.core.api.recursive.comparison.RecursiveComparisonConfiguration;
+import org.bson.Document;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.MongoDBContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
-import org.testcontainers.containers.MongoDBContainer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -22,7 +71,13 @@ import static org.assertj.core.api.Assertions.*;
 @Testcontainers
 @ActiveProfiles(TestProfiles.TEST)
 @Import({AccreditationMongoAdapter.class,
-        com.carlos.challenge.infrastructure.out.persistence.mongo.mapper.AccreditationMongoMapperImpl.class})
+        AccreditationDailyTotalsStore.class,
+        AccreditationRetentionProperties.class,
+        AccreditationStorageProperties.class,
+        AccreditationIdempotencyMongoAdapter.class,
+        AccreditationMongoMapperImpl.class,
+        MongoIndexMigration.class,
+        SimpleMeterRegistry.class})
 class AccreditationMongoAdapterTest {
 
     @Container
@@ -30,26 +85,392 @@ class AccreditationMongoAdapterTest {
 
     @Autowired AccreditationMongoRepository springRepo;
     @Autowired AccreditationMongoAdapter adapter;
+    @Autowired AccreditationIdempotencyMongoAdapter idempotency;
+    @Autowired MongoTemplate mongoTemplate;
+    @Autowired AccreditationMongoMapper mongoMapper;
+    @Autowired AccreditationRetentionProperties retention;
+    @Autowired AccreditationStorageProperties storage;
+    @Autowired MongoIndexMigration indexMigration;
+    @Autowired AccreditationDailyTotalsStore dailyTotals;
+
+    @TempDir Path archiveDir;
 
     @Test
     void create_and_queryByFilters() {
         springRepo.deleteAll(); // Ensure clean DB before test
 
-        var acc = new com.carlos.challenge.domain.model.Accreditation(
+        var acc = new Accreditation(
                 null, new BigDecimal("12.34"),
                 "POS1", "Point 1", Instant.parse("2024-01-01T00:00:00Z"));
         var saved = adapter.save(acc);
         assertThat(saved.id()).isNotNull();
 
-        Page<com.carlos.challenge.domain.model.Accreditation> page =
+        Page<Accreditation> page =
                 adapter.findByPointOfSale("POS1", PageRequest.of(0,10));
         assertThat(page.getTotalElements()).isEqualTo(1);
 
-        Page<com.carlos.challenge.domain.model.Accreditation> datePage =
+        Page<Accreditation> datePage =
                 adapter.findByDateBetween(Instant.parse("2023-12-31T00:00:00Z"),
                         Instant.parse("2024-12-31T23:59:59Z"),
                         PageRequest.of(0,10));
         assertThat(datePage.getTotalElements()).isEqualTo(1);
     }
 
+    @Test
+    void saveAll_insertsUnordered_andReportsPerItem() {
+        springRepo.deleteAll();
+        springRepo.save(new AccreditationDocument(
+                "650000000000000000000001", BigDecimal.ONE, "POS1", null, Instant.now()));
+
+        var results = adapter.saveAll(List.of(
+                new Accreditation(null, BigDecimal.ONE, "POS1", null, Instant.now()),
+                new Accreditation("650000000000000000000001", BigDecimal.TEN, "POS1", null, Instant.now()),
+                new Accreditation(null, BigDecimal.TEN, "POS2", null, Instant.now())));
+
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).isStored()).isTrue();
+        assertThat(results.get(1).error()).contains("duplicate key");
+        assertThat(results.get(2).isStored()).isTrue();
+        assertThat(springRepo.count()).isEqualTo(3);
+    }
+
+    @Test
+    void saveAll_inTimeSeriesMode_rejectsStoredAndRepeatedIds_withoutTheUniqueIndex() {
+        springRepo.deleteAll();
+        Instant at = Instant.parse("2024-03-01T10:00:00Z");
+        springRepo.save(new AccreditationDocument(
+                "650000000000000000000001", BigDecimal.ONE, "POS1", null, at));
+        storage.setTimeSeries(true);
+        try {
+            var results = adapter.saveAll(List.of(
+                    new Accreditation("650000000000000000000001", BigDecimal.TEN, "POS1", null, at),
+                    new Accreditation("650000000000000000000002", BigDecimal.TEN, "POS1", null, at),
+                    new Accreditation("650000000000000000000002", BigDecimal.TEN, "POS1", null, at),
+                    new Accreditation(null, BigDecimal.TEN, "POS2", null, at)));
+
+            assertThat(results).extracting(r -> r.isStored()).containsExactly(false, true, false, true);
+            assertThat(results.get(0).error()).contains("duplicate key");
+            assertThat(results.get(2).error()).contains("duplicate key");
+            assertThat(springRepo.count()).isEqualTo(3);
+        } finally {
+            storage.setTimeSeries(false);
+        }
+    }
+
+    @Test
+    void indexMigration_dropsIndexesSupersededByLongerOnes() {
+        IndexOperations ops = mongoTemplate.indexOps(AccreditationDocument.class);
+        ops.ensureIndex(new Index().on("pointOfSaleId", Sort.Direction.ASC).on("receptionDate", Sort.Direction.ASC)
+                .named("pos_and_date_idx"));
+        ops.ensureIndex(new Index().on("receptionDate", Sort.Direction.ASC));
+
+        indexMigration.migrate();
+
+        assertThat(ops.getIndexInfo()).extracting(IndexInfo::getName)
+                .containsExactlyInAnyOrder("_id_", "date_id_idx", "pos_date_id_idx");
+    }
+
+    @Test
+    void updatePointOfSaleName_rewritesOnlyThatPos() {
+        springRepo.deleteAll();
+        adapter.save(new Accreditation(null, BigDecimal.ONE, "POS1", "Old", Instant.now()));
+        adapter.save(new Accreditation(null, BigDecimal.ONE, "POS1", "Old", Instant.now()));
+        adapter.save(new Accreditation(null, BigDecimal.ONE, "POS2", "Other", Instant.now()));
+
+        assertThat(adapter.updatePointOfSaleName("POS1", "New")).isEqualTo(2);
+        assertThat(springRepo.findAll()).extracting(d -> d.getPointOfSaleName())
+                .containsExactlyInAnyOrder("New", "New", "Other");
+    }
+
+    @Test
+    void dailyTotals_followCreatesAndDeletes_andRebuildMatches() {
+        springRepo.deleteAll();
+        adapter.rebuildDailyTotals();
+        Instant day1 = Instant.parse("2024-03-01T10:00:00Z");
+        Instant day2 = Instant.parse("2024-03-02T23:59:00Z");
+        var a = adapter.save(new Accreditation(null, new BigDecimal("10.50"), "POS1", null, day1));
+        adapter.saveAll(List.of(
+                new Accreditation(null, new BigDecimal("4.50"), "POS1", null, day1),
+                new Accreditation(null, new BigDecimal("1.00"), "POS1", null, day2),
+                new Accreditation(null, new BigDecimal("7.00"), "POS2", null, day1)));
+        adapter.deleteById(a.id());
+
+        var pos1 = adapter.findDailyTotals("POS1", LocalDate.parse("2024-03-01"), LocalDate.parse("2024-03-31"));
+        assertThat(pos1).hasSize(2);
+        assertThat(pos1.get(0).total()).isEqualByComparingTo("4.50");
+        assertThat(pos1.get(0).count()).isEqualTo(1);
+        assertThat(pos1.get(1).total()).isEqualByComparingTo("1.00");
+
+        var before = adapter.findDailyTotals(null, LocalDate.parse("2024-03-01"), LocalDate.parse("2024-03-31"));
+        adapter.rebuildDailyTotals();
+        var after = adapter.findDailyTotals(null, LocalDate.parse("2024-03-01"), LocalDate.parse("2024-03-31"));
+        assertThat(after).hasSize(3).usingRecursiveFieldByFieldElementComparator(
+                RecursiveComparisonConfiguration.builder()
+                        .withComparatorForType(BigDecimal::compareTo, BigDecimal.class).build())
+                .containsExactlyElementsOf(before);
+    }
+
+    @Test
+    void repairStale_recomputesARowThatMissedItsIncrement() {
+        springRepo.deleteAll();
+        adapter.rebuildDailyTotals();
+        Instant day1 = Instant.parse("2024-03-01T10:00:00Z");
+        adapter.save(new Accreditation(null, new BigDecimal("2.00"), "POS1", null, day1));
+        // written past the rollup, as when its increment failed
+        springRepo.save(new AccreditationDocument(null, new BigDecimal("3.00"), "POS1", null, day1));
+        dailyTotals.markStale("POS1", "2024-03-01");
+
+        dailyTotals.repairStale();
+
+        var pos1 = adapter.findDailyTotals("POS1", LocalDate.parse("2024-03-01"), LocalDate.parse("2024-03-01"));
+        assertThat(pos1).singleElement().satisfies(t -> {
+            assertThat(t.total()).isEqualByComparingTo("5.00");
+            assertThat(t.count()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    void rebuildDailyTotals_leavesTheCurrentDayToTheIncrements() {
+        springRepo.deleteAll();
+        adapter.save(new Accreditation(null, new BigDecimal("3.00"), "POS9", null, Instant.now()));
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        // stands for an increment that lands while the aggregation runs
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(AccreditationDailyTotalDocument.idOf("POS9", today.toString()))),
+                new Update().inc("count", 1L), AccreditationDailyTotalDocument.class);
+
+        adapter.rebuildDailyTotals();
+
+        assertThat(adapter.findDailyTotals("POS9", today, today)).singleElement()
+                .satisfies(t -> assertThat(t.count()).isEqualTo(2));
+    }
+
+    @Test
+    void rebuildDailyTotals_withRetention_keepsTheRowsOfArchivedMonths() {
+        springRepo.deleteAll();
+        adapter.rebuildDailyTotals();
+        LocalDate archivedDay = YearMonth.now(ZoneOffset.UTC).minusMonths(3).atDay(1);
+        adapter.save(new Accreditation(null, new BigDecimal("8.00"), "POS1", null,
+                archivedDay.atStartOfDay(ZoneOffset.UTC).toInstant()));
+        springRepo.deleteAll(); // archived: gone from Mongo, only the rollup row is left
+
+        retention.setEnabled(true);
+        retention.setKeepMonths(1);
+        try {
+            adapter.rebuildDailyTotals();
+        } finally {
+            retention.setEnabled(false);
+            retention.setKeepMonths(12);
+        }
+
+        assertThat(adapter.findDailyTotals("POS1", archivedDay, archivedDay)).singleElement()
+                .satisfies(t -> assertThat(t.total()).isEqualByComparingTo("8.00"));
+    }
+
+    @Test
+    void aggregate_groupsInDatabase_byPosAndDay() {
+        springRepo.deleteAll();
+        Instant d1 = Instant.parse("2024-05-01T08:00:00Z");
+        Instant d2 = Instant.parse("2024-05-02T08:00:00Z");
+        adapter.saveAll(List.of(
+                new Accreditation(null, new BigDecimal("1.00"), "POS1", null, d1),
+                new Accreditation(null, new BigDecimal("3.00"), "POS1", null, d1.plusSeconds(60)),
+                new Accreditation(null, new BigDecimal("5.00"), "POS1", null, d2),
+                new Accreditation(null, new BigDecimal("9.00"), "POS2", null, d1)));
+
+        var query = new AccreditationAggregateQuery(
+                null, Instant.parse("2024-05-01T00:00:00Z"), Instant.parse("2024-05-31T00:00:00Z"),
+                true, TimeBucket.DAY);
+        List<AccreditationAggregate> rows;
+        try (var stream = adapter.aggregate(query)) {
+            rows = stream.toList();
+        }
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0).pointOfSaleId()).isEqualTo("POS1");
+        assertThat(rows.get(0).period()).isEqualTo(Instant.parse("2024-05-01T00:00:00Z"));
+        assertThat(rows.get(0).count()).isEqualTo(2);
+        assertThat(rows.get(0).sum()).isEqualByComparingTo("4.00");
+        assertThat(rows.get(0).min()).isEqualByComparingTo("1.00");
+        assertThat(rows.get(0).max()).isEqualByComparingTo("3.00");
+        assertThat(rows.get(0).avg()).isEqualByComparingTo("2.00");
+        assertThat(rows.get(2).pointOfSaleId()).isEqualTo("POS2");
+
+        var onePos = new AccreditationAggregateQuery(
+                "POS1", query.from(), query.to(), false, TimeBucket.NONE);
+        try (var stream = adapter.aggregate(onePos)) {
+            assertThat(stream.toList()).singleElement()
+                    .satisfies(r -> assertThat(r.sum()).isEqualByComparingTo("9.00"));
+        }
+    }
+
+    @Test
+    void findSlice_walksAllDocumentsOnce_inKeyOrder_evenWithEqualDates() {
+        springRepo.deleteAll();
+        Instant same = Instant.parse("2024-06-01T00:00:00Z");
+        List<Accreditation> batch = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            batch.add(new Accreditation(null, BigDecimal.ONE, i % 2 == 0 ? "POS1" : "POS2", null,
+                    i < 10 ? same : same.plusSeconds(i)));
+        }
+        adapter.saveAll(batch);
+
+        for (boolean descending : new boolean[]{false, true}) {
+            List<String> seen = new ArrayList<>();
+            AccreditationKey after = null;
+            Slice<Accreditation> slice;
+            do {
+                slice = adapter.findSlice(new AccreditationSliceQuery(
+                        null, null, null, after, 7, descending));
+                slice.getContent().forEach(a -> seen.add(a.id()));
+                if (slice.hasContent()) after = AccreditationKey.of(slice.getContent().get(slice.getNumberOfElements() - 1));
+            } while (slice.hasNext());
+            assertThat(seen).hasSize(25).doesNotHaveDuplicates();
+        }
+
+        var pos1 = adapter.findSlice(new AccreditationSliceQuery(
+                "POS1", same, same.plusSeconds(100), null, 50, false));
+        assertThat(pos1.getContent()).hasSize(13).allSatisfy(a -> assertThat(a.pointOfSaleId()).isEqualTo("POS1"));
+        assertThat(pos1.hasNext()).isFalse();
+    }
+
+    @Test
+    void stream_readsRangeInDateOrder_withOnlyRequestedFields() {
+        springRepo.deleteAll();
+        Instant d = Instant.parse("2024-07-01T00:00:00Z");
+        adapter.saveAll(List.of(
+                new Accreditation(null, new BigDecimal("2.00"), "POS1", "Shop", d.plusSeconds(20)),
+                new Accreditation(null, new BigDecimal("1.00"), "POS1", "Shop", d.plusSeconds(10)),
+                new Accreditation(null, new BigDecimal("9.00"), "POS1", "Shop", d.plusSeconds(7_200))));
+
+        List<Accreditation> rows;
+        try (var stream = adapter.stream(null, d, d.plusSeconds(3_600), EnumSet.of(
+                AccreditationField.AMOUNT,
+                AccreditationField.RECEPTION_DATE))) {
+            rows = stream.toList();
+        }
+
+        assertThat(rows).extracting(Accreditation::amount)
+                .containsExactly(new BigDecimal("1.00"), new BigDecimal("2.00"));
+        assertThat(rows).allSatisfy(a -> {
+            assertThat(a.id()).isNull();
+            assertThat(a.pointOfSaleName()).isNull();
+        });
+    }
+
+    @Test
+    void archiveJob_movesOldMonthsToGzipFiles_andKeepsRecentOnes() throws Exception {
+        springRepo.deleteAll();
+        adapter.saveAll(List.of(
+                new Accreditation(null, BigDecimal.ONE, "POS1", null, Instant.parse("2023-01-10T00:00:00Z")),
+                new Accreditation(null, BigDecimal.TEN, "POS1", null, Instant.parse("2023-01-31T23:59:59Z")),
+                new Accreditation(null, BigDecimal.ONE, "POS2", null, Instant.parse("2023-03-05T00:00:00Z")),
+                new Accreditation(null, BigDecimal.ONE, "POS2", null, Instant.parse("2023-04-01T00:00:00Z"))));
+
+        var props = new AccreditationRetentionProperties();
+        props.setArchiveDir(archiveDir);
+        var job = new AccreditationArchiveJob(
+                mongoTemplate, mongoMapper, new ObjectMapper().findAndRegisterModules(), props);
+
+        List<Path> files = job.archiveBefore(YearMonth.of(2023, 4));
+
+        assertThat(files).extracting(f -> f.getFileName().toString())
+                .containsExactly("accreditations-2023-01.ndjson.gz", "accreditations-2023-03.ndjson.gz");
+        try (var in = new GZIPInputStream(Files.newInputStream(files.get(0)))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8).lines()).hasSize(2);
+        }
+        assertThat(springRepo.findAll()).singleElement()
+                .satisfies(d -> assertThat(d.getReceptionDate()).isEqualTo(Instant.parse("2023-04-01T00:00:00Z")));
+    }
+
+    @Test
+    void idempotencyClaim_concurrentClaimsAcquireOnce() throws Exception {
+        var draft = new Accreditation(null, new BigDecimal("5.00"), "POS1", null,
+                Instant.parse("2024-08-01T00:00:00Z"));
+        var pool = Executors.newFixedThreadPool(8);
+        List<Future<IdempotencyClaim>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) futures.add(pool.submit(() -> idempotency.claim("dup-key", draft)));
+        List<IdempotencyClaim> claims = new ArrayList<>();
+        for (var f : futures) claims.add(f.get());
+        pool.shutdown();
+
+        assertThat(claims).filteredOn(IdempotencyClaim::acquired).hasSize(1);
+        assertThat(claims).extracting(c -> c.accreditation().id()).containsOnly(claims.get(0).accreditation().id());
+
+        idempotency.release("dup-key");
+        assertThat(idempotency.claim("dup-key", draft).acquired()).isTrue();
+    }
+
+    @Test
+    void idempotencyClaim_staysPendingUntilStored_andAStaleClaimIsTakenOver() {
+        var draft = new Accreditation(null, new BigDecimal("5.00"), "POS1", null, Instant.parse("2024-08-01T00:00:00Z"));
+        IdempotencyClaim first = idempotency.claim("slow-key", draft);
+        assertThat(idempotency.claim("slow-key", draft).state()).isEqualTo(IdempotencyClaim.State.PENDING);
+
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is("slow-key")),
+                Update.update("claimedAt", Instant.now().minusSeconds(60)), AccreditationIdempotencyDocument.class);
+        IdempotencyClaim reclaimed = idempotency.claim("slow-key", draft);
+        assertThat(reclaimed.state()).isEqualTo(IdempotencyClaim.State.RECLAIMED);
+        assertThat(reclaimed.accreditation().id()).isEqualTo(first.accreditation().id());
+
+        idempotency.markStored("slow-key");
+        assertThat(idempotency.claim("slow-key", draft).state()).isEqualTo(IdempotencyClaim.State.STORED);
+    }
+
+    @Test
+    void findSummaries_seeksPageByPage_inDateOrder() {
+        springRepo.deleteAll();
+        Instant d = Instant.parse("2024-09-01T00:00:00Z");
+        adapter.saveAll(List.of(
+                new Accreditation(null, new BigDecimal("2.00"), "POS1", "Shop", d.plusSeconds(30)),
+                new Accreditation(null, new BigDecimal("1.00"), "POS1", "Shop", d),
+                new Accreditation(null, new BigDecimal("5.00"), "POS1", "Shop", d),
+                new Accreditation(null, new BigDecimal("3.00"), "POS1", "Shop", d.plusSeconds(60)),
+                new Accreditation(null, new BigDecimal("4.00"), "POS2", "Other", d)));
+
+        var first = adapter.findSummaries(new AccreditationSliceQuery("POS1", d, d.plusSeconds(60), null, 2, false));
+        AccreditationKey after = AccreditationKey.of(first.getContent().get(1));
+        var second = adapter.findSummaries(new AccreditationSliceQuery("POS1", d, d.plusSeconds(60), after, 2, false));
+
+        assertThat(first.getContent()).extracting(AccreditationSummary::receptionDate).containsExactly(d, d);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).extracting(AccreditationSummary::receptionDate)
+                .containsExactly(d.plusSeconds(30), d.plusSeconds(60));
+        assertThat(second.getContent()).allSatisfy(s -> assertThat(s.id()).isNotNull());
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    @Test
+    void findSummaries_isAnsweredFromTheIndex_onTheFirstAndLaterSlices() {
+        springRepo.deleteAll();
+        Instant d = Instant.parse("2024-09-01T00:00:00Z");
+        List<Accreditation> rows = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            rows.add(new Accreditation(null, BigDecimal.ONE, i % 2 == 0 ? "POS1" : "POS2", "Shop", d.plusSeconds(i / 4)));
+        }
+        adapter.saveAll(rows);
+        var first = adapter.findSummaries(new AccreditationSliceQuery("POS1", d, d.plusSeconds(60), null, 5, false));
+        AccreditationKey after = AccreditationKey.of(first.getContent().get(4));
+
+        for (AccreditationSliceQuery q : List.of(
+                new AccreditationSliceQuery("POS1", d, d.plusSeconds(60), null, 5, false),
+                new AccreditationSliceQuery("POS1", d, d.plusSeconds(60), after, 5, false),
+                new AccreditationSliceQuery("POS1", d, d.plusSeconds(60), after, 5, true))) {
+            Document stats = explain(AccreditationMongoAdapter.summariesQuery(q)).get("executionStats", Document.class);
+            assertThat(stats.getInteger("totalDocsExamined")).as("docs examined for %s", q).isZero();
+            assertThat(stats.getInteger("nReturned")).isPositive();
+        }
+    }
+
+    private Document explain(Query query) {
+        MongoConverter converter = mongoTemplate.getConverter();
+        Document filter = new QueryMapper(converter).getMappedObject(query.getQueryObject(),
+                converter.getMappingContext().getPersistentEntity(AccreditationDocument.class));
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(AccreditationDocument.class))
+                .find(filter)
+                .projection(query.getFieldsObject())
+                .sort(query.getSortObject())
+                .hintString(query.getHint())
+                .limit(query.getLimit())
+                .explain(ExplainVerbosity.EXECUTION_STATS);
+    }
 }
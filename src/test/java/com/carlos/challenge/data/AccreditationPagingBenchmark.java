@@ -0,0 +1,114 @@
+package com.carlos.challenge.data;
+
+import com.carlos.challenge.domain.model.Accreditation;
+import com.carlos.challenge.domain.model.AccreditationKey;
+import com.carlos.challenge.domain.model.AccreditationSliceQuery;
+import com.carlos.challenge.infrastructure.config.AccreditationRetentionProperties;
+import com.carlos.challenge.infrastructure.config.AccreditationStorageProperties;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.adapter.AccreditationDailyTotalsStore;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.adapter.AccreditationMongoAdapter;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.entity.AccreditationDocument;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.mapper.AccreditationMongoMapperImpl;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.migration.MongoIndexMigration;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.repository.AccreditationMongoRepository;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.testcontainers.containers.MongoDBContainer;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of "page 10,000" (size 20) with offset paging ({@code Page}: skip + count) against a
+ * keyset seek from the equivalent cursor. Needs Docker; the collection is filled once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccreditationPagingBenchmark {
+
+    private static final int PAGE = 10_000;
+    private static final int SIZE = 20;
+    private static final int DOCUMENTS = (PAGE + 1) * SIZE + 1_000;
+    private static final int INSERT_BATCH = 5_000;
+
+    private MongoDBContainer mongo;
+    private MongoClient client;
+    private AccreditationMongoRepository repository;
+    private AccreditationMongoAdapter adapter;
+    private AccreditationKey cursorAtPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mongo = new MongoDBContainer("mongo:7.0.14");
+        mongo.start();
+        client = MongoClients.create(mongo.getConnectionString());
+        MongoTemplate template = new MongoTemplate(client, "bench");
+
+        new MongoIndexMigration(template).migrate();
+
+        repository = new MongoRepositoryFactory(template).getRepository(AccreditationMongoRepository.class);
+        adapter = new AccreditationMongoAdapter(repository, new AccreditationMongoMapperImpl(), template,
+                new AccreditationDailyTotalsStore(template, new AccreditationRetentionProperties(), new SimpleMeterRegistry()),
+                new AccreditationStorageProperties());
+
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        List<Accreditation> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < DOCUMENTS; i++) {
+            batch.add(new Accreditation(null, BigDecimal.valueOf(i % 1_000, 2), "POS" + (i % 50), null,
+                    start.plusSeconds(i / 3)));
+            if (batch.size() == INSERT_BATCH) {
+                adapter.saveAll(batch);
+                batch.clear();
+            }
+        }
+        adapter.saveAll(batch);
+
+        AccreditationDocument last = repository.findAll(PageRequest.of(PAGE - 1, SIZE, sort())).getContent().get(SIZE - 1);
+        cursorAtPage = new AccreditationKey(last.getReceptionDate(), last.getId());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (client != null) client.close();
+        if (mongo != null) mongo.stop();
+    }
+
+    @Benchmark
+    public List<AccreditationDocument> offsetPage() {
+        return repository.findAll(PageRequest.of(PAGE, SIZE, sort())).getContent();
+    }
+
+    @Benchmark
+    public List<Accreditation> keysetPage() {
+        Slice<Accreditation> slice = adapter.findSlice(new AccreditationSliceQuery(null, null, null, cursorAtPage, SIZE, false));
+        return slice.getContent();
+    }
+
+    private static Sort sort() {
+        return Sort.by("receptionDate").and(Sort.by("_id"));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opts = new OptionsBuilder()
+                .include(AccreditationPagingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opts).run();
+    }
+}
@@ -1,14 +1,28 @@
 package com.carlos.challenge.domain;
 
+import com.carlos.challenge.domain.exception.IdempotencyKeyConflictException;
+import com.carlos.challenge.domain.exception.IdempotencyKeyInProgressException;
 import com.carlos.challenge.domain.model.Accreditation;
+import com.carlos.challenge.domain.model.AccreditationDailyTotal;
+import com.carlos.challenge.domain.model.AccreditationTotals;
+import com.carlos.challenge.domain.model.AccreditationWriteResult;
+import com.carlos.challenge.domain.model.IdempotencyClaim;
+import com.carlos.challenge.domain.model.PointOfSale;
+import com.carlos.challenge.domain.port.out.AccreditationIdempotencyPort;
 import com.carlos.challenge.domain.port.out.AccreditationRepositoryPort;
+import com.carlos.challenge.domain.port.out.PointOfSaleRepositoryPort;
 import com.carlos.challenge.infrastructure.in.web.service.AccreditationUseCaseService;
+import com.carlos.challenge.infrastructure.in.web.service.PointOfSaleNameCache;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.data.domain.*;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -18,6 +32,7 @@ class AccreditationUseCaseServiceTest {
     @Test
     void create_delegatesToRepository() {
         AccreditationRepositoryPort repo = mock(AccreditationRepositoryPort.class);
+        PointOfSaleRepositoryPort posRepo = mock(PointOfSaleRepositoryPort.class);
         BigDecimal amount = new BigDecimal("30.50");
         String pointOfSaleId = "POS1";
         Accreditation acc = new Accreditation(
@@ -25,7 +40,8 @@ class AccreditationUseCaseServiceTest {
         );
         when(repo.save(any())).thenReturn(acc);
 
-        AccreditationUseCaseService svc = new AccreditationUseCaseService(repo);
+        AccreditationUseCaseService svc = new AccreditationUseCaseService(repo, new PointOfSaleNameCache(posRepo),
+                Optional.empty(), Optional.empty());
         Accreditation out = svc.create(amount, pointOfSaleId);
 
         assertThat(out).isSameAs(acc);
@@ -35,16 +51,187 @@ class AccreditationUseCaseServiceTest {
     @Test
     void list_filtersAndPaginates() {
         AccreditationRepositoryPort repo = mock(AccreditationRepositoryPort.class);
+        PointOfSaleRepositoryPort posRepo = mock(PointOfSaleRepositoryPort.class);
         Page<Accreditation> page = new PageImpl<>(List.of(
                 new Accreditation("a1", new BigDecimal("1.00"), "P1","Point 1", Instant.now())
         ), PageRequest.of(0, 20), 1);
 
         when(repo.findAll(any())).thenReturn(page);
 
-        AccreditationUseCaseService svc = new AccreditationUseCaseService(repo);
+        AccreditationUseCaseService svc = new AccreditationUseCaseService(repo, new PointOfSaleNameCache(posRepo),
+                Optional.empty(), Optional.empty());
         Page<Accreditation> out = svc.findAll(PageRequest.of(0,20));
 
         assertThat(out.getTotalElements()).isEqualTo(1);
         verify(repo).findAll(PageRequest.of(0,20));
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createAll_stampsDateAndDelegatesOneBatch() {
+        AccreditationRepositoryPort repo = mock(AccreditationRepositoryPort.class);
+        PointOfSaleRepositoryPort posRepo = mock(PointOfSaleRepositoryPort.class);
+        when(posRepo.findById("P1")).thenReturn(Optional.of(new PointOfSale("P1", "Point 1", 1)));
+        when(repo.saveAll(anyList())).thenReturn(List.of(
+                AccreditationWriteResult.stored(0, "a1"), AccreditationWriteResult.stored(1, "a2")));
+
+        AccreditationUseCaseService svc = new AccreditationUseCaseService(repo, new PointOfSaleNameCache(posRepo),
+                Optional.empty(), Optional.empty());
+        List<AccreditationWriteResult> out = svc.createAll(List.of(
+                new Accreditation("ignored", new BigDecimal("1.00"), "P1", "ignored", null),
+                new Accreditation(null, new BigDecimal("2.00"), "P2", null, null)));
+
+        assertThat(out).extracting(AccreditationWriteResult::id).containsExactly("a1", "a2");
+        ArgumentCaptor<List<Accreditation>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repo).saveAll(captor.capture());
+        assertThat(captor.getValue()).allSatisfy(a -> {
+            assertThat(a.id()).isNull();
+            assertThat(a.receptionDate()).isNotNull();
+        });
+        assertThat(captor.getValue()).extracting(Accreditation::pointOfSaleName).containsExactly("Point 1", null);
+    }
+
+    @Test
+    void create_denormalizesPosName_fromCachedLookup() {
+        AccreditationRepositoryPort repo = mock(AccreditationRepositoryPort.class);
+        PointOfSaleRepositoryPort posRepo = mock(PointOfSaleRepositoryPort.class);
+        when(posRepo.findById("P1")).thenReturn(Optional.of(new PointOfSale("P1", "Point 1", 1)));
+        when(repo.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        AccreditationUseCaseService svc = new AccreditationUseCaseService(repo, new PointOfSaleNameCache(posRepo),
+                Optional.empty(), Optional.empty());
+        assertThat(svc.create(BigDecimal.ONE, "P1").pointOfSaleName()).isEqualTo("Point 1");
+        assertThat(svc.create(BigDecimal.TEN, "P1").pointOfSaleName()).isEqualTo("Point 1");
+        verify(posRepo, times(1)).findById("P1");
+
+        when(posRepo.findById("P1")).thenReturn(Optional.of(new PointOfSale("P1", "Renamed", 1)));
+        when(repo.updatePointOfSaleName("P1", "Renamed")).thenReturn(2L);
+        assertThat(svc.refreshPointOfSaleName("P1", "Renamed")).isEqualTo(2L);
+        assertThat(svc.create(BigDecimal.ONE, "P1").pointOfSaleName()).isEqualTo("Renamed");
+    }
+
+    @Test
+    void totals_sumsDailyRollupRows() {
+        AccreditationRepositoryPort repo = mock(AccreditationRepositoryPort.class);
+        PointOfSaleRepositoryPort posRepo = mock(PointOfSaleRepositoryPort.class);
+        LocalDate from = LocalDate.parse("2024-01-01");
+        LocalDate to = LocalDate.parse("2024-01-31");
+        when(repo.findDailyTotals("P1", from, to)).thenReturn(List.of(
+                new AccreditationDailyTotal("P1", from, new BigDecimal("10.25"), 3),
+                new AccreditationDailyTotal("P1", to, new BigDecimal("4.75"), 2)));
+
+        AccreditationUseCaseService svc = new AccreditationUseCaseService(repo, new PointOfSaleNameCache(posRepo),
+                Optional.empty(), Optional.empty());
+        AccreditationTotals out = svc.totals("P1", from, to);
+
+        assertThat(out.total()).isEqualByComparingTo("15.00");
+        assertThat(out.count()).isEqualTo(5);
+        assertThat(out.daily()).hasSize(2);
+    }
+
+    @Test
+    void createWithKey_storesOnce_thenAnswersRetriesFromLocalCache() {
+        AccreditationRepositoryPort repo = mock(AccreditationRepositoryPort.class);
+        AccreditationIdempotencyPort keys = mock(AccreditationIdempotencyPort.class);
+        when(keys.claim(eq("K1"), any())).thenAnswer(inv -> {
+            Accreditation d = inv.getArgument(1);
+            return new IdempotencyClaim(new Accreditation("A1", d.amount(), d.pointOfSaleId(), null, d.receptionDate()),
+                    IdempotencyClaim.State.ACQUIRED);
+        });
+        when(repo.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        AccreditationUseCaseService svc = new AccreditationUseCaseService(repo,
+                new PointOfSaleNameCache(mock(PointOfSaleRepositoryPort.class)), Optional.empty(), Optional.of(keys));
+        Accreditation first = svc.create(BigDecimal.ONE, "P1", "K1");
+        Accreditation retry = svc.create(new BigDecimal("1.00"), "P1", "K1");
+
+        assertThat(retry).isEqualTo(first);
+        assertThat(first.id()).isEqualTo("A1");
+        verify(keys, times(1)).claim(eq("K1"), any());
+        verify(repo, times(1)).save(any());
+        verify(keys).markStored("K1");
+        assertThatThrownBy(() -> svc.create(BigDecimal.TEN, "P1", "K1"))
+                .isInstanceOf(IdempotencyKeyConflictException.class);
+    }
+
+    @Test
+    void createWithKey_claimedElsewhere_returnsRecordedAccreditationWithoutWriting() {
+        AccreditationRepositoryPort repo = mock(AccreditationRepositoryPort.class);
+        AccreditationIdempotencyPort keys = mock(AccreditationIdempotencyPort.class);
+        Accreditation recorded = new Accreditation("A9", BigDecimal.ONE, "P1", null, Instant.parse("2024-01-01T00:00:00Z"));
+        when(keys.claim(eq("K2"), any())).thenReturn(new IdempotencyClaim(recorded, IdempotencyClaim.State.STORED));
+
+        AccreditationUseCaseService svc = new AccreditationUseCaseService(repo,
+                new PointOfSaleNameCache(mock(PointOfSaleRepositoryPort.class)), Optional.empty(), Optional.of(keys));
+
+        assertThat(svc.create(BigDecimal.ONE, "P1", "K2")).isSameAs(recorded);
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    void createWithKey_releasesClaimWhenStoreFails() {
+        AccreditationRepositoryPort repo = mock(AccreditationRepositoryPort.class);
+        AccreditationIdempotencyPort keys = mock(AccreditationIdempotencyPort.class);
+        when(keys.claim(eq("K3"), any())).thenAnswer(inv -> new IdempotencyClaim(inv.getArgument(1), IdempotencyClaim.State.ACQUIRED));
+        when(repo.save(any())).thenThrow(new org.springframework.dao.DataAccessResourceFailureException("down"));
+
+        AccreditationUseCaseService svc = new AccreditationUseCaseService(repo,
+                new PointOfSaleNameCache(mock(PointOfSaleRepositoryPort.class)), Optional.empty(), Optional.of(keys));
+
+        assertThatThrownBy(() -> svc.create(BigDecimal.ONE, "P1", "K3"))
+                .isInstanceOf(org.springframework.dao.DataAccessResourceFailureException.class);
+        verify(keys).release("K3");
+        verify(keys, never()).markStored(any());
+    }
+
+    @Test
+    void createWithKey_onAVirtualThread_waitsForAPendingClaimToBeStored() throws Exception {
+        AccreditationRepositoryPort repo = mock(AccreditationRepositoryPort.class);
+        AccreditationIdempotencyPort keys = mock(AccreditationIdempotencyPort.class);
+        Accreditation recorded = new Accreditation("A4", BigDecimal.ONE, "P1", null, Instant.parse("2024-01-01T00:00:00Z"));
+        when(keys.claim(eq("K4"), any())).thenReturn(
+                new IdempotencyClaim(recorded, IdempotencyClaim.State.PENDING),
+                new IdempotencyClaim(recorded, IdempotencyClaim.State.STORED));
+
+        AccreditationUseCaseService svc = new AccreditationUseCaseService(repo,
+                new PointOfSaleNameCache(mock(PointOfSaleRepositoryPort.class)), Optional.empty(), Optional.of(keys));
+
+        AtomicReference<Accreditation> created = new AtomicReference<>();
+        Thread.ofVirtual().start(() -> created.set(svc.create(BigDecimal.ONE, "P1", "K4"))).join();
+        assertThat(created.get()).isSameAs(recorded);
+        verify(keys, times(2)).claim(eq("K4"), any());
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    void createWithKey_pendingOnAPlatformThread_asksTheClientToRetryRightAway() {
+        AccreditationRepositoryPort repo = mock(AccreditationRepositoryPort.class);
+        AccreditationIdempotencyPort keys = mock(AccreditationIdempotencyPort.class);
+        Accreditation recorded = new Accreditation("A5", BigDecimal.ONE, "P1", null, Instant.parse("2024-01-01T00:00:00Z"));
+        when(keys.claim(eq("K5"), any())).thenReturn(new IdempotencyClaim(recorded, IdempotencyClaim.State.PENDING));
+
+        AccreditationUseCaseService svc = new AccreditationUseCaseService(repo,
+                new PointOfSaleNameCache(mock(PointOfSaleRepositoryPort.class)), Optional.empty(), Optional.of(keys));
+
+        assertThatThrownBy(() -> svc.create(BigDecimal.ONE, "P1", "K5"))
+                .isInstanceOf(IdempotencyKeyInProgressException.class);
+        verify(keys, times(1)).claim(eq("K5"), any());
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    void createWithKey_reclaimedAfterTheStoreLanded_doesNotWriteAgain() {
+        AccreditationRepositoryPort repo = mock(AccreditationRepositoryPort.class);
+        AccreditationIdempotencyPort keys = mock(AccreditationIdempotencyPort.class);
+        Accreditation recorded = new Accreditation("A6", BigDecimal.ONE, "P1", null, Instant.parse("2024-01-01T00:00:00Z"));
+        when(keys.claim(eq("K6"), any())).thenReturn(new IdempotencyClaim(recorded, IdempotencyClaim.State.RECLAIMED));
+        when(repo.findById("A6")).thenReturn(Optional.of(recorded));
+
+        AccreditationUseCaseService svc = new AccreditationUseCaseService(repo,
+                new PointOfSaleNameCache(mock(PointOfSaleRepositoryPort.class)), Optional.empty(), Optional.of(keys));
+
+        assertThat(svc.create(BigDecimal.ONE, "P1", "K6")).isSameAs(recorded);
+        verify(repo, never()).save(any());
+        verify(keys).markStored("K6");
+    }
 }
@@ -3,6 +3,7 @@ package com.carlos.challenge.domain;
 import com.carlos.challenge.domain.model.PointOfSale;
 import com.carlos.challenge.domain.model.graph.MinPaths;
 import com.carlos.challenge.domain.model.graph.Neighbor;
+import com.carlos.challenge.domain.model.graph.ShortestPathDag;
 import com.carlos.challenge.domain.port.in.PointOfSaleUseCasePort;
 import com.carlos.challenge.infrastructure.in.web.service.GraphUseCaseService;
 import org.junit.jupiter.api.BeforeEach;
@@ -74,6 +75,26 @@ class GraphUseCaseServiceTest {
         }
     }
 
+    @Test
+    void shortestPathDag_keepsOnlyNodesOnMinimumPaths() {
+        service.upsertEdge("A", "B", 1);
+        service.upsertEdge("A", "C", 1);
+        service.upsertEdge("B", "D", 1);
+        service.upsertEdge("C", "D", 1);
+        service.upsertEdge("A", "E", 1);
+        service.upsertEdge("E", "D", 5);
+
+        ShortestPathDag dag = service.shortestPathDag("A", "D");
+
+        assertThat(dag.totalCost()).isEqualTo(2);
+        assertThat(dag.nodes()).hasSize(4).doesNotContain("E");
+        assertThat(dag.nodes().get(0)).isEqualTo("A");
+        assertThat(dag.nodes().get(3)).isEqualTo("D");
+        assertThat(dag.predecessors().get("D")).containsExactlyInAnyOrder("B", "C");
+        assertThat(dag.predecessors().get("B")).containsExactly("A");
+        assertThat(dag.predecessors().get("A")).isEmpty();
+    }
+
     @Test
     void upsertEdge_negativeCost_throws() {
         assertThatThrownBy(() -> service.upsertEdge("X", "Y", -1))
@@ -87,4 +108,18 @@ class GraphUseCaseServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Reflexive edge");
     }
+
+    @Test
+    void version_increasesOnEveryWrite_andNotOnReads() {
+        long v0 = service.version();
+        service.upsertEdge("A", "B", 1);
+        long v1 = service.version();
+        service.neighborsOf("A");
+        service.shortestPaths("A", "B");
+        assertThat(service.version()).isEqualTo(v1);
+
+        service.removeEdge("A", "B");
+        assertThat(v1).isGreaterThan(v0);
+        assertThat(service.version()).isGreaterThan(v1);
+    }
 }
@@ -1,9 +1,14 @@
 package com.carlos.challenge.domain;
 
 import com.carlos.challenge.domain.model.PointOfSale;
+import com.carlos.challenge.domain.model.PointOfSaleRenamed;
 import com.carlos.challenge.domain.port.out.PointOfSaleRepositoryPort;
+import com.carlos.challenge.infrastructure.in.web.service.PointOfSaleIdResolver;
+import com.carlos.challenge.infrastructure.in.web.service.PointOfSaleNameCache;
 import com.carlos.challenge.infrastructure.in.web.service.PointOfSaleUseCaseService;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,7 +20,9 @@ class PointOfSaleUseCaseServiceTest {
     @Test
     void create_read_update_delete() {
         PointOfSaleRepositoryPort repo = mock(PointOfSaleRepositoryPort.class);
-        PointOfSaleUseCaseService svc = new PointOfSaleUseCaseService(repo);
+        ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+        PointOfSaleNameCache posNames = mock(PointOfSaleNameCache.class);
+        PointOfSaleUseCaseService svc = new PointOfSaleUseCaseService(repo, new PointOfSaleIdResolver(repo), posNames, events);
 
         PointOfSale created = new PointOfSale("id-1", "Alpha", 1001);
         when(repo.save(new PointOfSale(null, "Alpha", null))).thenReturn(created);
@@ -28,18 +35,65 @@ class PointOfSaleUseCaseServiceTest {
         when(repo.findById("id-1")).thenReturn(Optional.of(created));
         when(repo.save(new PointOfSale("id-1", "Alpha 2", 1001))).thenReturn(updated);
         assertThat(svc.update("id-1", "Alpha 2")).isEqualTo(updated);
+        InOrder order = inOrder(posNames, events);
+        order.verify(posNames).evict("id-1");
+        order.verify(events).publishEvent(new PointOfSaleRenamed("id-1", "Alpha", "Alpha 2"));
 
         doNothing().when(repo).deleteById("id-1");
         svc.delete("id-1");
         verify(repo).deleteById("id-1");
     }
 
+    @Test
+    void update_ofARecordStoredWithoutAName_isARename() {
+        PointOfSaleRepositoryPort repo = mock(PointOfSaleRepositoryPort.class);
+        ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+        PointOfSaleNameCache posNames = mock(PointOfSaleNameCache.class);
+        PointOfSaleUseCaseService svc = new PointOfSaleUseCaseService(repo, new PointOfSaleIdResolver(repo), posNames, events);
+
+        when(repo.findById("id-1")).thenReturn(Optional.of(new PointOfSale("id-1", null, 1001)));
+        when(repo.save(new PointOfSale("id-1", "Alpha", 1001))).thenReturn(new PointOfSale("id-1", "Alpha", 1001));
+
+        svc.update("id-1", "Alpha");
+        verify(posNames).evict("id-1");
+        verify(events).publishEvent(new PointOfSaleRenamed("id-1", null, "Alpha"));
+    }
+
     @Test
     void listAll() {
         PointOfSaleRepositoryPort repo = mock(PointOfSaleRepositoryPort.class);
-        PointOfSaleUseCaseService svc = new PointOfSaleUseCaseService(repo);
+        ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+        PointOfSaleNameCache posNames = mock(PointOfSaleNameCache.class);
+        PointOfSaleUseCaseService svc = new PointOfSaleUseCaseService(repo, new PointOfSaleIdResolver(repo), posNames, events);
         PointOfSale pos = new PointOfSale("a", "A", 100);
         when(repo.findAll()).thenReturn(List.of(pos));
         assertThat(svc.findAll()).hasSize(1).contains(pos);
     }
+
+    @Test
+    void resolveId_dropsACachedCodeOnceItsPointNoLongerCarriesIt() {
+        PointOfSaleRepositoryPort repo = mock(PointOfSaleRepositoryPort.class);
+        PointOfSaleUseCaseService svc = new PointOfSaleUseCaseService(repo, new PointOfSaleIdResolver(repo),
+                mock(PointOfSaleNameCache.class), mock(ApplicationEventPublisher.class));
+
+        when(repo.version()).thenReturn(1L);
+        when(repo.resolveId("1001")).thenReturn("id-1");
+        assertThat(svc.resolveId("1001")).isEqualTo("id-1");
+        // nothing written since: trusted without reading the record
+        assertThat(svc.resolveId("1001")).isEqualTo("id-1");
+        verify(repo, never()).findById(anyString());
+
+        // code 1001 moved to id-2 on another node, which is the only one that evicted
+        when(repo.version()).thenReturn(2L);
+        when(repo.findById("id-1")).thenReturn(Optional.of(new PointOfSale("id-1", "Alpha", 1002)));
+        when(repo.resolveId("1001")).thenReturn("id-2");
+        assertThat(svc.resolveId("1001")).isEqualTo("id-2");
+
+        when(repo.version()).thenReturn(3L);
+        when(repo.findById("id-2")).thenReturn(Optional.of(new PointOfSale("id-2", "Beta", 1001)));
+        assertThat(svc.resolveId("1001")).isEqualTo("id-2");
+        assertThat(svc.resolveId("1001")).isEqualTo("id-2");
+        verify(repo, times(2)).resolveId("1001");
+        verify(repo, times(1)).findById("id-2");
+    }
 }
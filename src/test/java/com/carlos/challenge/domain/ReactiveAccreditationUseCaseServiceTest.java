@@ -0,0 +1,66 @@
+package com.carlos.challenge.domain;
+
+import com.carlos.challenge.domain.model.Accreditation;
+import com.carlos.challenge.domain.model.PointOfSale;
+import com.carlos.challenge.domain.port.out.PointOfSaleRepositoryPort;
+import com.carlos.challenge.domain.port.out.ReactiveAccreditationRepositoryPort;
+import com.carlos.challenge.infrastructure.in.web.service.PointOfSaleNameCache;
+import com.carlos.challenge.infrastructure.in.web.service.ReactiveAccreditationUseCaseService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReactiveAccreditationUseCaseServiceTest {
+
+    final ReactiveAccreditationRepositoryPort repo = mock(ReactiveAccreditationRepositoryPort.class);
+    final PointOfSaleRepositoryPort posRepo = mock(PointOfSaleRepositoryPort.class);
+    final ReactiveAccreditationUseCaseService service =
+            new ReactiveAccreditationUseCaseService(repo, new PointOfSaleNameCache(posRepo));
+
+    @Test
+    void create_denormalizesPosName() {
+        when(posRepo.findById("P1")).thenReturn(Optional.of(new PointOfSale("P1", "Shop", 1)));
+        when(repo.save(any())).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+
+        Accreditation saved = service.create(new BigDecimal("10.00"), "P1").block();
+
+        ArgumentCaptor<Accreditation> captor = ArgumentCaptor.forClass(Accreditation.class);
+        verify(repo).save(captor.capture());
+        assertThat(captor.getValue().pointOfSaleName()).isEqualTo("Shop");
+        assertThat(saved.receptionDate()).isNotNull();
+    }
+
+    @Test
+    void find_picksQueryByFilters_andRejectsHalfOpenOrInvertedRanges() {
+        Instant from = Instant.parse("2025-01-01T00:00:00Z");
+        Instant to = Instant.parse("2025-02-01T00:00:00Z");
+        when(repo.findByDateBetween(from, to)).thenReturn(Flux.empty());
+        when(repo.findByPointOfSale("P1")).thenReturn(Flux.empty());
+
+        service.find(null, from, to).blockLast();
+        service.find("P1", null, null).blockLast();
+        verify(repo).findByDateBetween(from, to);
+        verify(repo).findByPointOfSale("P1");
+
+        assertThatThrownBy(() -> service.find("P1", from, null).blockLast()).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.find(null, to, from).blockLast()).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.find(null, null, null).blockLast()).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void findById_missing_errors() {
+        when(repo.findById("X")).thenReturn(Mono.empty());
+
+        assertThatThrownBy(() -> service.findById("X").block())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("X");
+    }
+}
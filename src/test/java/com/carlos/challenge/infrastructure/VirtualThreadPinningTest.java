@@ -0,0 +1,150 @@
+package com.carlos.challenge.infrastructure;
+
+import com.carlos.challenge.domain.model.PointOfSale;
+import com.carlos.challenge.domain.port.in.PointOfSaleUseCasePort;
+import com.carlos.challenge.infrastructure.in.web.security.CachingAuthenticationProvider;
+import com.carlos.challenge.infrastructure.in.web.service.GraphUseCaseService;
+import com.carlos.challenge.infrastructure.out.persistence.cache.adapter.PointOfSaleCacheAdapter;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the lock-holding paths that serve requests on virtual threads while JFR records
+ * {@code jdk.VirtualThreadPinned}. Blocking I/O is simulated with a short sleep in the stubs;
+ * a virtual thread that parks while holding a monitor would surface as a pinned event.
+ */
+class VirtualThreadPinningTest {
+
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+    private static final int TASKS = 400;
+    private static final long IO_MILLIS = 2;
+
+    private final Object monitor = new Object();
+
+    @Test
+    void graphStampedLock_isNotPinned() throws Exception {
+        GraphUseCaseService graph = new GraphUseCaseService(slowPoints());
+        for (int i = 0; i < 20; i++) graph.upsertEdge("P" + i, "P" + (i + 1), i + 1);
+
+        List<RecordedEvent> pinned = recordPinned(i -> {
+            switch (i % 4) {
+                case 0 -> graph.upsertEdge("P" + (i % 21), "P" + ((i + 7) % 21), 1 + i % 9);
+                case 1 -> graph.neighborsOf("P" + (i % 21));
+                default -> graph.shortestPaths("P0", "P" + (1 + i % 20));
+            }
+        });
+
+        assertThat(pinned).isEmpty();
+    }
+
+    @Test
+    void cacheAdapterAndAuthCache_areNotPinned() throws Exception {
+        PointOfSaleCacheAdapter cache = new PointOfSaleCacheAdapter();
+        CachingAuthenticationProvider auth = slowAuthProvider();
+
+        List<RecordedEvent> pinned = recordPinned(i -> {
+            if (i % 2 == 0) {
+                cache.save(new PointOfSale(null, "VT" + i, null));
+            } else {
+                auth.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("admin", "secret"));
+            }
+        });
+
+        assertThat(pinned).isEmpty();
+    }
+
+    @Test
+    void sleepingInsideMonitor_isReportedAsPinned() throws Exception {
+        List<RecordedEvent> pinned = recordPinned(i -> {
+            synchronized (monitor) {
+                sleepIo();
+            }
+        });
+
+        assertThat(pinned).isNotEmpty();
+    }
+
+    private interface Task {
+        void run(int i) throws Exception;
+    }
+
+    private static List<RecordedEvent> recordPinned(Task task) throws Exception {
+        List<RecordedEvent> events = new CopyOnWriteArrayList<>();
+        try (RecordingStream rs = new RecordingStream()) {
+            rs.enable(PINNED).withThreshold(Duration.ZERO).withStackTrace();
+            rs.onEvent(PINNED, events::add);
+            rs.startAsync();
+
+            try (ExecutorService vts = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>(TASKS);
+                for (int i = 0; i < TASKS; i++) {
+                    int n = i;
+                    futures.add(vts.submit(() -> {
+                        task.run(n);
+                        return null;
+                    }));
+                }
+                for (Future<?> f : futures) f.get(30, TimeUnit.SECONDS);
+            }
+            rs.stop();
+        }
+        return events;
+    }
+
+    // a repository round trip: the read happens outside any lock and parks the virtual thread
+    private static PointOfSaleUseCasePort slowPoints() {
+        return (PointOfSaleUseCasePort) Proxy.newProxyInstance(
+                PointOfSaleUseCasePort.class.getClassLoader(),
+                new Class<?>[]{PointOfSaleUseCasePort.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("findById")) throw new UnsupportedOperationException(method.getName());
+                    sleepIo();
+                    String id = (String) args[0];
+                    return new PointOfSale(id, id, 1);
+                });
+    }
+
+    private static CachingAuthenticationProvider slowAuthProvider() {
+        PasswordEncoder slowEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence raw) {
+                return raw.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence raw, String encoded) {
+                sleepIo();
+                return raw.toString().equals(encoded);
+            }
+        };
+        DaoAuthenticationProvider dao = new DaoAuthenticationProvider(slowEncoder);
+        dao.setUserDetailsService(new InMemoryUserDetailsManager(
+                User.withUsername("admin").password("secret").roles("ADMIN").build()));
+        return new CachingAuthenticationProvider(dao, () -> 1, Duration.ofMinutes(1));
+    }
+
+    private static void sleepIo() {
+        try {
+            Thread.sleep(IO_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.carlos.challenge.infrastructure.in.event;
+
+import com.carlos.challenge.domain.model.PointOfSale;
+import com.carlos.challenge.domain.model.PointOfSaleRenamed;
+import com.carlos.challenge.domain.port.in.AccreditationUseCasePort;
+import com.carlos.challenge.domain.port.in.PointOfSaleUseCasePort;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PointOfSaleRenamedListenerTest {
+
+    final AccreditationUseCasePort accreditations = mock(AccreditationUseCasePort.class);
+    final PointOfSaleUseCasePort points = mock(PointOfSaleUseCasePort.class);
+    final TaskScheduler scheduler = mock(TaskScheduler.class);
+    final PointOfSaleRenamedListener listener = new PointOfSaleRenamedListener(accreditations, points, scheduler);
+
+    @Test
+    void updatesNow_andAgainOnceTheNameCachesExpired() {
+        PointOfSaleRenamed event = new PointOfSaleRenamed("P1", "Old", "New");
+        when(points.findById("P1")).thenReturn(new PointOfSale("P1", "New", 1));
+
+        listener.onRenamed(event);
+        verify(accreditations).refreshPointOfSaleName("P1", "New");
+
+        ArgumentCaptor<Runnable> secondPass = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(secondPass.capture(), any(Instant.class));
+        secondPass.getValue().run();
+        verify(accreditations, times(2)).refreshPointOfSaleName("P1", "New");
+    }
+
+    @Test
+    void secondPass_skippedWhenRenamedAgain() {
+        when(points.findById("P1")).thenReturn(new PointOfSale("P1", "Newer", 1));
+
+        listener.secondPass(new PointOfSaleRenamed("P1", "Old", "New"));
+
+        verifyNoInteractions(accreditations);
+    }
+}
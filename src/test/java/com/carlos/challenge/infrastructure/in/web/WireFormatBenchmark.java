@@ -0,0 +1,128 @@
+package com.carlos.challenge.infrastructure.in.web;
+
+import com.carlos.challenge.infrastructure.in.web.dto.resp.AccreditationResponse;
+import com.carlos.challenge.infrastructure.in.web.dto.resp.MinPathsResponse;
+import com.carlos.challenge.infrastructure.in.web.dto.resp.PathDetail;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode time of the two payloads the terminals exchange most, as JSON and as CBOR, with
+ * mappers configured like the application's converters. Payload sizes are printed before the run.
+ * CBOR gains most on the accreditation page (numbers and dates); path ids are strings in both
+ * formats, so on min-paths the gain is mostly the dropped quotes and separators.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<List<AccreditationResponse>> PAGE = new TypeReference<>() {};
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private List<AccreditationResponse> page;
+    private MinPathsResponse paths;
+    private byte[] pageBytes;
+    private byte[] pathsBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        mapper = mapper(format);
+        page = accreditations(500);
+        paths = minPaths(32, 8);
+        pageBytes = mapper.writeValueAsBytes(page);
+        pathsBytes = mapper.writeValueAsBytes(paths);
+    }
+
+    @Benchmark
+    public byte[] encodeAccreditationPage() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public List<AccreditationResponse> decodeAccreditationPage() throws IOException {
+        return mapper.readValue(pageBytes, PAGE);
+    }
+
+    @Benchmark
+    public byte[] encodeMinPaths() throws IOException {
+        return mapper.writeValueAsBytes(paths);
+    }
+
+    @Benchmark
+    public MinPathsResponse decodeMinPaths() throws IOException {
+        return mapper.readValue(pathsBytes, MinPathsResponse.class);
+    }
+
+    static ObjectMapper mapper(String format) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if ("cbor".equals(format)) builder.factory(new CBORFactory());
+        return builder.build();
+    }
+
+    static List<AccreditationResponse> accreditations(int n) {
+        Instant base = Instant.parse("2025-01-01T00:00:00Z");
+        List<AccreditationResponse> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            out.add(new AccreditationResponse(String.format("65f0c0ffee%014x", i),
+                    BigDecimal.valueOf(1_000 + i * 37L, 2), UUID.randomUUID().toString(), "Point of Sale " + (i % 50),
+                    base.plusSeconds(i * 61L)));
+        }
+        return out;
+    }
+
+    static MinPathsResponse minPaths(int pathCount, int length) {
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < length * 4; i++) nodes.add(UUID.randomUUID().toString());
+        List<PathDetail> details = new ArrayList<>(pathCount);
+        for (int p = 0; p < pathCount; p++) {
+            List<String> ids = new ArrayList<>(length);
+            List<String> names = new ArrayList<>(length);
+            List<Integer> codes = new ArrayList<>(length);
+            for (int k = 0; k < length; k++) {
+                int node = (k * 4 + (p >> k) % 4) % nodes.size();
+                ids.add(nodes.get(node));
+                names.add("Point of Sale " + node);
+                codes.add(1_000 + node);
+            }
+            details.add(new PathDetail(ids, names, codes));
+        }
+        return new MinPathsResponse(length * 3, details);
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        List<AccreditationResponse> page = accreditations(500);
+        MinPathsResponse paths = minPaths(32, 8);
+        for (String f : List.of("json", "cbor")) {
+            ObjectMapper m = mapper(f);
+            System.out.printf("%-4s accreditation page: %,d bytes, min-paths: %,d bytes%n",
+                    f, m.writeValueAsBytes(page).length, m.writeValueAsBytes(paths).length);
+        }
+        Options opts = new OptionsBuilder()
+                .include(WireFormatBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opts).run();
+    }
+}
@@ -0,0 +1,63 @@
+package com.carlos.challenge.infrastructure.in.web.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authentications per second of a Basic-auth caller with the production encoder (bcrypt, strength 10),
+ * straight through {@link DaoAuthenticationProvider} and through {@link CachingAuthenticationProvider}.
+ * This is the per-request auth cost only; the rest of the request pipeline is the same in both cases.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class CachingAuthenticationProviderBenchmark {
+
+    private AuthenticationProvider uncached;
+    private AuthenticationProvider cached;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PasswordEncoder encoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        InMemoryUserDetailsManager users = new InMemoryUserDetailsManager(
+                User.withUsername("user").password(encoder.encode("user")).roles("USER").build());
+        DaoAuthenticationProvider dao = new DaoAuthenticationProvider(encoder);
+        dao.setUserDetailsService(users);
+        uncached = dao;
+        cached = new CachingAuthenticationProvider(dao, () -> 1, Duration.ofMinutes(1));
+    }
+
+    @Benchmark
+    public Authentication withoutCache() {
+        return uncached.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "user"));
+    }
+
+    @Benchmark
+    public Authentication withCache() {
+        return cached.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "user"));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opts = new OptionsBuilder()
+                .include(CachingAuthenticationProviderBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opts).run();
+    }
+}
@@ -0,0 +1,85 @@
+package com.carlos.challenge.infrastructure.in.web.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CachingAuthenticationProviderTest {
+
+    final AtomicInteger verifications = new AtomicInteger();
+    final AtomicInteger usersVersion = new AtomicInteger(1);
+
+    final PasswordEncoder countingEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence raw) {
+            return raw.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence raw, String encoded) {
+            verifications.incrementAndGet();
+            return raw.toString().equals(encoded);
+        }
+    };
+
+    CachingAuthenticationProvider provider(Duration ttl) {
+        InMemoryUserDetailsManager users = new InMemoryUserDetailsManager(
+                User.withUsername("admin").password("secret").roles("ADMIN").build());
+        DaoAuthenticationProvider dao = new DaoAuthenticationProvider(countingEncoder);
+        dao.setUserDetailsService(users);
+        return new CachingAuthenticationProvider(dao, usersVersion::get, ttl);
+    }
+
+    @Test
+    void verifiesOnce_thenServesFromCache_withoutCredentials() {
+        CachingAuthenticationProvider provider = provider(Duration.ofMinutes(1));
+
+        Authentication first = provider.authenticate(login("admin", "secret"));
+        Authentication second = provider.authenticate(login("admin", "secret"));
+
+        assertThat(verifications).hasValue(1);
+        assertThat(second.isAuthenticated()).isTrue();
+        assertThat(second.getName()).isEqualTo("admin");
+        assertThat(second.getCredentials()).isNull();
+        assertThat(second.getAuthorities()).isEqualTo(first.getAuthorities());
+    }
+
+    @Test
+    void wrongPassword_isNeverCached() {
+        CachingAuthenticationProvider provider = provider(Duration.ofMinutes(1));
+        provider.authenticate(login("admin", "secret"));
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> provider.authenticate(login("admin", "guess")))
+                    .isInstanceOf(BadCredentialsException.class);
+        }
+        assertThat(verifications).hasValue(4);
+    }
+
+    @Test
+    void usersChange_orExpiry_forcesFullVerification() throws InterruptedException {
+        CachingAuthenticationProvider provider = provider(Duration.ofMillis(50));
+        provider.authenticate(login("admin", "secret"));
+
+        usersVersion.incrementAndGet();
+        provider.authenticate(login("admin", "secret"));
+        assertThat(verifications).hasValue(2);
+
+        Thread.sleep(80);
+        provider.authenticate(login("admin", "secret"));
+        assertThat(verifications).hasValue(3);
+    }
+
+    private static UsernamePasswordAuthenticationToken login(String user, String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(user, password);
+    }
+}
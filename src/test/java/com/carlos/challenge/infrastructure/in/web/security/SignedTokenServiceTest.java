@@ -0,0 +1,64 @@
+package com.carlos.challenge.infrastructure.in.web.security;
+
+import com.carlos.challenge.infrastructure.config.SignedTokenProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SignedTokenServiceTest {
+
+    static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    final AtomicInteger usersVersion = new AtomicInteger(7);
+
+    SignedTokenService service(Clock clock) {
+        SignedTokenProperties props = new SignedTokenProperties();
+        props.setSecret(Base64.getEncoder().encodeToString(new byte[32]));
+        props.setTtl(Duration.ofMinutes(15));
+        return new SignedTokenService(props, new ObjectMapper(), usersVersion::get, clock);
+    }
+
+    @Test
+    void issuedToken_verifiesToSameUserAndRoles() {
+        SignedTokenService tokens = service(Clock.fixed(NOW, ZoneOffset.UTC));
+        String token = tokens.issue(UsernamePasswordAuthenticationToken.authenticated("admin", null,
+                AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+
+        SignedTokenAuthentication auth = tokens.verify(token);
+
+        assertThat(auth.getName()).isEqualTo("admin");
+        assertThat(AuthorityUtils.authorityListToSet(auth.getAuthorities())).containsExactly("ROLE_ADMIN");
+        assertThat(auth.getExpiresAt()).isEqualTo(NOW.plus(Duration.ofMinutes(15)));
+    }
+
+    @Test
+    void rejectsForgedExpiredAndRevokedTokens() {
+        String token = service(Clock.fixed(NOW, ZoneOffset.UTC)).issue(
+                UsernamePasswordAuthenticationToken.authenticated("user", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+        String[] parts = token.split("\\.");
+        String elevated = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                new String(Base64.getUrlDecoder().decode(parts[1])).replace("ROLE_USER", "ROLE_ADMIN").getBytes());
+
+        SignedTokenService tokens = service(Clock.fixed(NOW.plusSeconds(60), ZoneOffset.UTC));
+        assertThatThrownBy(() -> tokens.verify(parts[0] + "." + elevated + "." + parts[2]))
+                .isInstanceOf(BadCredentialsException.class);
+        assertThatThrownBy(() -> tokens.verify("not-a-token")).isInstanceOf(BadCredentialsException.class);
+
+        assertThatThrownBy(() -> service(Clock.fixed(NOW.plus(Duration.ofMinutes(15)), ZoneOffset.UTC)).verify(token))
+                .isInstanceOf(BadCredentialsException.class)
+                .hasMessage(SignedTokenService.EXPIRED_TOKEN);
+
+        usersVersion.incrementAndGet();
+        assertThatThrownBy(() -> tokens.verify(token)).isInstanceOf(BadCredentialsException.class);
+    }
+}
@@ -0,0 +1,81 @@
+package com.carlos.challenge.infrastructure.in.web.service;
+
+import com.carlos.challenge.infrastructure.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+class EncodedResponseCacheTest {
+
+    final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void hitsOnlyAtTheSameTag_andReportsEncodingTimeSaved() {
+        EncodedResponseCache cache = new EncodedResponseCache(new ResponseCacheProperties(), registry);
+
+        byte[] built = cache.put("pos:1", "\"pos-1-json\"", out -> {
+            slowWork();
+            out.write("{\"id\":\"1\"}".getBytes(StandardCharsets.UTF_8));
+        });
+
+        assertThat(cache.get("pos:1", "\"pos-1-json\"")).isSameAs(built);
+        assertThat(cache.get("pos:1", "\"pos-2-json\"")).isNull();
+        assertThat(cache.get("pos:2", "\"pos-1-json\"")).isNull();
+
+        assertThat(registry.get("response.cache.hits").counter().count()).isEqualTo(1);
+        assertThat(registry.get("response.cache.misses").counter().count()).isEqualTo(2);
+        assertThat(registry.get("response.cache.encode").timer().count()).isEqualTo(1);
+        assertThat(registry.get("response.cache.encode.saved").counter().count()).isGreaterThan(0);
+    }
+
+    @Test
+    void oversizedBodies_areReturnedButNotKept() {
+        ResponseCacheProperties props = new ResponseCacheProperties();
+        props.setMaxEntryBytes(4);
+        EncodedResponseCache cache = new EncodedResponseCache(props, registry);
+
+        byte[] body = cache.put("nb:1:json", "t", out -> out.write(new byte[5]));
+
+        assertThat(body).hasSize(5);
+        assertThat(cache.get("nb:1:json", "t")).isNull();
+    }
+
+    @Test
+    void writeThrough_streamsTheBody_andKeepsItOnlyWhenItFits() throws Exception {
+        ResponseCacheProperties props = new ResponseCacheProperties();
+        props.setMaxEntryBytes(4);
+        EncodedResponseCache cache = new EncodedResponseCache(props, registry);
+
+        ByteArrayOutputStream small = new ByteArrayOutputStream();
+        cache.writeThrough("nb:1:json", "t", out -> out.write(new byte[] {1, 2, 3})).writeTo(small);
+        assertThat(small.toByteArray()).containsExactly(1, 2, 3);
+        assertThat(cache.get("nb:1:json", "t")).containsExactly(1, 2, 3);
+
+        ByteArrayOutputStream large = new ByteArrayOutputStream();
+        cache.writeThrough("nb:2:json", "t", out -> {
+            out.write(new byte[] {1, 2, 3});
+            out.write(new byte[] {4, 5});
+        }).writeTo(large);
+        assertThat(large.toByteArray()).containsExactly(1, 2, 3, 4, 5);
+        assertThat(cache.get("nb:2:json", "t")).isNull();
+    }
+
+    @Test
+    void writeThrough_whenDisabled_isTheWriterItself() {
+        ResponseCacheProperties props = new ResponseCacheProperties();
+        props.setEnabled(false);
+        EncodedResponseCache cache = new EncodedResponseCache(props, registry);
+        StreamingResponseBody writer = out -> out.write(1);
+
+        assertThat(cache.writeThrough("nb:1:json", "t", writer)).isSameAs(writer);
+    }
+
+    private static void slowWork() {
+        long until = System.nanoTime() + 1_000_000;
+        while (System.nanoTime() < until) Thread.onSpinWait();
+    }
+}
@@ -0,0 +1,28 @@
+package com.carlos.challenge.infrastructure.in.web.support;
+
+import com.carlos.challenge.domain.model.AccreditationKey;
+import org.junit.jupiter.api.Test;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CursorCodecTest {
+
+    @Test
+    void roundTrips_andIsUrlSafe() {
+        AccreditationKey key = new AccreditationKey(Instant.parse("2024-02-29T12:34:56.789Z"), "65f0c0ffee0000000000abcd");
+
+        String cursor = CursorCodec.encode(key);
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+        assertThat(CursorCodec.decode(cursor)).isEqualTo(key);
+    }
+
+    @Test
+    void rejectsGarbage() {
+        assertThatThrownBy(() -> CursorCodec.decode("!!not-base64")).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith(CursorCodec.INVALID_CURSOR);
+        assertThatThrownBy(() -> CursorCodec.decode("bm9kb3Q")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorCodec.decode("YWJjLmlk")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
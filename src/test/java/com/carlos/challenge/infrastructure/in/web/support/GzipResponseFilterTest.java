@@ -0,0 +1,168 @@
+package com.carlos.challenge.infrastructure.in.web.support;
+
+import com.carlos.challenge.infrastructure.config.CompressionProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class GzipResponseFilterTest {
+
+    static final String BIG = "{\"ids\":\"" + "11111111-1111-1111-1111-111111111111,".repeat(100) + "\"}";
+
+    final Endpoints endpoints = new Endpoints();
+    final MockMvc mvc = MockMvcBuilders.standaloneSetup(endpoints)
+            .addFilters(new GzipResponseFilter(props()))
+            .build();
+
+    @Test
+    void smallBodies_goOutAsIs_withTheirLength() throws Exception {
+        mvc.perform(get("/api/graph/costs/small").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().longValue("Content-Length", 7))
+                .andExpect(content().string("{\"a\":1}"));
+    }
+
+    @Test
+    void largeBodies_areGzipped_andTheStrongTagMarked() throws Exception {
+        MvcResult res = mvc.perform(get("/api/graph/costs/big").header("Accept-Encoding", "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", "\"v1-gzip\""))
+                .andReturn();
+
+        byte[] body = res.getResponse().getContentAsByteArray();
+        assertThat(body.length).isLessThan(BIG.length() / 5);
+        assertThat(gunzip(body)).isEqualTo(BIG);
+    }
+
+    @Test
+    void clientsWithoutGzip_andUnlistedPaths_areLeftAlone() throws Exception {
+        mvc.perform(get("/api/graph/costs/big").header("Accept-Encoding", "gzip;q=0"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("ETag", "\"v1\""))
+                .andExpect(content().string(BIG));
+        mvc.perform(get("/api/other/big").header("Accept-Encoding", "gzip"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().doesNotExist("Vary"));
+    }
+
+    @Test
+    void gzipValidator_isComparedAsTheControllerTag_andThe304KeepsIt() throws Exception {
+        mvc.perform(get("/api/graph/costs/big").header("Accept-Encoding", "gzip").header("If-None-Match", "\"v1-gzip\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"v1-gzip\""));
+        assertThat(endpoints.bigCalls.get()).isZero();
+    }
+
+    @Test
+    void sameUrlAndTag_isServedFromThePrecompressedCopy_withoutSerializingAgain() throws Exception {
+        byte[] first = mvc.perform(get("/api/graph/costs/big").header("Accept-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] second = mvc.perform(get("/api/graph/costs/big").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", "\"v1-gzip\""))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(second).isEqualTo(first);
+        assertThat(endpoints.bigCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void aChangedTag_isServedFresh() throws Exception {
+        mvc.perform(get("/api/graph/costs/big").header("Accept-Encoding", "gzip"));
+        endpoints.tag = "\"v2\"";
+
+        MvcResult res = mvc.perform(get("/api/graph/costs/big").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v2-gzip\""))
+                .andReturn();
+        assertThat(gunzip(res.getResponse().getContentAsByteArray())).isEqualTo(BIG.replace('1', '2'));
+        assertThat(endpoints.bigCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void streamedBodies_areCompressedWhenTheAsyncWriteFinishes() throws Exception {
+        MvcResult async = mvc.perform(get("/api/pointsofsale").header("Accept-Encoding", "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult res = mvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn();
+        assertThat(gunzip(res.getResponse().getContentAsByteArray()).lines()).hasSize(200);
+    }
+
+    static CompressionProperties props() {
+        CompressionProperties.Endpoint pos = new CompressionProperties.Endpoint();
+        pos.setPath("/api/pointsofsale/**");
+        pos.setMinSize(2048);
+        CompressionProperties.Endpoint costs = new CompressionProperties.Endpoint();
+        costs.setPath("/api/graph/costs/**");
+        costs.setMinSize(1024);
+        CompressionProperties props = new CompressionProperties();
+        props.setEndpoints(List.of(pos, costs));
+        return props;
+    }
+
+    static String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @RestController
+    static class Endpoints {
+
+        final AtomicInteger bigCalls = new AtomicInteger();
+        volatile String tag = "\"v1\"";
+
+        @GetMapping(value = "/api/graph/costs/small", produces = MediaType.APPLICATION_JSON_VALUE)
+        String small() {
+            return "{\"a\":1}";
+        }
+
+        @GetMapping(value = {"/api/graph/costs/big", "/api/other/big"}, produces = MediaType.APPLICATION_JSON_VALUE)
+        ResponseEntity<byte[]> big(WebRequest webRequest) {
+            if (webRequest.checkNotModified(tag)) return null;
+            // different bytes per call: only a cached copy can make two responses identical
+            String body = bigCalls.incrementAndGet() == 1 ? BIG : BIG.replace('1', '2');
+            return ResponseEntity.ok().eTag(tag).cacheControl(CacheControl.noCache())
+                    .body(body.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @GetMapping(value = "/api/pointsofsale", produces = JsonStreaming.APPLICATION_NDJSON_VALUE)
+        ResponseEntity<StreamingResponseBody> stream() {
+            return ResponseEntity.ok().contentType(MediaType.parseMediaType(JsonStreaming.APPLICATION_NDJSON_VALUE))
+                    .body(out -> {
+                        for (int i = 0; i < 200; i++) {
+                            out.write(("{\"id\":\"" + i + "\",\"name\":\"Point of Sale " + i + "\"}\n").getBytes(StandardCharsets.UTF_8));
+                        }
+                    });
+        }
+    }
+}
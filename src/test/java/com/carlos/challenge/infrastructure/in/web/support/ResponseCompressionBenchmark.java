@@ -0,0 +1,107 @@
+package com.carlos.challenge.infrastructure.in.web.support;
+
+import com.carlos.challenge.infrastructure.in.web.dto.resp.MinPathsResponse;
+import com.carlos.challenge.infrastructure.in.web.dto.resp.PathDetail;
+import com.carlos.challenge.infrastructure.in.web.dto.resp.PointOfSaleResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CPU cost of gzipping the two large payloads per request at each Deflater level, against
+ * serving a precompressed copy ({@link GzipResponseFilter}'s cache). Compressed sizes are printed
+ * before the run; the per-request latency added by compression is the {@code gzip} score, to be
+ * weighed against the transfer time of the bytes it saves on the client's link.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseCompressionBenchmark {
+
+    @Param({"pos-listing", "min-paths"})
+    public String payload;
+
+    @Param({"1", "6", "9"})
+    public int level;
+
+    private byte[] body;
+    private byte[] precompressed;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        body = payload(payload);
+        precompressed = gzip(body, level);
+    }
+
+    @Benchmark
+    public byte[] gzip() throws IOException {
+        return gzip(body, level);
+    }
+
+    @Benchmark
+    public byte[] precompressedCopy() {
+        return precompressed.clone();
+    }
+
+    static byte[] payload(String name) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        if (name.equals("pos-listing")) {
+            List<PointOfSaleResponse> points = new ArrayList<>(5_000);
+            for (int i = 0; i < 5_000; i++) {
+                points.add(new PointOfSaleResponse(UUID.randomUUID().toString(), "Point of Sale " + i, 1_000 + i));
+            }
+            return mapper.writeValueAsBytes(points);
+        }
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < 40; i++) nodes.add(UUID.randomUUID().toString());
+        List<PathDetail> paths = new ArrayList<>();
+        for (int p = 0; p < 64; p++) {
+            List<String> ids = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            List<Integer> codes = new ArrayList<>();
+            for (int k = 0; k < 10; k++) {
+                int node = k * 4 + (p >> (k % 6)) % 4;
+                ids.add(nodes.get(node));
+                names.add("Point of Sale " + node);
+                codes.add(1_000 + node);
+            }
+            paths.add(new PathDetail(ids, names, codes));
+        }
+        return mapper.writeValueAsBytes(new MinPathsResponse(30, paths));
+    }
+
+    static byte[] gzip(byte[] body, int level) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out, 8192) {
+            { def.setLevel(level); }
+        }) {
+            gz.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        for (String name : List.of("pos-listing", "min-paths")) {
+            byte[] body = payload(name);
+            System.out.printf("%-11s %,9d bytes | gzip-1 %,8d | gzip-6 %,8d | gzip-9 %,8d%n", name, body.length,
+                    gzip(body, 1).length, gzip(body, 6).length, gzip(body, 9).length);
+        }
+        Options opts = new OptionsBuilder()
+                .include(ResponseCompressionBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opts).run();
+    }
+}
@@ -0,0 +1,74 @@
+package com.carlos.challenge.infrastructure.out.cache;
+
+import com.carlos.challenge.domain.model.PointOfSale;
+import com.carlos.challenge.infrastructure.out.persistence.cache.adapter.PointOfSaleCacheAdapter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multi-threaded version of {@link PointOfSaleCacheAdapterConcurrencyTest}: many threads
+ * onboarding points of sale without code, plus a mixed read/rename workload.
+ * Run with {@code main()} from the IDE or with the test classpath on the command line.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PointOfSaleCacheAdapterBenchmark {
+
+    private static final int PRELOADED = 10_000;
+
+    private PointOfSaleCacheAdapter cache;
+    private String[] ids;
+    private final AtomicInteger names = new AtomicInteger();
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        cache = new PointOfSaleCacheAdapter();
+        ids = new String[PRELOADED];
+        for (int i = 0; i < PRELOADED; i++) {
+            ids[i] = cache.save(new PointOfSale(null, "P" + i, null)).id();
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public PointOfSale onboardWithoutCode() {
+        return cache.save(new PointOfSale(null, "N" + names.incrementAndGet(), null));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(6)
+    public void readers(Blackhole bh) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        String id = ids[rnd.nextInt(PRELOADED)];
+        bh.consume(cache.findById(id));
+        bh.consume(cache.findByCode(1 + rnd.nextInt(PRELOADED)));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public PointOfSale renamers() {
+        int i = ThreadLocalRandom.current().nextInt(PRELOADED);
+        PointOfSale current = cache.findById(ids[i]).orElseThrow();
+        return cache.save(new PointOfSale(current.id(), "R" + names.incrementAndGet(), current.code()));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opts = new OptionsBuilder()
+                .include(PointOfSaleCacheAdapterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opts).run();
+    }
+}
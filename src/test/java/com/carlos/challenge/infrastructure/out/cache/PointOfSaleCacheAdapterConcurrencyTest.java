@@ -37,4 +37,67 @@ class PointOfSaleCacheAdapterConcurrencyTest {
         assertThat(all).hasSize(threads);
         assertThat(all.stream().map(PointOfSale::code).distinct().count()).isEqualTo(threads);
     }
+
+    @Test
+    void concurrentExplicitCodeClaimsHaveSingleWinner() throws Exception {
+        PointOfSaleCacheAdapter cache = new PointOfSaleCacheAdapter();
+
+        int threads = 20;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int idx = i;
+            tasks.add(() -> {
+                try {
+                    cache.save(new PointOfSale(null, "Claim" + idx, 500));
+                    return true;
+                } catch (IllegalArgumentException e) {
+                    return false;
+                }
+            });
+        }
+
+        int winners = 0;
+        for (Future<Boolean> f : pool.invokeAll(tasks)) if (f.get()) winners++;
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+
+        assertThat(winners).isEqualTo(1);
+        assertThat(cache.findAll()).hasSize(1);
+        assertThat(cache.findByCode(500)).isPresent();
+    }
+
+    @Test
+    void concurrentRenamesAndDeletesKeepIndexesConsistent() throws Exception {
+        PointOfSaleCacheAdapter cache = new PointOfSaleCacheAdapter();
+        List<PointOfSale> seeded = new ArrayList<>();
+        for (int i = 0; i < 50; i++) seeded.add(cache.save(new PointOfSale(null, "S" + i, null)));
+
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            tasks.add(() -> {
+                for (int round = 0; round < 200; round++) {
+                    PointOfSale p = seeded.get((worker * 7 + round) % seeded.size());
+                    if (round % 10 == 9 && p.code() % threads == worker) {
+                        cache.deleteById(p.id());
+                    } else {
+                        cache.save(new PointOfSale(p.id(), "S" + worker + "-" + round, p.code()));
+                    }
+                }
+                return null;
+            });
+        }
+        for (Future<Void> f : pool.invokeAll(tasks)) f.get();
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+
+        for (PointOfSale p : cache.findAll()) {
+            assertThat(cache.findByCode(p.code())).contains(p);
+            assertThat(cache.findByName(p.name())).isPresent();
+            assertThat(cache.resolveId(String.valueOf(p.code()))).isEqualTo(p.id());
+        }
+    }
 }
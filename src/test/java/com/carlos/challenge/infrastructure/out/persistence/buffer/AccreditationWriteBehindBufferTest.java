@@ -0,0 +1,164 @@
+package com.carlos.challenge.infrastructure.out.persistence.buffer;
+
+import com.carlos.challenge.domain.exception.WriteBufferFullException;
+import com.carlos.challenge.domain.model.Accreditation;
+import com.carlos.challenge.domain.model.AccreditationWriteResult;
+import com.carlos.challenge.domain.port.out.AccreditationRepositoryPort;
+import com.carlos.challenge.infrastructure.config.AccreditationWriteBehindProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class AccreditationWriteBehindBufferTest {
+
+    @TempDir Path dir;
+
+    final Set<String> stored = ConcurrentHashMap.newKeySet();
+    final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    final AtomicBoolean storeDown = new AtomicBoolean();
+    final AtomicBoolean storeBroken = new AtomicBoolean();
+    final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    AccreditationWriteBehindBuffer buffer;
+
+    final AccreditationRepositoryPort repo = mock(AccreditationRepositoryPort.class);
+
+    AccreditationWriteBehindBuffer buffer(int capacity, int batchSize, Duration interval) {
+        return buffer(capacity, batchSize, interval, dir.resolve("spill.ndjson"));
+    }
+
+    AccreditationWriteBehindBuffer buffer(int capacity, int batchSize, Duration interval, Path spillFile) {
+        when(repo.saveAll(anyList())).thenAnswer(inv -> saveAll(inv.getArgument(0)));
+        AccreditationWriteBehindProperties props = new AccreditationWriteBehindProperties();
+        props.setCapacity(capacity);
+        props.setBatchSize(batchSize);
+        props.setFlushInterval(interval);
+        props.setSpillFile(spillFile);
+        buffer = new AccreditationWriteBehindBuffer(repo, props, new ObjectMapper().findAndRegisterModules(), registry);
+        return buffer;
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (buffer != null) buffer.stop();
+    }
+
+    @Test
+    void coalescesEnqueuedRecordsIntoBatches() {
+        buffer(1_000, 50, Duration.ofMillis(100));
+        List<String> ids = IntStream.range(0, 120).mapToObj(i -> buffer.enqueue(acc()).id()).toList();
+        buffer.start();
+
+        await(() -> stored.size() == 120);
+        assertThat(stored).containsExactlyInAnyOrderElementsOf(ids);
+        assertThat(batchSizes).hasSizeLessThanOrEqualTo(4).allSatisfy(n -> assertThat(n).isLessThanOrEqualTo(50));
+        assertThat(registry.get("accreditation.buffer.flush").timer().count()).isEqualTo(batchSizes.size());
+    }
+
+    @Test
+    void rejectsWhenFull() {
+        buffer(2, 10, Duration.ofMillis(50));
+        buffer.enqueue(acc());
+        buffer.enqueue(acc());
+
+        assertThatThrownBy(() -> buffer.enqueue(acc())).isInstanceOf(WriteBufferFullException.class);
+        assertThat(registry.get("accreditation.buffer.depth").gauge().value()).isEqualTo(2.0);
+        assertThat(registry.get("accreditation.buffer.rejected").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void spillsWhileStoreIsDown_andReplaysWhenItComesBack() {
+        storeDown.set(true);
+        buffer(100, 10, Duration.ofMillis(20));
+        buffer.start();
+        List<String> ids = IntStream.range(0, 5).mapToObj(i -> buffer.enqueue(acc()).id()).toList();
+
+        await(() -> registry.get("accreditation.buffer.spilled").counter().count() == 5);
+        assertThat(stored).isEmpty();
+        assertThat(Files.exists(dir.resolve("spill.ndjson"))).isTrue();
+
+        storeDown.set(false);
+        String late = buffer.enqueue(acc()).id();
+
+        await(() -> stored.size() == 6);
+        assertThat(stored).containsAll(ids).contains(late);
+    }
+
+    @Test
+    void unexpectedStoreError_spillsAndKeepsTheFlusherAlive() {
+        storeBroken.set(true);
+        buffer(100, 10, Duration.ofMillis(20));
+        buffer.start();
+        String first = buffer.enqueue(acc()).id();
+
+        await(() -> registry.get("accreditation.buffer.spilled").counter().count() == 1);
+
+        storeBroken.set(false);
+        String second = buffer.enqueue(acc()).id();
+
+        await(() -> stored.size() == 2);
+        assertThat(stored).contains(first, second);
+    }
+
+    @Test
+    void keepsTheBatchWhenTheSpillFails_andStoresItOnceTheStoreIsBack() throws Exception {
+        Files.createFile(dir.resolve("not-a-dir"));
+        storeDown.set(true);
+        buffer(100, 10, Duration.ofMillis(20), dir.resolve("not-a-dir").resolve("spill.ndjson"));
+        buffer.start();
+        List<String> ids = IntStream.range(0, 3).mapToObj(i -> buffer.enqueue(acc()).id()).toList();
+
+        await(() -> registry.get("accreditation.buffer.flush").timer().count() >= 1);
+        assertThat(registry.get("accreditation.buffer.spilled").counter().count()).isZero();
+
+        storeDown.set(false);
+
+        await(() -> stored.size() == 3);
+        assertThat(stored).containsExactlyInAnyOrderElementsOf(ids);
+    }
+
+    private static Accreditation acc() {
+        return new Accreditation(null, new BigDecimal("1.00"), "P1", null, Instant.now());
+    }
+
+    private static void await(java.util.function.BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("condition not met in time");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private List<AccreditationWriteResult> saveAll(List<Accreditation> batch) {
+        if (storeDown.get()) throw new DataAccessResourceFailureException("store down");
+        if (storeBroken.get()) throw new IllegalStateException("codec bug");
+        batchSizes.add(batch.size());
+        return IntStream.range(0, batch.size()).mapToObj(i -> {
+            String id = batch.get(i).id();
+            return stored.add(id) ? AccreditationWriteResult.stored(i, id)
+                    : AccreditationWriteResult.rejected(i, "duplicate key");
+        }).toList();
+    }
+}
@@ -0,0 +1,83 @@
+package com.carlos.challenge.infrastructure.out.persistence.cache.index;
+
+import com.carlos.challenge.domain.model.PointOfSale;
+import com.carlos.challenge.infrastructure.out.persistence.cache.adapter.PointOfSaleCacheAdapter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Code lookup latency at 1M points of sale: the previous {@code ConcurrentHashMap<Integer,String>}
+ * index against {@link IntCodeIndex}, plus {@code findByCode} through the adapter.
+ * Retained heap per entry is printed once per fork during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class CodeIndexBenchmark {
+
+    private static final int POINTS = 1_000_000;
+
+    private String[] ids;
+    private Map<Integer, String> boxed;
+    private IntCodeIndex primitive;
+    private PointOfSaleCacheAdapter adapter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ids = new String[POINTS + 1];
+        for (int c = 1; c <= POINTS; c++) ids[c] = "id-" + c;
+
+        long before = usedHeap();
+        boxed = new ConcurrentHashMap<>();
+        for (int c = 1; c <= POINTS; c++) boxed.put(c, ids[c]);
+        long afterBoxed = usedHeap();
+
+        primitive = new IntCodeIndex();
+        for (int c = 1; c <= POINTS; c++) primitive.putIfAbsent(c, ids[c]);
+        long afterPrimitive = usedHeap();
+
+        System.out.printf("%nbytes/entry  ConcurrentHashMap<Integer,String>=%.1f  IntCodeIndex=%.1f%n",
+                (afterBoxed - before) / (double) POINTS, (afterPrimitive - afterBoxed) / (double) POINTS);
+
+        adapter = new PointOfSaleCacheAdapter();
+        for (int c = 1; c <= POINTS; c++) adapter.save(new PointOfSale(null, "P" + c, null));
+    }
+
+    @Benchmark
+    public String boxedMapLookup() {
+        return boxed.get(1 + ThreadLocalRandom.current().nextInt(POINTS));
+    }
+
+    @Benchmark
+    public String intCodeIndexLookup() {
+        return primitive.get(1 + ThreadLocalRandom.current().nextInt(POINTS));
+    }
+
+    @Benchmark
+    public Object adapterFindByCode() {
+        return adapter.findByCode(1 + ThreadLocalRandom.current().nextInt(POINTS));
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) System.gc();
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opts = new OptionsBuilder()
+                .include(CodeIndexBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opts).run();
+    }
+}
@@ -0,0 +1,36 @@
+package com.carlos.challenge.infrastructure.out.persistence.cache.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class IntCodeIndexTest {
+
+    @Test
+    void denseCodes_putIfAbsentGetRemove() {
+        IntCodeIndex idx = new IntCodeIndex();
+
+        assertThat(idx.putIfAbsent(1, "a")).isNull();
+        assertThat(idx.putIfAbsent(1, "b")).isEqualTo("a");
+        assertThat(idx.get(1)).isEqualTo("a");
+        assertThat(idx.get(2)).isNull();
+
+        assertThat(idx.remove(1, "b")).isFalse();
+        assertThat(idx.remove(1, new String("a"))).isTrue();
+        assertThat(idx.get(1)).isNull();
+    }
+
+    @Test
+    void codesOutsideDenseRange_useFallback() {
+        IntCodeIndex idx = new IntCodeIndex();
+        int big = IntCodeIndex.DENSE_LIMIT + 5;
+
+        assertThat(idx.putIfAbsent(big, "x")).isNull();
+        assertThat(idx.putIfAbsent(-3, "y")).isNull();
+        assertThat(idx.get(big)).isEqualTo("x");
+        assertThat(idx.get(-3)).isEqualTo("y");
+
+        assertThat(idx.remove(big, "x")).isTrue();
+        assertThat(idx.get(big)).isNull();
+    }
+}
@@ -0,0 +1,57 @@
+package com.carlos.challenge.infrastructure.out.persistence.mongo.adapter;
+
+import com.carlos.challenge.infrastructure.config.AccreditationRetentionProperties;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.entity.AccreditationDailyTotalDocument;
+import com.carlos.challenge.infrastructure.out.persistence.mongo.entity.AccreditationDocument;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AccreditationDailyTotalsStoreTest {
+
+    final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    final BulkOperations ops = mock(BulkOperations.class);
+    final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    final AccreditationDailyTotalsStore store =
+            new AccreditationDailyTotalsStore(mongoTemplate, new AccreditationRetentionProperties(), registry);
+
+    @Test
+    void failedIncrement_isCounted_andItsRowsQueuedOnce() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AccreditationDailyTotalDocument.class)).thenReturn(ops);
+        when(ops.execute()).thenThrow(new DataAccessResourceFailureException("down"));
+
+        Instant day1 = Instant.parse("2024-03-01T10:00:00Z");
+        store.add(List.of(doc("POS1", day1), doc("POS1", day1), doc("POS2", day1)));
+        store.subtract(doc("POS1", day1));
+
+        assertThat(registry.get("accreditation.daily_totals.failed").counter().count()).isEqualTo(2.0);
+        assertThat(registry.get("accreditation.daily_totals.stale").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void repairStale_leavesTheCurrentDayQueued() {
+        store.markStale("POS1", LocalDate.now(ZoneOffset.UTC).toString());
+
+        store.repairStale();
+
+        verify(mongoTemplate, never()).getCollection(any());
+        verify(mongoTemplate, never()).remove(any(), eq(AccreditationDailyTotalDocument.class));
+        assertThat(registry.get("accreditation.daily_totals.stale").gauge().value()).isEqualTo(1.0);
+    }
+
+    private static AccreditationDocument doc(String pos, Instant at) {
+        return new AccreditationDocument(null, BigDecimal.ONE, pos, null, at);
+    }
+}
@@ -6,12 +6,14 @@ import org.junit.jupiter.api.*;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.codec.JsonJacksonCodec;
+import org.redisson.codec.TypedJsonJacksonCodec;
 import org.redisson.config.Config;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.Stream;
 
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -61,6 +63,29 @@ class PointOfSaleRedisAdapterIT {
         assertEquals(created.id(), repo.findByCode(created.code()).orElseThrow().id());
     }
 
+    @Test
+    void stream_scansEveryPointInBatches() {
+        for (int i = 0; i < 1_200; i++) repo.save(new PointOfSale(null, "S" + i, null));
+
+        try (Stream<PointOfSale> all = repo.stream()) {
+            assertEquals(1_200, all.map(PointOfSale::id).distinct().count());
+        }
+    }
+
+    @Test
+    void stream_emitsEachPointOnce_whileTheHashGrowsUnderTheScan() {
+        for (int i = 0; i < 1_200; i++) repo.save(new PointOfSale(null, "S" + i, null));
+
+        // writes between batches make Redis rehash mid-scan, which can repeat entries
+        int[] added = {0};
+        try (Stream<PointOfSale> all = repo.stream()) {
+            List<String> ids = all.peek(p -> {
+                if (added[0] < 3_000) repo.save(new PointOfSale(null, "G" + added[0]++, null));
+            }).map(PointOfSale::id).toList();
+            assertEquals(ids.size(), ids.stream().distinct().count());
+        }
+    }
+
     @Test
     void save_withCustomCode_enforcesUniqueness() {
         PointOfSale a = repo.save(new PointOfSale(null, "Norte", 123));
@@ -105,6 +130,32 @@ class PointOfSaleRedisAdapterIT {
         assertThrows(IllegalArgumentException.class, () -> repo.resolveId(" "));
     }
 
+    @Test
+    void resolveId_ignoresStaleCodeIndexEntry() {
+        PointOfSale a = repo.save(new PointOfSale(null, "Flores", 56));
+        redisson.getMap("pos:idByCode", new TypedJsonJacksonCodec(Integer.class, String.class)).put(4242, a.id());
+
+        assertThrows(NoSuchElementException.class, () -> repo.resolveId("4242"));
+    }
+
+    @Test
+    void repairIndexes_dropsDanglingEntries_andRestoresMissingOnes() {
+        PointOfSale a = repo.save(new PointOfSale(null, "Boedo", 88));
+        var codeIdx = redisson.getMap("pos:idByCode", new TypedJsonJacksonCodec(Integer.class, String.class));
+        var nameIdx = redisson.getMap("pos:idByName", new TypedJsonJacksonCodec(String.class, String.class));
+        // a save that died after the record write, and a claim that died before it
+        codeIdx.remove(88);
+        nameIdx.remove("Boedo");
+        codeIdx.put(4343, "gone");
+
+        assertEquals(3, ((PointOfSaleRedisAdapter) repo).repairIndexes());
+
+        assertEquals(a.id(), repo.findByCode(88).orElseThrow().id());
+        assertEquals(a.id(), repo.findByName("Boedo").orElseThrow().id());
+        assertFalse(codeIdx.containsKey(4343));
+        assertEquals(0, ((PointOfSaleRedisAdapter) repo).repairIndexes());
+    }
+
     @Test
     void findAll_returnsAll() {
         repo.save(new PointOfSale(null, "A", null));
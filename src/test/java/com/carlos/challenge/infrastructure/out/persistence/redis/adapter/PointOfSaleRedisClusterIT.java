@@ -0,0 +1,148 @@
+package com.carlos.challenge.infrastructure.out.persistence.redis.adapter;
+
+import com.carlos.challenge.domain.model.PointOfSale;
+import com.carlos.challenge.infrastructure.config.RedisConfig;
+import com.carlos.challenge.infrastructure.config.RedisTopologyProperties;
+import org.junit.jupiter.api.*;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.ReadMode;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs the adapter against a local 3 master / 3 replica cluster made of plain
+ * {@code redis-server} processes. Skipped when redis-server / redis-cli are not on the PATH.
+ */
+class PointOfSaleRedisClusterIT {
+
+    private static final int BASE_PORT = 17000;
+    private static final int NODES = 6;
+    private static final int MASTERS = 3;
+    private static final int WRITERS = 8;
+    private static final int SAVES_PER_WRITER = 250;
+
+    static final List<Process> servers = new ArrayList<>();
+    static Path workDir;
+    static RedissonClient redisson;
+    static PointOfSaleRedisAdapter repo;
+
+    @BeforeAll
+    static void startCluster() throws Exception {
+        assumeTrue(onPath("redis-server") && onPath("redis-cli"), "redis-server/redis-cli not installed");
+
+        workDir = Files.createTempDirectory("pos-redis-cluster");
+        List<String> create = new ArrayList<>(List.of("redis-cli", "--cluster", "create"));
+        for (int i = 0; i < NODES; i++) {
+            int port = BASE_PORT + i;
+            Path dir = Files.createDirectories(workDir.resolve(String.valueOf(port)));
+            servers.add(new ProcessBuilder("redis-server",
+                    "--port", String.valueOf(port),
+                    "--cluster-enabled", "yes",
+                    "--cluster-config-file", "nodes.conf",
+                    "--appendonly", "no",
+                    "--save", "")
+                    .directory(dir.toFile())
+                    .redirectErrorStream(true)
+                    .redirectOutput(dir.resolve("out.log").toFile())
+                    .start());
+            create.add("127.0.0.1:" + port);
+        }
+        Thread.sleep(500);
+        create.addAll(List.of("--cluster-replicas", "1", "--cluster-yes"));
+        Process p = new ProcessBuilder(create).redirectErrorStream(true)
+                .redirectOutput(workDir.resolve("create.log").toFile()).start();
+        assertThat(p.waitFor(30, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(2_000);
+
+        RedisTopologyProperties props = new RedisTopologyProperties();
+        props.setMode(RedisTopologyProperties.Mode.CLUSTER);
+        props.setReadMode(ReadMode.SLAVE);
+        props.setNodes(List.of("redis://127.0.0.1:" + BASE_PORT, "redis://127.0.0.1:" + (BASE_PORT + 1)));
+
+        redisson = Redisson.create(RedisConfig.toRedissonConfig(props));
+        repo = new PointOfSaleRedisAdapter(redisson, props);
+    }
+
+    @AfterAll
+    static void stopCluster() throws IOException {
+        if (redisson != null) redisson.shutdown();
+        servers.forEach(Process::destroy);
+        if (workDir != null) {
+            try (var files = Files.walk(workDir)) {
+                files.sorted((a, b) -> b.compareTo(a)).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    @Test
+    void shardsSpreadOverSlots() {
+        PointOfSaleRedisKeys keys = PointOfSaleRedisKeys.of("pos", 16, true);
+        Set<Integer> slots = new HashSet<>();
+        for (int s = 0; s < keys.shards(); s++) {
+            int slot = redisson.getKeys().getSlot(keys.byId(s));
+            assertThat(redisson.getKeys().getSlot(keys.idByCode(s))).isEqualTo(slot);
+            assertThat(redisson.getKeys().getSlot(keys.idByName(s))).isEqualTo(slot);
+            slots.add(slot);
+        }
+
+        assertThat(slots).hasSize(keys.shards());
+        // redis-cli splits the 16384 slots evenly over the 3 masters
+        assertThat(slots.stream().map(slot -> slot * MASTERS / 16384).distinct().count()).isGreaterThan(1);
+    }
+
+    @Test
+    void concurrentSaves_thenReadsFromReplicas() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        AtomicInteger failures = new AtomicInteger();
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < SAVES_PER_WRITER; i++) {
+                    try {
+                        repo.save(new PointOfSale(null, "C-" + writer + "-" + i, null));
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> f : futures) f.get(2, TimeUnit.MINUTES);
+        pool.shutdown();
+        long elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        int total = WRITERS * SAVES_PER_WRITER;
+        System.out.printf("cluster saves: %d in %d ms (%.0f ops/s)%n", total, elapsedMs, total * 1000.0 / elapsedMs);
+
+        assertThat(failures).hasValue(0);
+
+        Thread.sleep(500);
+        List<PointOfSale> all = repo.findAll();
+        assertThat(all).hasSizeGreaterThanOrEqualTo(total);
+        assertThat(all.stream().map(PointOfSale::code).distinct().count()).isEqualTo(all.size());
+
+        PointOfSale any = all.get(0);
+        assertThat(repo.findByCode(any.code())).contains(any);
+    }
+
+    private static boolean onPath(String exe) {
+        String path = System.getenv("PATH");
+        if (path == null) return false;
+        for (String dir : path.split(File.pathSeparator)) {
+            if (Files.isExecutable(Path.of(dir, exe))) return true;
+        }
+        return false;
+    }
+}
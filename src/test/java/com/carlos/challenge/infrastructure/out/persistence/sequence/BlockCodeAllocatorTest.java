@@ -0,0 +1,81 @@
+package com.carlos.challenge.infrastructure.out.persistence.sequence;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BlockCodeAllocatorTest {
+
+    @Test
+    void leasesBlocksAndSkipsUsedCodes() {
+        AtomicInteger seq = new AtomicInteger(1);
+        AtomicInteger leases = new AtomicInteger();
+        BlockCodeAllocator codes = new BlockCodeAllocator(n -> {
+            leases.incrementAndGet();
+            return seq.getAndAdd(n);
+        }, 4);
+
+        codes.markUsed(2);
+        codes.markUsed(3);
+
+        assertThat(codes.next()).isEqualTo(1);
+        assertThat(codes.next()).isEqualTo(4);
+        assertThat(leases).hasValue(1);
+
+        assertThat(codes.next()).isEqualTo(5);
+        assertThat(leases).hasValue(2);
+    }
+
+    @Test
+    void skipsWholeBlockWhenEveryCodeIsTaken() {
+        AtomicInteger seq = new AtomicInteger(1);
+        BlockCodeAllocator codes = new BlockCodeAllocator(seq::getAndAdd, 2);
+        codes.markUsed(1);
+        codes.markUsed(2);
+
+        assertThat(codes.next()).isEqualTo(3);
+    }
+
+    @Test
+    void tracksCodesBeyondBitmapLimit() {
+        int base = BlockCodeAllocator.BITMAP_LIMIT + 10;
+        AtomicInteger seq = new AtomicInteger(base);
+        BlockCodeAllocator codes = new BlockCodeAllocator(seq::getAndAdd, 8);
+        codes.markUsed(base);
+
+        assertThat(codes.isUsed(base)).isTrue();
+        assertThat(codes.next()).isEqualTo(base + 1);
+
+        codes.release(base);
+        assertThat(codes.isUsed(base)).isFalse();
+    }
+
+    @Test
+    void concurrentNextNeverRepeats() throws Exception {
+        AtomicInteger seq = new AtomicInteger(1);
+        BlockCodeAllocator codes = new BlockCodeAllocator(seq::getAndAdd, 16);
+
+        int threads = 8;
+        int perThread = 1_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Callable<List<Integer>>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            tasks.add(() -> {
+                List<Integer> out = new ArrayList<>(perThread);
+                for (int i = 0; i < perThread; i++) out.add(codes.next());
+                return out;
+            });
+        }
+
+        Set<Integer> all = ConcurrentHashMap.newKeySet();
+        for (Future<List<Integer>> f : pool.invokeAll(tasks)) all.addAll(f.get());
+        pool.shutdown();
+
+        assertThat(all).hasSize(threads * perThread);
+    }
+}
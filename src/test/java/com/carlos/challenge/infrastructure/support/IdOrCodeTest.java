@@ -0,0 +1,34 @@
+package com.carlos.challenge.infrastructure.support;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class IdOrCodeTest {
+
+    @Test
+    void isUuid_acceptsCanonicalFormOnly() {
+        assertThat(IdOrCode.isUuid("11111111-2222-3333-4444-555555555555")).isTrue();
+        assertThat(IdOrCode.isUuid("ABCDEFab-cdef-0123-4567-89abcdefABCD")).isTrue();
+
+        assertThat(IdOrCode.isUuid("1-1-1-1-1")).isFalse();
+        assertThat(IdOrCode.isUuid("11111111-2222-3333-4444-55555555555g")).isFalse();
+        assertThat(IdOrCode.isUuid("11111111+2222-3333-4444-555555555555")).isFalse();
+        assertThat(IdOrCode.isUuid(null)).isFalse();
+    }
+
+    @Test
+    void parseCode_matchesIntegerParseIntOnValidInput() {
+        for (String s : new String[]{"0", "55", " 42 ", "+7", "-13", "2147483647", "-2147483648", "000123"}) {
+            assertThat(IdOrCode.parseCode(s)).as(s).isEqualTo(Integer.parseInt(s.trim()));
+        }
+    }
+
+    @Test
+    void parseCode_rejectsNonIntsWithoutThrowing() {
+        for (String s : new String[]{"", " ", "-", "+", "12a", "not-a-code", "2147483648", "-2147483649", "1 2"}) {
+            assertThat(IdOrCode.parseCode(s)).as(s).isEqualTo(IdOrCode.NOT_A_CODE);
+        }
+        assertThat(IdOrCode.parseCode(null)).isEqualTo(IdOrCode.NOT_A_CODE);
+    }
+}
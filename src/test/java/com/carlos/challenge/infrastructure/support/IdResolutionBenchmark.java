@@ -0,0 +1,118 @@
+package com.carlos.challenge.infrastructure.support;
+
+import com.carlos.challenge.domain.model.PointOfSale;
+import com.carlos.challenge.domain.port.out.PointOfSaleRepositoryPort;
+import com.carlos.challenge.infrastructure.in.web.service.PointOfSaleIdResolver;
+import com.carlos.challenge.infrastructure.out.persistence.cache.adapter.PointOfSaleCacheAdapter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * "UUID or code?" classification as done for {@code /by-code/{code}} traffic: the previous
+ * {@code UUID.fromString} + catch + {@code Integer.parseInt} path against {@link IdOrCode},
+ * and the full resolution through {@link PointOfSaleIdResolver}, both over the in-memory store and
+ * over one whose records are decoded from JSON on every read, as the Redis adapter's codec does
+ * (network time excluded). Run with {@code -prof gc} to see the allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdResolutionBenchmark {
+
+    private static final int POINTS = 1_000;
+
+    private String[] codes;
+    private PointOfSaleIdResolver resolver;
+    private PointOfSaleIdResolver decodingResolver;
+
+    @Setup
+    public void setUp() {
+        PointOfSaleCacheAdapter store = new PointOfSaleCacheAdapter();
+        codes = new String[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            codes[i] = String.valueOf(store.save(new PointOfSale(null, "P" + i, null)).code());
+        }
+        resolver = new PointOfSaleIdResolver(store);
+        decodingResolver = new PointOfSaleIdResolver(new DecodingStore(store));
+    }
+
+    @Benchmark
+    public int exceptionBasedClassification() {
+        String s = codes[ThreadLocalRandom.current().nextInt(POINTS)];
+        try {
+            UUID.fromString(s);
+            return -1;
+        } catch (Exception e) {
+            return Integer.parseInt(s.trim());
+        }
+    }
+
+    @Benchmark
+    public long idOrCodeClassification() {
+        String s = codes[ThreadLocalRandom.current().nextInt(POINTS)];
+        return IdOrCode.isUuid(s) ? -1 : IdOrCode.parseCode(s);
+    }
+
+    @Benchmark
+    public String resolverByCode() {
+        return resolver.resolve(codes[ThreadLocalRandom.current().nextInt(POINTS)]);
+    }
+
+    @Benchmark
+    public String decodingResolverByCode() {
+        return decodingResolver.resolve(codes[ThreadLocalRandom.current().nextInt(POINTS)]);
+    }
+
+    /** Serves records as the Redis adapter does: JSON bytes decoded on every {@code findById}. */
+    private static final class DecodingStore implements PointOfSaleRepositoryPort {
+
+        private final ObjectMapper json = new ObjectMapper();
+        private final PointOfSaleRepositoryPort store;
+
+        DecodingStore(PointOfSaleRepositoryPort store) {
+            this.store = store;
+        }
+
+        @Override
+        public Optional<PointOfSale> findById(String id) {
+            return store.findById(id).map(pos -> {
+                try {
+                    return json.readValue(json.writeValueAsBytes(pos), PointOfSale.class);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+
+        @Override public List<PointOfSale> findAll() { return store.findAll(); }
+        @Override public Stream<PointOfSale> stream() { return store.stream(); }
+        @Override public PointOfSale save(PointOfSale point) { return store.save(point); }
+        @Override public void deleteById(String id) { store.deleteById(id); }
+        @Override public Optional<PointOfSale> findByName(String name) { return store.findByName(name); }
+        @Override public Optional<PointOfSale> findByCode(Integer code) { return store.findByCode(code); }
+        @Override public String resolveId(String idOrCode) { return store.resolveId(idOrCode); }
+        @Override public long version() { return store.version(); }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opts = new OptionsBuilder()
+                .include(IdResolutionBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opts).run();
+    }
+}
@@ -0,0 +1,151 @@
+package com.carlos.challenge.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load against a running instance: for each concurrency level, that many clients
+ * (one virtual thread each) issue GETs back to back for a fixed time, then throughput and
+ * latency percentiles are printed. Run it once against a default start and once with the
+ * {@code virtual-threads} profile; the level where throughput stops growing and p99 takes off
+ * is the ceiling; on platform threads expect it around {@code server.tomcat.threads.max} (200 by default).
+ * With the {@code reactive} profile, the same run against {@code /api/reactive/accreditations/{id}} and
+ * {@code /api/accreditations/{id}} compares the reactive and blocking Mongo paths.
+ *
+ * <pre>
+ * java -cp target/test-classes:target/classes:&lt;deps&gt; \
+ *   -Dload.url=http://localhost:8080 -Dload.levels=50,100,200,400,800,1600 \
+ *   -Dload.paths=/api/pointsofsale,/api/accreditations/summaries?size=20 \
+ *   com.carlos.challenge.load.ConcurrencyCeilingLoadRunner
+ * </pre>
+ * Without Mongo and Redis at hand, the POS endpoints can still be loaded against the in-memory store:
+ * start with {@code --spring.profiles.active=default} (or {@code virtual-threads}),
+ * {@code --accreditations.storage.migrate-indexes=false}, {@code --management.health.redis.enabled=false}
+ * and the Redisson/Redis auto-configurations added to {@code spring.autoconfigure.exclude}. That run is
+ * CPU-bound rather than I/O-bound, so it shows the thread model's queueing, not the ceiling under a store.
+ */
+public final class ConcurrencyCeilingLoadRunner {
+
+    private static final String ROW = "%8d %10.0f %9.1f %9.1f %9.1f %8d%n";
+
+    private ConcurrencyCeilingLoadRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("load.url", "http://localhost:8080");
+        String user = System.getProperty("load.user", "admin");
+        String password = System.getProperty("load.password", "admin");
+        int[] levels = Arrays.stream(System.getProperty("load.levels", "50,100,200,400,800,1600").split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+        List<String> paths = List.of(System.getProperty("load.paths", "/api/pointsofsale").split(","));
+        Duration duration = Duration.ofSeconds(Long.getLong("load.seconds", 15));
+        Duration warmup = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 5));
+
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .executor(clientThreads)
+                    .build();
+            String authorization = "Bearer " + token(http, baseUrl, user, password);
+            List<HttpRequest> requests = paths.stream()
+                    .map(p -> HttpRequest.newBuilder(URI.create(baseUrl + p.trim()))
+                            .header("Authorization", authorization)
+                            .timeout(Duration.ofSeconds(30))
+                            .GET()
+                            .build())
+                    .toList();
+
+            run(http, requests, levels[0], warmup);
+            System.out.printf("%8s %10s %9s %9s %9s %8s%n", "clients", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+            for (int level : levels) {
+                Result r = run(http, requests, level, duration);
+                System.out.printf(ROW, level, r.throughput(), r.percentileMillis(0.50), r.percentileMillis(0.99),
+                        r.percentileMillis(1.0), r.errors());
+            }
+        }
+    }
+
+    private static String token(HttpClient http, String baseUrl, String user, String password)
+            throws IOException, InterruptedException {
+        String basic = Base64.getEncoder().encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+        HttpResponse<String> res = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/token"))
+                .header("Authorization", "Basic " + basic)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (res.statusCode() != 200) throw new IllegalStateException("token request failed: " + res.statusCode());
+        JsonNode body = new ObjectMapper().readTree(res.body());
+        return body.get("accessToken").asText();
+    }
+
+    private static Result run(HttpClient http, List<HttpRequest> requests, int clients, Duration duration)
+            throws InterruptedException, ExecutionException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> perClient = new ArrayList<>(clients);
+        try (ExecutorService load = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int offset = c;
+                perClient.add(load.submit(() -> loop(http, requests, offset, deadline, errors)));
+            }
+        }
+        long[] latencies = new long[0];
+        for (Future<long[]> f : perClient) {
+            long[] samples = f.get();
+            int from = latencies.length;
+            latencies = Arrays.copyOf(latencies, from + samples.length);
+            System.arraycopy(samples, 0, latencies, from, samples.length);
+        }
+        Arrays.sort(latencies);
+        return new Result(latencies, latencies.length / (double) duration.toSeconds(), errors.get());
+    }
+
+    private static long[] loop(HttpClient http, List<HttpRequest> requests, int offset, long deadline, AtomicLong errors) {
+        long[] samples = new long[1024];
+        int n = 0;
+        int i = offset;
+        while (System.nanoTime() < deadline) {
+            HttpRequest req = requests.get(i++ % requests.size());
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> res = http.send(req, HttpResponse.BodyHandlers.discarding());
+                if (res.statusCode() >= 400) {
+                    errors.incrementAndGet();
+                    continue;
+                }
+            } catch (IOException e) {
+                errors.incrementAndGet();
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (n == samples.length) samples = Arrays.copyOf(samples, n * 2);
+            samples[n++] = System.nanoTime() - start;
+        }
+        return Arrays.copyOf(samples, n);
+    }
+
+    private record Result(long[] sortedNanos, double throughput, long errors) {
+        double percentileMillis(double p) {
+            if (sortedNanos.length == 0) return 0;
+            int idx = (int) Math.ceil(p * sortedNanos.length) - 1;
+            return sortedNanos[Math.max(0, Math.min(idx, sortedNanos.length - 1))] / 1_000_000.0;
+        }
+    }
+}
@@ -3,10 +3,30 @@ package com.carlos.challenge.web;
 import com.carlos.challenge.config.TestProfiles;
 import com.carlos.challenge.config.TestSecurityConfig;
 import com.carlos.challenge.domain.model.Accreditation;
+import com.carlos.challenge.domain.model.AccreditationAggregate;
+import com.carlos.challenge.domain.model.AccreditationAggregateQuery;
+import com.carlos.challenge.domain.model.TimeBucket;
+import com.carlos.challenge.domain.model.AccreditationDailyTotal;
+import com.carlos.challenge.domain.model.AccreditationField;
+import com.carlos.challenge.domain.model.AccreditationKey;
+import com.carlos.challenge.domain.model.AccreditationSliceQuery;
+import com.carlos.challenge.domain.model.AccreditationSummary;
+import com.carlos.challenge.domain.model.AccreditationTotals;
+import com.carlos.challenge.domain.model.AccreditationWriteResult;
 import com.carlos.challenge.domain.port.in.AccreditationUseCasePort;
+import com.carlos.challenge.domain.port.in.PointOfSaleUseCasePort;
+import com.carlos.challenge.infrastructure.config.CborConfig;
+import com.carlos.challenge.infrastructure.config.SecurityUsersProperties;
 import com.carlos.challenge.infrastructure.in.web.controller.AccreditationController;
+import com.carlos.challenge.infrastructure.in.web.dto.resp.AccreditationAggregateResponse;
 import com.carlos.challenge.infrastructure.in.web.dto.resp.AccreditationResponse;
+import com.carlos.challenge.infrastructure.in.web.dto.resp.AccreditationSummaryResponse;
+import com.carlos.challenge.infrastructure.in.web.dto.resp.BulkItemResponse;
+import com.carlos.challenge.infrastructure.in.web.dto.resp.DailyTotalResponse;
 import com.carlos.challenge.infrastructure.in.web.mapper.AccreditationWebMapper;
+import com.carlos.challenge.infrastructure.in.web.support.CursorCodec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,19 +39,37 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import org.springframework.boot.test.mock.mockito.MockBean;
 @WebMvcTest(controllers = AccreditationController.class)
 @ActiveProfiles(TestProfiles.TEST)
-@Import({TestSecurityConfig.class, AccreditationControllerWebTest.MockConfig.class})
+@Import({TestSecurityConfig.class, CborConfig.class, AccreditationControllerWebTest.MockConfig.class})
 class AccreditationControllerWebTest {
 
     @TestConfiguration
@@ -50,6 +88,8 @@ class AccreditationControllerWebTest {
     @Autowired MockMvc mvc;
     @Autowired AccreditationWebMapper accreditationWebMapper;
     @MockBean AccreditationUseCasePort usecase;
+    @MockBean PointOfSaleUseCasePort posUseCase;
+    @Autowired SecurityUsersProperties securityUsers;
 
     @Test
     @WithMockUser(roles = {"ADMIN"})
@@ -58,7 +98,7 @@ class AccreditationControllerWebTest {
         Accreditation created = new Accreditation("A1", new BigDecimal("10.00"), "POS1", "Point 1", Instant.parse("2024-01-01T00:00:00Z"));
         AccreditationResponse response = new AccreditationResponse("A1", new BigDecimal("10.00"), "POS1", "Point 1", Instant.parse("2024-01-01T00:00:00Z"));
 
-        when(usecase.create(any(), any())).thenReturn(created);
+        when(usecase.create(any(), any(), isNull())).thenReturn(created);
         when(accreditationWebMapper.toResponse(any(Accreditation.class))).thenReturn(response);
 
         mvc.perform(post("/api/accreditations")
@@ -71,6 +111,50 @@ class AccreditationControllerWebTest {
                 .andExpect(jsonPath("$.amount").value(10.00));
     }
 
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void create_cbor_roundTripsWithSameFieldsAsJson() throws Exception {
+        CBORMapper cbor = new CBORMapper();
+        Instant at = Instant.parse("2024-01-01T00:00:00Z");
+        when(usecase.create(eq(new BigDecimal("10.25")), eq("POS1"), isNull()))
+                .thenReturn(new Accreditation("A1", new BigDecimal("10.25"), "POS1", "Point 1", at));
+        when(accreditationWebMapper.toResponse(any(Accreditation.class)))
+                .thenReturn(new AccreditationResponse("A1", new BigDecimal("10.25"), "POS1", "Point 1", at));
+
+        byte[] body = mvc.perform(post("/api/accreditations")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cbor.writeValueAsBytes(Map.of("amount", new BigDecimal("10.25"), "pointOfSaleId", "POS1"))))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode node = cbor.readTree(body);
+        assertThat(node.get("id").asText()).isEqualTo("A1");
+        assertThat(node.get("amount").decimalValue()).isEqualByComparingTo("10.25");
+        assertThat(node.get("receptionDate").asText()).isEqualTo("2024-01-01T00:00:00Z");
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void create_respondAsync_isAcceptedWhenWriteBehindEnabled() throws Exception {
+        Accreditation queued = new Accreditation("A2", new BigDecimal("10.00"), "POS1", null, Instant.parse("2024-01-01T00:00:00Z"));
+        AccreditationResponse response = new AccreditationResponse("A2", new BigDecimal("10.00"), "POS1", null, queued.receptionDate());
+
+        when(usecase.isWriteBehindEnabled()).thenReturn(true);
+        when(usecase.submit(any(), any(), isNull())).thenReturn(queued);
+        when(accreditationWebMapper.toResponse(any(Accreditation.class))).thenReturn(response);
+
+        mvc.perform(post("/api/accreditations")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\":10.00,\"pointOfSaleId\":\"POS1\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/accreditations/A2"))
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.id").value("A2"));
+    }
+
     @Test
     @WithMockUser(roles = {"USER"})
     void create_forbiddenForUser() throws Exception {
@@ -81,6 +165,24 @@ class AccreditationControllerWebTest {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    void basicAuth_configuredUsers_areAuthenticated_andBadPasswordRejected() throws Exception {
+        SecurityUsersProperties.User user = new SecurityUsersProperties.User();
+        user.setUsername("user");
+        user.setPassword("user");
+        user.setRoles("USER");
+        // bound users changing at runtime are picked up on the next authentication
+        when(securityUsers.getUsers()).thenReturn(List.of(user));
+        when(usecase.findAll(any())).thenReturn(Page.empty());
+
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(get("/api/accreditations").with(httpBasic("user", "user")))
+                    .andExpect(status().isOk());
+        }
+        mvc.perform(get("/api/accreditations").with(httpBasic("user", "wrong")))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     @WithMockUser(roles = {"USER"})
     void list_allowsUserOrAdmin_andPaginates() throws Exception {
@@ -98,4 +200,210 @@ class AccreditationControllerWebTest {
                 .andExpect(jsonPath("$.pageable.pageNumber").value(0))
                 .andExpect(jsonPath("$.totalElements").value(1));
     }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void createBulk_ndjson_reportsEveryItem() throws Exception {
+        String ndjson = """
+                {"amount":1.00,"pointOfSaleId":"P1"}
+                {"pointOfSaleId":"P1"}
+                {"amount":3.00,"pointOfSaleId":"P2"}
+                """;
+        when(usecase.createAll(anyList())).thenReturn(List.of(
+                AccreditationWriteResult.stored(0, "A1"),
+                AccreditationWriteResult.rejected(1, "duplicate key")));
+        // doAnswer: the mapper mock is shared by the context, a when() would run the previous answer
+        doAnswer(inv -> {
+            AccreditationWriteResult r = inv.getArgument(0);
+            return new BulkItemResponse(r.index(), r.id(), r.error());
+        }).when(accreditationWebMapper).toItemResponse(any());
+
+        mvc.perform(post("/api/accreditations/bulk")
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(3))
+                .andExpect(jsonPath("$.stored").value(1))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.items[0].id").value("A1"))
+                .andExpect(jsonPath("$.items[1].error").value("amount must not be null"))
+                .andExpect(jsonPath("$.items[2].error").value("duplicate key"));
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void createBulk_malformedItem_stopsThereAndReportsWhatWasDone() throws Exception {
+        when(usecase.createAll(anyList())).thenReturn(List.of(AccreditationWriteResult.stored(0, "A1")));
+        doAnswer(inv -> {
+            AccreditationWriteResult r = inv.getArgument(0);
+            return new BulkItemResponse(r.index(), r.id(), r.error());
+        }).when(accreditationWebMapper).toItemResponse(any());
+
+        mvc.perform(post("/api/accreditations/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"amount\":1.00,\"pointOfSaleId\":\"P1\"}, {oops"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.stored").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.items[0].id").value("A1"))
+                .andExpect(jsonPath("$.items[1].index").value(1))
+                .andExpect(jsonPath("$.items[1].error").value(startsWith("Malformed item")));
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void createBulk_unreadableBody_isBadRequest() throws Exception {
+        mvc.perform(post("/api/accreditations/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{oops"))
+                .andExpect(status().isBadRequest());
+        verify(usecase, never()).createAll(anyList());
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void summaries_returnsIdsAndDatesWithoutAmounts() throws Exception {
+        String posId = "3f2504e0-4f89-11d3-9a0c-0305e82c3301";
+        Instant from = Instant.parse("2024-01-01T00:00:00Z");
+        Instant to = Instant.parse("2024-01-31T23:59:59Z");
+        AccreditationSummary row = new AccreditationSummary("A1", posId, from.plusSeconds(60));
+        AccreditationKey after = new AccreditationKey(from, "A0");
+        when(usecase.findSummaries(new AccreditationSliceQuery(posId, from, to, after, 1, false)))
+                .thenReturn(new SliceImpl<>(List.of(row), PageRequest.ofSize(1), true));
+        when(accreditationWebMapper.toSummaryResponse(row))
+                .thenReturn(new AccreditationSummaryResponse("A1", posId, row.receptionDate()));
+
+        mvc.perform(get("/api/accreditations/summaries")
+                        .param("pointOfSaleId", posId)
+                        .param("from", from.toString()).param("to", to.toString())
+                        .param("after", CursorCodec.encode(after))
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value("A1"))
+                .andExpect(jsonPath("$.content[0].amount").doesNotExist())
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value(CursorCodec.encode(AccreditationKey.of(row))));
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void stats_returnsRollupTotals() throws Exception {
+        String posId = "3f2504e0-4f89-11d3-9a0c-0305e82c3301";
+        LocalDate day = LocalDate.parse("2024-01-02");
+        AccreditationDailyTotal row = new AccreditationDailyTotal(posId, day, new BigDecimal("12.50"), 2);
+        when(usecase.totals(posId, LocalDate.parse("2024-01-01"), LocalDate.parse("2024-01-31")))
+                .thenReturn(new AccreditationTotals(new BigDecimal("12.50"), 2, List.of(row)));
+        when(accreditationWebMapper.toDailyResponse(row))
+                .thenReturn(new DailyTotalResponse(posId, day, row.total(), row.count()));
+
+        mvc.perform(get("/api/accreditations/stats")
+                        .param("pointOfSaleId", posId)
+                        .param("from", "2024-01-01").param("to", "2024-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(12.50))
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.daily[0].day").value("2024-01-02"));
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void aggregates_streamsGroupsAsNdjson() throws Exception {
+        Instant from = Instant.parse("2024-01-01T00:00:00Z");
+        Instant to = Instant.parse("2024-01-31T23:59:59Z");
+        AccreditationAggregate row = new AccreditationAggregate("P1", from, 2, new BigDecimal("3.00"),
+                new BigDecimal("1.00"), new BigDecimal("2.00"), new BigDecimal("1.50"));
+        when(usecase.aggregate(new AccreditationAggregateQuery(null, from, to, true, TimeBucket.DAY)))
+                .thenReturn(Stream.of(row, row));
+        when(accreditationWebMapper.toAggregateResponse(row)).thenReturn(new AccreditationAggregateResponse(
+                "P1", from, 2, row.sum(), row.min(), row.max(), row.avg()));
+
+        MvcResult async = mvc.perform(get("/api/accreditations/aggregates")
+                        .accept("application/x-ndjson")
+                        .param("from", from.toString()).param("to", to.toString())
+                        .param("byPointOfSale", "true").param("interval", "DAY"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body.lines()).hasSize(2)
+                .allSatisfy(line -> assertThat(line).contains("\"sum\":3.00"));
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void export_writesSelectedColumnsAsCsv() throws Exception {
+        Instant from = Instant.parse("2024-01-01T00:00:00Z");
+        Instant to = Instant.parse("2024-01-31T23:59:59Z");
+        EnumSet<AccreditationField> fields = EnumSet.of(AccreditationField.AMOUNT, AccreditationField.POINT_OF_SALE_NAME);
+        when(usecase.export(null, from, to, fields)).thenReturn(Stream.of(
+                new Accreditation(null, new BigDecimal("10.50"), null, "Shop, \"North\"", null),
+                new Accreditation(null, new BigDecimal("2.00"), null, "Plain", null)));
+
+        MvcResult async = mvc.perform(get("/api/accreditations/export")
+                        .param("from", from.toString()).param("to", to.toString())
+                        .param("format", "CSV").param("fields", "POINT_OF_SALE_NAME", "AMOUNT"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string("Content-Disposition", containsString(".csv")))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body.lines()).containsExactly(
+                "amount,pointOfSaleName",
+                "10.50,\"Shop, \"\"North\"\"\"",
+                "2.00,Plain");
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void export_gzipsNdjson() throws Exception {
+        Instant from = Instant.parse("2024-01-01T00:00:00Z");
+        Instant to = Instant.parse("2024-01-31T23:59:59Z");
+        Instant t = Instant.parse("2024-01-02T10:00:00Z");
+        when(usecase.export(null, from, to, EnumSet.allOf(AccreditationField.class))).thenReturn(Stream.of(
+                new Accreditation("A1", new BigDecimal("1.25"), "P1", "Shop", t)));
+
+        MvcResult async = mvc.perform(get("/api/accreditations/export")
+                        .param("from", from.toString()).param("to", to.toString()).param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] gz = mvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        String body = new String(new GZIPInputStream(new ByteArrayInputStream(gz)).readAllBytes(), StandardCharsets.UTF_8);
+        assertThat(body).isEqualTo("{\"id\":\"A1\",\"amount\":1.25,\"pointOfSaleId\":\"P1\","
+                + "\"pointOfSaleName\":\"Shop\",\"receptionDate\":\"2024-01-02T10:00:00Z\"}\n");
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void cursor_returnsSliceWithNextCursor_andNoTotals() throws Exception {
+        Instant t = Instant.parse("2024-01-01T00:00:00Z");
+        Accreditation a1 = new Accreditation("A1", BigDecimal.ONE, "P1", null, t);
+        Accreditation a2 = new Accreditation("A2", BigDecimal.TEN, "P1", null, t.plusSeconds(1));
+        AccreditationKey after = new AccreditationKey(t.minusSeconds(5), "A0");
+        when(usecase.findSlice(new AccreditationSliceQuery(null, null, null, after, 2, false)))
+                .thenReturn(new SliceImpl<>(List.of(a1, a2), PageRequest.ofSize(2), true));
+        when(accreditationWebMapper.toResponse(any(Accreditation.class))).thenAnswer(inv -> {
+            Accreditation a = inv.getArgument(0);
+            return new AccreditationResponse(a.id(), a.amount(), a.pointOfSaleId(), null, a.receptionDate());
+        });
+
+        mvc.perform(get("/api/accreditations/cursor")
+                        .param("after", CursorCodec.encode(after))
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[1].id").value("A2"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value(CursorCodec.encode(AccreditationKey.of(a2))))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
 }
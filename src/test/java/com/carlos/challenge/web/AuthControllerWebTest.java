@@ -0,0 +1,91 @@
+package com.carlos.challenge.web;
+
+import com.carlos.challenge.config.TestProfiles;
+import com.carlos.challenge.config.TestSecurityConfig;
+import com.carlos.challenge.infrastructure.config.SecurityUsersProperties;
+import com.carlos.challenge.infrastructure.in.web.controller.AuthController;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = AuthController.class)
+@ActiveProfiles(TestProfiles.TEST)
+@Import({TestSecurityConfig.class, AuthControllerWebTest.MockConfig.class})
+class AuthControllerWebTest {
+
+    @TestConfiguration
+    static class MockConfig {
+        @Bean
+        SecurityUsersProperties securityUsersProperties() {
+            return Mockito.mock(SecurityUsersProperties.class);
+        }
+    }
+
+    @Autowired MockMvc mvc;
+    @Autowired SecurityUsersProperties securityUsers;
+    @SpyBean PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void users() {
+        SecurityUsersProperties.User user = new SecurityUsersProperties.User();
+        user.setUsername("admin");
+        user.setPassword("admin");
+        user.setRoles("ADMIN");
+        when(securityUsers.getUsers()).thenReturn(List.of(user));
+    }
+
+    @Test
+    void token_isIssuedForBasicCredentials_andAcceptedAsBearer() throws Exception {
+        String body = mvc.perform(post("/api/auth/token").with(httpBasic("admin", "admin")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-store"))
+                .andExpect(jsonPath("$.tokenType").value("Bearer"))
+                .andExpect(jsonPath("$.expiresIn").value(900))
+                .andReturn().getResponse().getContentAsString();
+        String token = JsonPath.read(body, "$.accessToken");
+
+        // authenticated by the token (not 401), but a token cannot mint another one
+        mvc.perform(post("/api/auth/token").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void tamperedOrMissingToken_isUnauthorized() throws Exception {
+        String body = mvc.perform(post("/api/auth/token").with(httpBasic("admin", "admin")))
+                .andReturn().getResponse().getContentAsString();
+        String token = JsonPath.read(body, "$.accessToken");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        mvc.perform(post("/api/auth/token").header("Authorization", "Bearer " + tampered))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string("WWW-Authenticate", "Bearer error=\"invalid_token\""));
+        mvc.perform(post("/api/auth/token").with(httpBasic("admin", "wrong")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void failedBasicLogin_verifiesThePasswordOnce() throws Exception {
+        mvc.perform(post("/api/auth/token").with(httpBasic("admin", "wrong")))
+                .andExpect(status().isUnauthorized());
+        verify(passwordEncoder, times(1)).matches(any(), any());
+    }
+}
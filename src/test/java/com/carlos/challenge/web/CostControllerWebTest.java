@@ -5,10 +5,17 @@ import com.carlos.challenge.config.TestSecurityConfig;
 import com.carlos.challenge.domain.model.PointOfSale;
 import com.carlos.challenge.domain.model.graph.MinPaths;
 import com.carlos.challenge.domain.model.graph.Neighbor;
+import com.carlos.challenge.domain.model.graph.ShortestPathDag;
 import com.carlos.challenge.domain.port.in.GraphUseCasePort;
 import com.carlos.challenge.domain.port.in.PointOfSaleUseCasePort;
+import com.carlos.challenge.infrastructure.config.CborConfig;
+import com.carlos.challenge.infrastructure.config.ResponseCacheProperties;
 import com.carlos.challenge.infrastructure.config.SecurityUsersProperties;
 import com.carlos.challenge.infrastructure.in.web.controller.CostController;
+import com.carlos.challenge.infrastructure.in.web.service.EncodedResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,18 +27,29 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import org.springframework.boot.test.mock.mockito.MockBean;
 @WebMvcTest(controllers = CostController.class)
 @ActiveProfiles(TestProfiles.TEST)
-@Import({TestSecurityConfig.class, CostControllerWebTest.MockConfig.class})
+@Import({TestSecurityConfig.class, CborConfig.class, CostControllerWebTest.MockConfig.class})
 class CostControllerWebTest {
 
     @TestConfiguration
@@ -40,6 +58,11 @@ class CostControllerWebTest {
         SecurityUsersProperties securityUsersProperties() {
             return Mockito.mock(SecurityUsersProperties.class);
         }
+
+        @Bean
+        EncodedResponseCache encodedResponseCache() {
+            return new EncodedResponseCache(new ResponseCacheProperties(), new SimpleMeterRegistry());
+        }
     }
 
     @Autowired MockMvc mvc;
@@ -72,7 +95,7 @@ class CostControllerWebTest {
         when(posUseCase.findById(UUID_B.toString())).thenReturn(new PointOfSale(UUID_B.toString(), "POS B", 101));
         when(posUseCase.findById(UUID_C.toString())).thenReturn(new PointOfSale(UUID_C.toString(), "POS C", 102));
 
-        mvc.perform(get("/api/graph/costs/neighbors/" + UUID_A))
+        streamed(get("/api/graph/costs/neighbors/" + UUID_A))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$[0].id").value(UUID_B.toString()))
@@ -83,6 +106,47 @@ class CostControllerWebTest {
                 .andExpect(jsonPath("$[1].name").value("POS C"));
     }
 
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void neighbors_matchingIfNoneMatch_is304_withoutTouchingTheGraph() throws Exception {
+        when(graph.version()).thenReturn(7L);
+        when(posUseCase.version()).thenReturn(3L);
+        when(graph.neighborsOf(UUID_A.toString())).thenReturn(List.of());
+
+        String etag = streamed(get("/api/graph/costs/neighbors/" + UUID_A))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mvc.perform(get("/api/graph/costs/neighbors/" + UUID_A).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        verify(graph).neighborsOf(UUID_A.toString());
+
+        // a POS rename changes the enriched names, so it invalidates the tag too
+        when(posUseCase.version()).thenReturn(4L);
+        streamed(get("/api/graph/costs/neighbors/" + UUID_A).header("If-None-Match", etag))
+                .andExpect(status().isOk());
+        verify(posUseCase, never()).resolveId(anyString());
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void neighbors_repeatedRead_isServedFromEncodedBytes_perRepresentation() throws Exception {
+        when(graph.version()).thenReturn(70L);
+        when(graph.neighborsOf(UUID_B.toString())).thenReturn(List.of(new Neighbor(UUID_C.toString(), 4)));
+        when(posUseCase.findById(UUID_C.toString())).thenReturn(new PointOfSale(UUID_C.toString(), "POS C", 102));
+
+        String json = streamed(get("/api/graph/costs/neighbors/" + UUID_B))
+                .andReturn().getResponse().getContentAsString();
+        streamed(get("/api/graph/costs/neighbors/" + UUID_B))
+                .andExpect(status().isOk())
+                .andExpect(content().string(json));
+        verify(graph, times(1)).neighborsOf(UUID_B.toString());
+
+        streamed(get("/api/graph/costs/neighbors/" + UUID_B).accept("application/x-ndjson"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"id\":\"" + UUID_C + "\",\"name\":\"POS C\",\"cost\":4}\n"));
+        verify(graph, times(2)).neighborsOf(UUID_B.toString());
+    }
+
     @Test
     @WithMockUser(roles = {"USER"})
     void minPaths_contract() throws Exception {
@@ -95,4 +159,71 @@ class CostControllerWebTest {
                 .andExpect(jsonPath("$.totalCost").value(2))
                 .andExpect(jsonPath("$.paths[0].pointIds[2]").value(UUID_C.toString()));
     }
+
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void minPaths_cbor_whenAccepted() throws Exception {
+        MinPaths mp = new MinPaths(2, List.of(List.of(UUID_A.toString(), UUID_C.toString())));
+        when(graph.shortestPaths(UUID_A.toString(), UUID_C.toString())).thenReturn(mp);
+
+        byte[] body = mvc.perform(get("/api/graph/costs/min-paths")
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .param("from", UUID_A.toString()).param("to", UUID_C.toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode node = new CBORMapper().readTree(body);
+        assertThat(node.get("totalCost").asInt()).isEqualTo(2);
+        assertThat(node.at("/paths/0/pointIds/1").asText()).isEqualTo(UUID_C.toString());
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void minPathsCompact_listsEachNodeOnce_andPathsAsIndexes() throws Exception {
+        UUID d = UUID.fromString("44444444-4444-4444-4444-444444444444");
+        MinPaths mp = new MinPaths(2, List.of(
+                List.of(UUID_A.toString(), UUID_B.toString(), d.toString()),
+                List.of(UUID_A.toString(), UUID_C.toString(), d.toString())));
+        when(graph.shortestPaths(UUID_A.toString(), d.toString())).thenReturn(mp);
+        when(posUseCase.findById(anyString())).thenAnswer(inv -> new PointOfSale(inv.getArgument(0), "POS", 1));
+
+        mvc.perform(get("/api/graph/costs/min-paths/compact")
+                        .param("from", UUID_A.toString()).param("to", d.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCost").value(2))
+                .andExpect(jsonPath("$.nodes.length()").value(4))
+                .andExpect(jsonPath("$.nodes[0].id").value(UUID_A.toString()))
+                .andExpect(jsonPath("$.paths[0]").value(contains(0, 1, 2)))
+                .andExpect(jsonPath("$.paths[1]").value(contains(0, 3, 2)))
+                .andExpect(jsonPath("$.predecessors").doesNotExist());
+        verify(posUseCase, times(1)).findById(UUID_A.toString());
+        verify(posUseCase, times(1)).findById(d.toString());
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void minPathsCompact_dag_returnsPredecessorIndexes() throws Exception {
+        ShortestPathDag dag = new ShortestPathDag(2,
+                List.of(UUID_A.toString(), UUID_B.toString(), UUID_C.toString()),
+                Map.of(UUID_A.toString(), Set.of(),
+                        UUID_B.toString(), Set.of(UUID_A.toString()),
+                        UUID_C.toString(), Set.of(UUID_A.toString(), UUID_B.toString())));
+        when(graph.shortestPathDag(UUID_A.toString(), UUID_C.toString())).thenReturn(dag);
+
+        mvc.perform(get("/api/graph/costs/min-paths/compact")
+                        .param("from", UUID_A.toString()).param("to", UUID_C.toString()).param("dag", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nodes[2].id").value(UUID_C.toString()))
+                .andExpect(jsonPath("$.predecessors[0]").isEmpty())
+                .andExpect(jsonPath("$.predecessors[2]").value(contains(0, 1)))
+                .andExpect(jsonPath("$.paths").doesNotExist());
+    }
+
+    private ResultActions streamed(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult async = mvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mvc.perform(asyncDispatch(async));
+    }
 }
@@ -4,10 +4,14 @@ import com.carlos.challenge.config.TestProfiles;
 import com.carlos.challenge.config.TestSecurityConfig;
 import com.carlos.challenge.domain.model.PointOfSale;
 import com.carlos.challenge.domain.port.in.PointOfSaleUseCasePort;
+import com.carlos.challenge.infrastructure.config.ResponseCacheProperties;
 import com.carlos.challenge.infrastructure.config.SecurityUsersProperties;
 import com.carlos.challenge.infrastructure.in.web.controller.PointOfSaleController;
 import com.carlos.challenge.infrastructure.in.web.dto.resp.PointOfSaleResponse;
 import com.carlos.challenge.infrastructure.in.web.mapper.PointOfSaleWebMapper;
+import com.carlos.challenge.infrastructure.in.web.security.SignedTokenService;
+import com.carlos.challenge.infrastructure.in.web.service.EncodedResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -15,12 +19,19 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
-import java.util.List;
+import org.springframework.test.web.servlet.MvcResult;
+import java.util.stream.Stream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -33,6 +44,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 class PointOfSaleControllerWebTest {
 
     @Autowired MockMvc mvc;
+    @Autowired SignedTokenService tokens;
 
     @MockBean
     PointOfSaleUseCasePort usecase;
@@ -47,16 +59,83 @@ class PointOfSaleControllerWebTest {
         PointOfSale pos = new PointOfSale("1", "Alpha", 1001);
         PointOfSaleResponse resp = new PointOfSaleResponse("1", "Alpha", 1001);
 
-        when(usecase.findAll()).thenReturn(List.of(pos));
+        when(usecase.streamAll()).thenReturn(Stream.of(pos));
         when(mapper.toResponse(pos)).thenReturn(resp);
 
-        mvc.perform(get("/api/pointsofsale"))
+        MvcResult async = mvc.perform(get("/api/pointsofsale"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(async))
                 .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$[0].id").value("1"))
                 .andExpect(jsonPath("$[0].name").value("Alpha"))
                 .andExpect(jsonPath("$[0].code").value(1001));
     }
 
+    @Test
+    void list_withBearerToken_staysAuthenticatedOnTheAsyncDispatch() throws Exception {
+        when(usecase.streamAll()).thenReturn(Stream.empty());
+        String token = tokens.issue(UsernamePasswordAuthenticationToken.authenticated(
+                "user", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+
+        MvcResult async = mvc.perform(get("/api/pointsofsale").header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void list_ndjson_writesOneLinePerPoint() throws Exception {
+        PointOfSale a = new PointOfSale("1", "Alpha", 1001);
+        PointOfSale b = new PointOfSale("2", "Beta", 1002);
+        when(usecase.streamAll()).thenReturn(Stream.of(a, b));
+        when(mapper.toResponse(a)).thenReturn(new PointOfSaleResponse("1", "Alpha", 1001));
+        when(mapper.toResponse(b)).thenReturn(new PointOfSaleResponse("2", "Beta", 1002));
+
+        MvcResult async = mvc.perform(get("/api/pointsofsale").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body.lines()).containsExactly(
+                "{\"id\":\"1\",\"name\":\"Alpha\",\"code\":1001}",
+                "{\"id\":\"2\",\"name\":\"Beta\",\"code\":1002}");
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void list_matchingIfNoneMatch_is304_withoutReadingTheStore() throws Exception {
+        when(usecase.version()).thenReturn(42L);
+        when(usecase.streamAll()).thenAnswer(inv -> Stream.empty());
+
+        MvcResult async = mvc.perform(get("/api/pointsofsale")).andReturn();
+        mvc.perform(asyncDispatch(async)).andExpect(status().isOk());
+        String etag = async.getResponse().getHeader("ETag");
+        assertThat(etag).startsWith("\"").endsWith("\"");
+        assertThat(async.getResponse().getHeader("Vary")).contains("Accept");
+
+        mvc.perform(get("/api/pointsofsale").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+        // same version, other representation: different tag
+        mvc.perform(get("/api/pointsofsale").accept("application/x-ndjson").header("If-None-Match", etag))
+                .andExpect(request().asyncStarted());
+        verify(usecase, times(2)).streamAll();
+
+        when(usecase.version()).thenReturn(43L);
+        mvc.perform(get("/api/pointsofsale").header("If-None-Match", etag))
+                .andExpect(request().asyncStarted());
+    }
+
     @Test
     @WithMockUser(roles = {"USER"})
     void getById_allowsUserOrAdmin() throws Exception {
@@ -73,6 +152,55 @@ class PointOfSaleControllerWebTest {
                 .andExpect(jsonPath("$.code").value(1001));
     }
 
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void getById_repeatedRead_reusesEncodedBytes_untilVersionChanges() throws Exception {
+        PointOfSale pos = new PointOfSale("9", "Nine", 9009);
+        when(usecase.version()).thenReturn(900L);
+        when(usecase.findById("9")).thenReturn(pos);
+        when(mapper.toResponse(pos)).thenReturn(new PointOfSaleResponse("9", "Nine", 9009));
+
+        String first = mvc.perform(get("/api/pointsofsale/9"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        mvc.perform(get("/api/pointsofsale/9"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(first));
+        verify(usecase, times(1)).findById("9");
+        verify(mapper, times(1)).toResponse(pos);
+
+        when(usecase.version()).thenReturn(901L);
+        mvc.perform(get("/api/pointsofsale/9")).andExpect(status().isOk());
+        verify(usecase, times(2)).findById("9");
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void getByCode_resolvesCodeThroughUseCase() throws Exception {
+        PointOfSale pos = new PointOfSale("1", "Alpha", 1001);
+        PointOfSaleResponse resp = new PointOfSaleResponse("1", "Alpha", 1001);
+
+        when(usecase.resolveId("1001")).thenReturn("1");
+        when(usecase.findById("1")).thenReturn(pos);
+        when(mapper.toResponse(pos)).thenReturn(resp);
+
+        mvc.perform(get("/api/pointsofsale/by-code/1001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value("1"))
+                .andExpect(jsonPath("$.code").value(1001));
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void getByCode_rejectsAnythingButACode() throws Exception {
+        mvc.perform(get("/api/pointsofsale/by-code/11111111-1111-1111-1111-111111111111"))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/api/pointsofsale/by-code/abc"))
+                .andExpect(status().isNotFound());
+        verify(usecase, never()).resolveId(anyString());
+    }
+
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void create_requiresAdmin_andValidates() throws Exception {
@@ -127,5 +255,10 @@ class PointOfSaleControllerWebTest {
         public SecurityUsersProperties securityUsersProperties() {
             return new SecurityUsersProperties();
         }
+
+        @Bean
+        EncodedResponseCache encodedResponseCache() {
+            return new EncodedResponseCache(new ResponseCacheProperties(), new SimpleMeterRegistry());
+        }
     }
 }
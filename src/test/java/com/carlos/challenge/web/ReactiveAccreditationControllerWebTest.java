@@ -0,0 +1,99 @@
+package com.carlos.challenge.web;
+
+import com.carlos.challenge.config.TestProfiles;
+import com.carlos.challenge.config.TestSecurityConfig;
+import com.carlos.challenge.domain.model.Accreditation;
+import com.carlos.challenge.domain.port.in.PointOfSaleUseCasePort;
+import com.carlos.challenge.domain.port.in.ReactiveAccreditationUseCasePort;
+import com.carlos.challenge.infrastructure.config.SecurityUsersProperties;
+import com.carlos.challenge.infrastructure.in.web.controller.ReactiveAccreditationController;
+import com.carlos.challenge.infrastructure.in.web.dto.resp.AccreditationResponse;
+import com.carlos.challenge.infrastructure.in.web.mapper.AccreditationWebMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ReactiveAccreditationController.class)
+@ActiveProfiles({TestProfiles.TEST, "reactive"})
+@Import({TestSecurityConfig.class, ReactiveAccreditationControllerWebTest.MockConfig.class})
+class ReactiveAccreditationControllerWebTest {
+
+    @TestConfiguration
+    static class MockConfig {
+        @Bean
+        AccreditationWebMapper accreditationWebMapper() {
+            return Mockito.mock(AccreditationWebMapper.class);
+        }
+
+        @Bean
+        SecurityUsersProperties securityUsersProperties() {
+            return Mockito.mock(SecurityUsersProperties.class);
+        }
+    }
+
+    @Autowired MockMvc mvc;
+    @Autowired AccreditationWebMapper mapper;
+
+    @MockBean ReactiveAccreditationUseCasePort usecase;
+    @MockBean PointOfSaleUseCasePort posUseCase;
+
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void stream_writesOneLinePerItem_resolvingPosCode() throws Exception {
+        Instant at = Instant.parse("2025-01-01T10:00:00Z");
+        Accreditation a = new Accreditation("A1", new BigDecimal("1.25"), "P1", "Shop", at);
+        Accreditation b = new Accreditation("A2", new BigDecimal("2.50"), "P1", "Shop", at.plusSeconds(1));
+        when(posUseCase.resolveId("7")).thenReturn("P1");
+        when(usecase.find("P1", null, null)).thenReturn(Flux.just(a, b));
+        when(mapper.toResponse(any(Accreditation.class))).thenAnswer(inv -> {
+            Accreditation acc = inv.getArgument(0);
+            return new AccreditationResponse(acc.id(), acc.amount(), acc.pointOfSaleId(), acc.pointOfSaleName(), acc.receptionDate());
+        });
+
+        MvcResult async = mvc.perform(get("/api/reactive/accreditations")
+                        .accept("application/x-ndjson")
+                        .param("pointOfSaleId", "7"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body.lines()).hasSize(2);
+        assertThat(body.lines().findFirst()).get().asString().contains("\"id\":\"A1\"");
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void getById_missing_is404() throws Exception {
+        when(usecase.findById("X")).thenReturn(Mono.error(new IllegalArgumentException("Accreditation not found: X")));
+
+        MvcResult async = mvc.perform(get("/api/reactive/accreditations/X"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(async))
+                .andExpect(status().isNotFound());
+    }
+}